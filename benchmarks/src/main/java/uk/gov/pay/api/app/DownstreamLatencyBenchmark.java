@@ -0,0 +1,121 @@
+package uk.gov.pay.api.app;
+
+import com.codahale.metrics.MetricRegistry;
+import com.sun.net.httpserver.HttpServer;
+import io.dropwizard.jackson.Jackson;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.core.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.pay.api.app.config.DownstreamClientConfig;
+import uk.gov.pay.api.app.config.RestClientConfig;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to handle {@code concurrency} requests arriving at once when each one makes a
+ * blocking call, with the application's Jersey client, to a downstream service that takes
+ * {@value #DOWNSTREAM_LATENCY_MILLIS}ms to respond.
+ * <p>
+ * {@code platform} handles them on a pool of {@value #PLATFORM_THREADS} platform threads, Dropwizard's default
+ * maximum for Jetty; {@code virtual} handles each one on its own virtual thread, as Jetty does with
+ * {@code server.enableVirtualThreads}. Divide {@code concurrency} by the score for requests per second.
+ * <p>
+ * Each operation opens up to {@code concurrency} connections, so raise the open file limit
+ * ({@code ulimit -n}) before running at 10k.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DownstreamLatencyBenchmark {
+
+    private static final int DOWNSTREAM_LATENCY_MILLIS = 100;
+    private static final int PLATFORM_THREADS = 1024;
+
+    @Param({"1000", "5000", "10000"})
+    private int concurrency;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    private HttpServer downstream;
+    private Client client;
+    private String downstreamUrl;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        downstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 10_000);
+        downstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        downstream.createContext("/charge", exchange -> {
+            try {
+                Thread.sleep(DOWNSTREAM_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{}".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        downstream.start();
+        downstreamUrl = "http://127.0.0.1:" + downstream.getAddress().getPort() + "/charge";
+
+        // size the connection pool so that it is not what limits concurrency
+        DownstreamClientConfig downstreamConfig = Jackson.newObjectMapper().convertValue(
+                Map.of("maxConnections", concurrency), DownstreamClientConfig.class);
+        client = RestClientFactory.buildClient("downstream", new RestClientConfig(true), downstreamConfig, null, new MetricRegistry());
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        client.close();
+        downstream.stop(0);
+    }
+
+    @Benchmark
+    public int concurrentSlowDownstreamRequests() throws Exception {
+        List<Future<Integer>> statuses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            statuses.add(executor.submit(this::callDownstream));
+        }
+        int ok = 0;
+        for (Future<Integer> status : statuses) {
+            if (status.get() == 200) {
+                ok++;
+            }
+        }
+        return ok;
+    }
+
+    private int callDownstream() {
+        try (Response response = client.target(downstreamUrl).request().get()) {
+            return response.getStatus();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package uk.gov.pay.api.filter;
+
+import com.google.common.io.BaseEncoding;
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures checking the checksum of valid and invalid API keys with {@link ApiKeyChecksumVerifier},
+ * against the previous approach of building an {@link HmacUtils} per request and comparing encoded strings.
+ * <p>
+ * Run with {@code -prof gc} to compare allocation per operation as well as time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ApiKeyChecksumVerifierBenchmark {
+
+    private static final String SECRET = "qwer9yuhgf";
+    private static final String TOKEN = "2rvsfen5r0pac8blahaaedq7u1";
+
+    private ApiKeyChecksumVerifier verifier;
+    private String validApiKey;
+    private String invalidApiKey;
+
+    @Setup
+    public void setUp() {
+        verifier = new ApiKeyChecksumVerifier(SECRET);
+        validApiKey = TOKEN + encode(new HmacUtils(HmacAlgorithms.HMAC_SHA_1, SECRET).hmac(TOKEN));
+        invalidApiKey = TOKEN + encode(new HmacUtils(HmacAlgorithms.HMAC_SHA_1, "another-secret").hmac(TOKEN));
+    }
+
+    @Benchmark
+    public boolean verifier_validApiKey() {
+        return verifier.isValid(validApiKey);
+    }
+
+    @Benchmark
+    public boolean verifier_invalidApiKey() {
+        return verifier.isValid(invalidApiKey);
+    }
+
+    @Benchmark
+    public boolean hmacUtilsPerRequest_validApiKey() {
+        return hmacUtilsPerRequest(validApiKey);
+    }
+
+    @Benchmark
+    public boolean hmacUtilsPerRequest_invalidApiKey() {
+        return hmacUtilsPerRequest(invalidApiKey);
+    }
+
+    private static boolean hmacUtilsPerRequest(String apiKey) {
+        int checksumStart = apiKey.length() - ApiKeyChecksumVerifier.CHECKSUM_LENGTH;
+        String calculated = encode(new HmacUtils(HmacAlgorithms.HMAC_SHA_1, SECRET).hmac(apiKey.substring(0, checksumStart)));
+        return MessageDigest.isEqual(calculated.getBytes(StandardCharsets.UTF_8),
+                apiKey.substring(checksumStart).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String encode(byte[] hmac) {
+        return BaseEncoding.base32Hex().lowerCase().omitPadding().encode(hmac);
+    }
+}
@@ -0,0 +1,77 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.pay.api.app.config.RateLimiterConfig;
+import uk.gov.pay.api.filter.RateLimiterKey;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LocalRateLimiter} throughput when every thread is hitting the same hot key,
+ * as happens for a busy account while Redis is unavailable.
+ * <p>
+ * The allowance is set high enough that requests are never rejected, so the figures show the cost
+ * of the allowed path under contention rather than the cost of building a {@link RateLimitException}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalRateLimiterBenchmark {
+
+    private static final String ACCOUNT_ID = "1";
+
+    private LocalRateLimiter localRateLimiter;
+    private RateLimiterKey rateLimiterKey;
+
+    @Setup
+    public void setUp() {
+        localRateLimiter = new LocalRateLimiter(new RateLimiterConfig() {
+            @Override
+            public int getNoOfReqPerNode() {
+                return 1_000_000_000;
+            }
+
+            @Override
+            public int getNoOfReqForPostPerNode() {
+                return 1_000_000_000;
+            }
+
+            @Override
+            public int getPerMillis() {
+                return 1000;
+            }
+        });
+        rateLimiterKey = RateLimiterKey.forMethod("GET", ACCOUNT_ID, 1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public RateLimitStatus checkRateOf_1Thread() throws RateLimitException {
+        return localRateLimiter.checkRateOf(ACCOUNT_ID, rateLimiterKey);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public RateLimitStatus checkRateOf_8Threads() throws RateLimitException {
+        return localRateLimiter.checkRateOf(ACCOUNT_ID, rateLimiterKey);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public RateLimitStatus checkRateOf_64Threads() throws RateLimitException {
+        return localRateLimiter.checkRateOf(ACCOUNT_ID, rateLimiterKey);
+    }
+}
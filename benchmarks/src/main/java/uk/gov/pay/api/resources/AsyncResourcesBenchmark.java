@@ -0,0 +1,151 @@
+package uk.gov.pay.api.resources;
+
+import com.google.common.io.BaseEncoding;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.dropwizard.configuration.ResourceConfigurationSourceProvider;
+import io.dropwizard.testing.DropwizardTestSupport;
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.pay.api.app.PublicApi;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.dropwizard.testing.ConfigOverride.config;
+
+/**
+ * Measures how long it takes to serve {@value #TOTAL_REQUESTS} {@code GET /v1/payments/{paymentId}} requests,
+ * {@value #CONCURRENT_REQUESTS} at a time, with {@value #JETTY_MAX_THREADS} Jetty threads while connector takes
+ * {@value #CONNECTOR_LATENCY_MILLIS}ms to respond, with and without {@code asyncResourcesEnabled}. Without
+ * asynchronous resources, throughput is bounded by the number of Jetty threads; with them, by the
+ * {@value #CLIENT_ASYNC_THREADS} connector client threads. Divide {@value #TOTAL_REQUESTS} by the score for
+ * requests per second.
+ * <p>
+ * The whole application runs in this JVM, against stand-in publicauth and connector services.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AsyncResourcesBenchmark {
+
+    private static final int JETTY_MAX_THREADS = 12;
+    private static final int CLIENT_ASYNC_THREADS = 50;
+    private static final int CONCURRENT_REQUESTS = 50;
+    private static final int TOTAL_REQUESTS = 200;
+    private static final int CONNECTOR_LATENCY_MILLIS = 250;
+    private static final String ACCOUNT_ID = "123";
+    private static final String API_KEY_SECRET = "qwer9yuhgf";
+    private static final String CHARGE_JSON = """
+            {"charge_id": "paymentId", "amount": 100, "language": "en", "reference": "ref 12",
+             "state": {"status": "created", "finished": false}, "email": "test@example.com",
+             "description": "description", "return_url": "http://example.com", "payment_provider": "sandbox",
+             "card_brand": "VISA", "created_date": "2018-07-25T13:12:00"}""";
+
+    @Param({"false", "true"})
+    private boolean asyncResourcesEnabled;
+
+    private HttpServer downstream;
+    private DropwizardTestSupport<PublicApiConfig> app;
+    private HttpClient httpClient;
+    private ExecutorService executor;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        downstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1000);
+        downstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        downstream.createContext("/v1/api/auth", exchange ->
+                respond(exchange, "{\"account_id\": \"" + ACCOUNT_ID + "\", \"token_type\": \"CARD\"}"));
+        downstream.createContext("/v1/api/accounts/" + ACCOUNT_ID + "/charges/paymentId", exchange -> {
+            try {
+                Thread.sleep(CONNECTOR_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, CHARGE_JSON);
+        });
+        downstream.start();
+        String downstreamUrl = "http://127.0.0.1:" + downstream.getAddress().getPort();
+
+        app = new DropwizardTestSupport<>(PublicApi.class, "config/async-resources-benchmark.yaml",
+                new ResourceConfigurationSourceProvider(),
+                config("server.minThreads", String.valueOf(JETTY_MAX_THREADS)),
+                config("server.maxThreads", String.valueOf(JETTY_MAX_THREADS)),
+                config("server.applicationConnectors[0].acceptorThreads", "1"),
+                config("server.applicationConnectors[0].selectorThreads", "1"),
+                config("asyncResourcesEnabled", String.valueOf(asyncResourcesEnabled)),
+                config("jerseyClientConfig.connector.asyncThreadPoolSize", String.valueOf(CLIENT_ASYNC_THREADS)),
+                config("publicAuthUrl", downstreamUrl + "/v1/api/auth"),
+                config("connectorUrl", downstreamUrl));
+        app.before();
+
+        String token = "TEST_BEARER_TOKEN";
+        String apiKey = token + BaseEncoding.base32Hex().lowerCase().omitPadding()
+                .encode(new HmacUtils(HmacAlgorithms.HMAC_SHA_1, API_KEY_SECRET).hmac(token));
+        request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + app.getLocalPort() + "/v1/payments/paymentId"))
+                .header("Authorization", "Bearer " + apiKey)
+                .build();
+        executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        httpClient = HttpClient.newBuilder().executor(executor).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        executor.shutdownNow();
+        app.after();
+        downstream.stop(0);
+    }
+
+    @Benchmark
+    public int getPayments() throws Exception {
+        List<Future<Integer>> statuses = new ArrayList<>(TOTAL_REQUESTS);
+        for (int i = 0; i < TOTAL_REQUESTS; i++) {
+            statuses.add(executor.submit(() -> httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()));
+        }
+        int ok = 0;
+        for (Future<Integer> status : statuses) {
+            if (status.get() == 200) {
+                ok++;
+            }
+        }
+        return ok;
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
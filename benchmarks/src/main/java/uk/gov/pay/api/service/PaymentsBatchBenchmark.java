@@ -0,0 +1,138 @@
+package uk.gov.pay.api.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.sun.net.httpserver.HttpServer;
+import io.dropwizard.jackson.Jackson;
+import jakarta.ws.rs.client.Client;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.pay.api.app.RestClientFactory;
+import uk.gov.pay.api.app.config.DownstreamClientConfig;
+import uk.gov.pay.api.app.config.PaymentsBatchConfig;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.app.config.RestClientConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.model.TokenPaymentType;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares getting {@code batchSize} payments one after another, as a client making a
+ * {@code GET /v1/payments/{paymentId}} request for each would, with getting them in one batch through
+ * {@link RetrievePaymentsBatchService}, {@value #PARALLELISM} at a time. Both go through the real
+ * {@link GetPaymentService} and {@link ConnectorService} to a stand-in connector that takes
+ * {@value #DOWNSTREAM_LATENCY_MILLIS}ms to respond.
+ * <p>
+ * The one-by-one figure leaves out the client's own round trips to the API, so the batch saves at least
+ * the difference between the two scores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PaymentsBatchBenchmark {
+
+    private static final int DOWNSTREAM_LATENCY_MILLIS = 20;
+    private static final int PARALLELISM = 10;
+    private static final String CHARGE_JSON = """
+            {"charge_id": "%s", "amount": 1000, "state": {"status": "success", "finished": true},
+             "description": "A payment", "reference": "a-reference", "return_url": "https://example.org/return",
+             "payment_provider": "sandbox", "created_date": "2024-01-01T00:00:00.000Z", "language": "en",
+             "delayed_capture": false, "moto": false, "links": []}""";
+
+    @Param({"10", "50"})
+    private int batchSize;
+
+    private final Account account = new Account("an-account-id", TokenPaymentType.CARD, "a-token-link");
+
+    private HttpServer downstream;
+    private Client client;
+    private ExecutorService asyncExecutor;
+    private GetPaymentService getPaymentService;
+    private RetrievePaymentsBatchService retrievePaymentsBatchService;
+    private List<String> paymentIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        downstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 100);
+        downstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        downstream.createContext("/v1/api/accounts", exchange -> {
+            try {
+                Thread.sleep(DOWNSTREAM_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String path = exchange.getRequestURI().getPath();
+            byte[] body = CHARGE_JSON.formatted(path.substring(path.lastIndexOf('/') + 1)).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        downstream.start();
+        String downstreamUrl = "http://127.0.0.1:" + downstream.getAddress().getPort();
+
+        PublicApiConfig configuration = new PublicApiConfig() {
+            @Override
+            public String getBaseUrl() {
+                return "https://publicapi.example.org/";
+            }
+
+            @Override
+            public String getConnectorUrl() {
+                return downstreamUrl;
+            }
+        };
+        DownstreamClientConfig downstreamConfig = Jackson.newObjectMapper().convertValue(
+                Map.of("maxConnections", PARALLELISM), DownstreamClientConfig.class);
+        asyncExecutor = Executors.newFixedThreadPool(PARALLELISM);
+        client = RestClientFactory.buildClient("connector", new RestClientConfig(true), downstreamConfig, asyncExecutor, new MetricRegistry());
+
+        getPaymentService = new GetPaymentService(new PublicApiUriGenerator(configuration),
+                new ConnectorService(client, new ConnectorUriGenerator(configuration)), null);
+        retrievePaymentsBatchService = new RetrievePaymentsBatchService(getPaymentService, Jackson.newObjectMapper(),
+                new PaymentsBatchConfig(batchSize, PARALLELISM), new MetricRegistry());
+        paymentIds = IntStream.range(0, batchSize).mapToObj(i -> "payment-" + i).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        asyncExecutor.shutdownNow();
+        client.close();
+        downstream.stop(0);
+    }
+
+    @Benchmark
+    public void oneByOne(Blackhole blackhole) {
+        for (String paymentId : paymentIds) {
+            blackhole.consume(getPaymentService.getPayment(account, paymentId));
+        }
+    }
+
+    @Benchmark
+    public void batch() throws Exception {
+        retrievePaymentsBatchService.retrieve(account, paymentIds).write(OutputStream.nullOutputStream());
+    }
+}
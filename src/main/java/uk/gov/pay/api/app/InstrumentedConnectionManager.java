@@ -0,0 +1,70 @@
+package uk.gov.pay.api.app;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool for the Jersey client of one downstream service that publishes how full it is and how long
+ * requests wait for a connection, under {@code http_client.<downstream>.pool}:
+ * <ul>
+ *     <li>{@code leased}, {@code available}, {@code pending} and {@code max} connections</li>
+ *     <li>{@code utilisation}, the fraction of the maximum that is leased</li>
+ *     <li>{@code wait_time}, the time taken to get a connection from the pool</li>
+ *     <li>{@code rejected}, requests that gave up waiting for a connection</li>
+ * </ul>
+ */
+class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final Timer waitTime;
+    private final Meter rejected;
+
+    InstrumentedConnectionManager(String downstream, Registry<ConnectionSocketFactory> socketFactoryRegistry,
+                                  MetricRegistry metricRegistry) {
+        super(socketFactoryRegistry);
+        String prefix = "http_client." + downstream + ".pool";
+        this.waitTime = metricRegistry.timer(prefix + ".wait_time");
+        this.rejected = metricRegistry.meter(prefix + ".rejected");
+        metricRegistry.gauge(prefix + ".leased", () -> (Gauge<Integer>) () -> getTotalStats().getLeased());
+        metricRegistry.gauge(prefix + ".available", () -> (Gauge<Integer>) () -> getTotalStats().getAvailable());
+        metricRegistry.gauge(prefix + ".pending", () -> (Gauge<Integer>) () -> getTotalStats().getPending());
+        metricRegistry.gauge(prefix + ".max", () -> (Gauge<Integer>) () -> getTotalStats().getMax());
+        metricRegistry.gauge(prefix + ".utilisation", () -> (Gauge<Double>) () -> {
+            var stats = getTotalStats();
+            return stats.getMax() == 0 ? 0.0 : (double) stats.getLeased() / stats.getMax();
+        });
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest connectionRequest = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                try (Timer.Context ignored = waitTime.time()) {
+                    return connectionRequest.get(timeout, timeUnit);
+                } catch (ConnectionPoolTimeoutException e) {
+                    rejected.mark();
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return connectionRequest.cancel();
+            }
+        };
+    }
+}
@@ -4,7 +4,7 @@ import com.google.inject.Guice;
 import com.google.inject.Injector;
 import io.dropwizard.auth.AuthDynamicFeature;
 import io.dropwizard.auth.AuthValueFactoryProvider;
-import io.dropwizard.auth.CachingAuthenticator;
+import io.dropwizard.auth.Authenticator;
 import io.dropwizard.auth.oauth.OAuthCredentialAuthFilter;
 import io.dropwizard.configuration.EnvironmentVariableSubstitutor;
 import io.dropwizard.configuration.SubstitutingSourceProvider;
@@ -24,6 +24,11 @@ import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.app.config.PublicApiModule;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.auth.AccountAuthenticator;
+import uk.gov.pay.api.auth.CoalescingAuthenticator;
+import uk.gov.pay.api.auth.NegativeCachingAuthenticator;
+import uk.gov.pay.api.auth.RefreshingCachingAuthenticator;
+import uk.gov.pay.api.auth.SharedAuthenticationCache;
+import uk.gov.pay.api.auth.SharedCachingAuthenticator;
 import uk.gov.pay.api.exception.mapper.AgreementValidationExceptionMapper;
 import uk.gov.pay.api.exception.mapper.AuthorisationRequestExceptionMapper;
 import uk.gov.pay.api.exception.mapper.BadRefundsRequestExceptionMapper;
@@ -44,6 +49,7 @@ import uk.gov.pay.api.exception.mapper.InternalServerExceptionMapper;
 import uk.gov.pay.api.exception.mapper.JsonProcessingExceptionMapper;
 import uk.gov.pay.api.exception.mapper.PaymentValidationExceptionMapper;
 import uk.gov.pay.api.exception.mapper.RefundsValidationExceptionMapper;
+import uk.gov.pay.api.exception.mapper.RejectedExecutionExceptionMapper;
 import uk.gov.pay.api.exception.mapper.SearchAgreementsExceptionMapper;
 import uk.gov.pay.api.exception.mapper.SearchChargesExceptionMapper;
 import uk.gov.pay.api.exception.mapper.SearchDisputesExceptionMapper;
@@ -51,20 +57,29 @@ import uk.gov.pay.api.exception.mapper.SearchRefundsExceptionMapper;
 import uk.gov.pay.api.exception.mapper.ViolationExceptionMapper;
 import uk.gov.pay.api.filter.AuthorizationValidationFilter;
 import uk.gov.pay.api.filter.ClearMdcValuesFilter;
+import uk.gov.pay.api.filter.ConcurrencyLimiterFilter;
+import uk.gov.pay.api.filter.ConcurrencyLimiterRequestEventListener;
 import uk.gov.pay.api.filter.LoggingMDCRequestFilter;
+import uk.gov.pay.api.filter.RateLimitHeadersFilter;
 import uk.gov.pay.api.filter.RateLimiterFilter;
+import uk.gov.pay.api.filter.ratelimit.AccountTiersProvider;
 import uk.gov.pay.api.healthcheck.Ping;
+import uk.gov.pay.api.healthcheck.RedisCircuitBreakerHealthCheck;
+import uk.gov.pay.api.healthcheck.RedisConnectionHealthCheck;
 import uk.gov.pay.api.ledger.resource.TransactionsResource;
 import uk.gov.pay.api.managed.RedisClientManager;
 import uk.gov.pay.api.resources.AuthorisationResource;
 import uk.gov.pay.api.resources.HealthCheckResource;
 import uk.gov.pay.api.resources.PaymentRefundsResource;
+import uk.gov.pay.api.resources.PaymentsBatchResource;
 import uk.gov.pay.api.resources.PaymentsResource;
 import uk.gov.pay.api.resources.RequestDeniedResource;
 import uk.gov.pay.api.resources.SearchDisputesResource;
 import uk.gov.pay.api.resources.SearchRefundsResource;
 import uk.gov.pay.api.resources.SecuritytxtResource;
 import uk.gov.pay.api.resources.telephone.TelephonePaymentNotificationResource;
+import uk.gov.pay.api.tasks.EvictApiKeyTask;
+import uk.gov.pay.api.tasks.ReloadAccountTiersTask;
 import uk.gov.pay.api.validation.InjectingValidationFeature;
 import uk.gov.service.payments.logging.GovUkPayDropwizardRequestJsonLogLayoutFactory;
 import uk.gov.service.payments.logging.LoggingFilter;
@@ -102,9 +117,12 @@ public class PublicApi extends Application<PublicApiConfig> {
         final Injector injector = Guice.createInjector(new PublicApiModule(configuration, environment));
 
         environment.healthChecks().register("ping", new Ping());
+        environment.healthChecks().register("redisCircuitBreaker", injector.getInstance(RedisCircuitBreakerHealthCheck.class));
+        environment.healthChecks().register("redisConnection", injector.getInstance(RedisConnectionHealthCheck.class));
 
         environment.jersey().register(injector.getInstance(HealthCheckResource.class));
         environment.jersey().register(injector.getInstance(PaymentsResource.class));
+        environment.jersey().register(injector.getInstance(PaymentsBatchResource.class));
         environment.jersey().register(injector.getInstance(AgreementsApiResource.class));
         environment.jersey().register(injector.getInstance(PaymentRefundsResource.class));
         environment.jersey().register(injector.getInstance(RequestDeniedResource.class));
@@ -117,6 +135,9 @@ public class PublicApi extends Application<PublicApiConfig> {
         environment.jersey().register(injector.getInstance(SearchDisputesResource.class));
 
         environment.jersey().register(injector.getInstance(RateLimiterFilter.class));
+        environment.jersey().register(injector.getInstance(RateLimitHeadersFilter.class));
+        environment.jersey().register(injector.getInstance(ConcurrencyLimiterFilter.class));
+        environment.jersey().register(injector.getInstance(ConcurrencyLimiterRequestEventListener.class));
         environment.jersey().register(injector.getInstance(LoggingMDCRequestFilter.class));
 
         environment.servlets().addFilter("ClearMdcValuesFilter", injector.getInstance(ClearMdcValuesFilter.class))
@@ -136,14 +157,33 @@ public class PublicApi extends Application<PublicApiConfig> {
         */
         environment.jersey().property(CommonProperties.FEATURE_AUTO_DISCOVERY_DISABLE, Boolean.TRUE);
 
-        CachingAuthenticator<String, Account> cachingAuthenticator = new CachingAuthenticator<>(
-                environment.metrics(),
-                injector.getInstance(AccountAuthenticator.class),
-                configuration.getAuthenticationCachePolicy());
+        SharedAuthenticationCache sharedAuthenticationCache = injector.getInstance(SharedAuthenticationCache.class);
+        Authenticator<String, Account> accountAuthenticator =
+                new CoalescingAuthenticator(injector.getInstance(AccountAuthenticator.class), environment.metrics());
+        Authenticator<String, Account> refreshingAuthenticator = accountAuthenticator;
+        if (sharedAuthenticationCache.isEnabled()) {
+            SharedCachingAuthenticator sharedCachingAuthenticator = new SharedCachingAuthenticator(accountAuthenticator, sharedAuthenticationCache);
+            accountAuthenticator = sharedCachingAuthenticator;
+            // refreshes go to public auth, so a revoked key is seen within refreshAfterWrite, not the shared time to live
+            refreshingAuthenticator = sharedCachingAuthenticator.bypassingSharedCache();
+        }
+        // only consulted when a key is not cached, so that cached keys are not hashed and looked up again
+        Authenticator<String, Account> loadingAuthenticator = new NegativeCachingAuthenticator(
+                accountAuthenticator,
+                configuration.getRejectedApiKeyCachePolicy(),
+                environment.metrics());
+        RefreshingCachingAuthenticator refreshingCachingAuthenticator = new RefreshingCachingAuthenticator(
+                loadingAuthenticator,
+                refreshingAuthenticator,
+                configuration.getAuthenticationCachePolicy(),
+                environment.lifecycle().executorService("authentication-cache-refresh-%d").minThreads(4).maxThreads(4).build(),
+                environment.metrics());
+        sharedAuthenticationCache.addInvalidationListener(refreshingCachingAuthenticator::invalidateTokenLink);
+        environment.admin().addTask(new EvictApiKeyTask(refreshingCachingAuthenticator, sharedAuthenticationCache));
 
         environment.jersey().register(new AuthDynamicFeature(
                 new OAuthCredentialAuthFilter.Builder<Account>()
-                        .setAuthenticator(cachingAuthenticator)
+                        .setAuthenticator(refreshingCachingAuthenticator)
                         .setPrefix("Bearer")
                         .buildAuthFilter()));
         environment.jersey().register(new AuthValueFactoryProvider.Binder<>(Account.class));
@@ -155,6 +195,9 @@ public class PublicApi extends Application<PublicApiConfig> {
         environment.admin().addServlet("prometheusMetrics", new MetricsServlet(collectorRegistry)).addMapping("/metrics");
 
         environment.lifecycle().manage(injector.getInstance(RedisClientManager.class));
+        environment.lifecycle().manage(injector.getInstance(AccountTiersProvider.class));
+        environment.lifecycle().manage(injector.getInstance(SharedAuthenticationCache.class));
+        environment.admin().addTask(injector.getInstance(ReloadAccountTiersTask.class));
     }
 
     /**
@@ -192,6 +235,7 @@ public class PublicApi extends Application<PublicApiConfig> {
         jersey.register(InternalServerExceptionMapper.class);
         jersey.register(DisputeValidationExceptionMapper.class);
         jersey.register(SearchDisputesExceptionMapper.class);
+        jersey.register(RejectedExecutionExceptionMapper.class);
     }
 
     public static void main(String[] args) throws Exception {
@@ -1,5 +1,21 @@
 package uk.gov.pay.api.app;
 
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.apache.connector.ApacheHttpClientBuilderConfigurator;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import uk.gov.pay.api.app.config.DownstreamClientConfig;
 import uk.gov.pay.api.app.config.RestClientConfig;
 import uk.gov.service.payments.logging.RestClientLoggingFilter;
 
@@ -8,31 +24,97 @@ import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
 
+/**
+ * Builds the Jersey clients used for connector, ledger and publicauth. Requests go through the Apache
+ * connector with a bounded pool of keep-alive connections for each downstream service, see
+ * {@link DownstreamClientConfig} for its limits and timeouts and {@link InstrumentedConnectionManager}
+ * for its metrics.
+ */
 public class RestClientFactory {
     private static final String TLSV1_2 = "TLSv1.2";
 
     public static Client buildClient(RestClientConfig clientConfig) {
-        ClientBuilder clientBuilder = ClientBuilder.newBuilder();
+        return buildClient("default", clientConfig, new DownstreamClientConfig(), null, new MetricRegistry());
+    }
 
+    /**
+     * Builds a client for one downstream service whose reactive invocations ({@code request().rx()}) run on the
+     * given executor instead of Jersey's default async pool, if one is given, and whose connection pool metrics
+     * are published to the given registry under {@code http_client.<downstream>.pool}.
+     */
+    public static Client buildClient(String downstream, RestClientConfig clientConfig, DownstreamClientConfig downstreamConfig,
+                                     ExecutorService asyncExecutor, MetricRegistry metricRegistry) {
+        SSLContext sslContext = null;
+        SSLConnectionSocketFactory sslSocketFactory = SSLConnectionSocketFactory.getSocketFactory();
         if (!clientConfig.isDisabledSecureConnection()) {
             try {
-                SSLContext sslContext = SSLContext.getInstance(TLSV1_2);
+                sslContext = SSLContext.getInstance(TLSV1_2);
                 sslContext.init(null, null, null);
-                clientBuilder = clientBuilder.sslContext(sslContext);
+                sslSocketFactory = new SSLConnectionSocketFactory(sslContext);
             } catch (NoSuchAlgorithmException | KeyManagementException e) {
                 throw new RuntimeException(format("Unable to find an SSL context for %s", TLSV1_2), e);
             }
         }
 
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(downstream,
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", sslSocketFactory)
+                        .build(),
+                metricRegistry);
+        // each client only calls one host, so its whole pool is available to that route
+        connectionManager.setMaxTotal(downstreamConfig.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(downstreamConfig.getMaxConnections());
+
+        ClientConfig connectorConfig = new ClientConfig()
+                .connectorProvider(new ApacheConnectorProvider())
+                .property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager)
+                .property(ApacheClientProperties.REQUEST_CONFIG, RequestConfig.custom()
+                        .setConnectionRequestTimeout(toIntMillis(downstreamConfig.getConnectionRequestTimeout()))
+                        .build())
+                .property(ClientProperties.CONNECT_TIMEOUT, toIntMillis(downstreamConfig.getConnectTimeout()))
+                .property(ClientProperties.READ_TIMEOUT, toIntMillis(downstreamConfig.getReadTimeout()))
+                // send a Content-Length rather than chunking request bodies, as HttpUrlConnection did
+                .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.BUFFERED)
+                .register((ApacheHttpClientBuilderConfigurator) httpClientBuilder -> httpClientBuilder
+                        .setKeepAliveStrategy(keepAliveStrategy(clientConfig.getKeepAlive()))
+                        .evictExpiredConnections()
+                        .evictIdleConnections(clientConfig.getIdleTimeout().toMilliseconds(), TimeUnit.MILLISECONDS));
+
+        ClientBuilder clientBuilder = ClientBuilder.newBuilder().withConfig(connectorConfig);
+        if (sslContext != null) {
+            clientBuilder = clientBuilder.sslContext(sslContext);
+        }
+        if (asyncExecutor != null) {
+            clientBuilder = clientBuilder.executorService(asyncExecutor);
+        }
+
         Client client = clientBuilder.build();
         client.register(RestClientLoggingFilter.class);
 
         return client;
     }
 
+    /**
+     * Keeps connections for as long as the server's Keep-Alive header allows, but never longer than {@code keepAlive}.
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(Duration keepAlive) {
+        long maxKeepAliveMillis = keepAlive.toMilliseconds();
+        return (response, context) -> {
+            long serverKeepAliveMillis = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAliveMillis > 0 ? Math.min(serverKeepAliveMillis, maxKeepAliveMillis) : maxKeepAliveMillis;
+        };
+    }
+
+    private static int toIntMillis(Duration duration) {
+        return Math.toIntExact(duration.toMilliseconds());
+    }
+
     private RestClientFactory() {
     }
 }
@@ -0,0 +1,74 @@
+package uk.gov.pay.api.app.config;
+
+import io.dropwizard.util.Duration;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Limits on the number of requests in flight at once for each account and route class.
+ * Accounts are put into tiers using the {@link RateLimiterConfig} elevated and low traffic account lists,
+ * or the account tiers file if one is configured.
+ */
+public class ConcurrencyLimiterConfig {
+
+    private boolean enabled;
+
+    @Min(1)
+    private int initialLimit = 20;
+
+    @Min(1)
+    private int minLimit = 2;
+
+    @Min(1)
+    private int maxLimit = 50;
+
+    @Min(1)
+    private int maxLimitForElevatedAccounts = 100;
+
+    @Min(1)
+    private int maxLimitForLowTrafficAccounts = 10;
+
+    @Valid
+    @NotNull
+    private Duration latencyThreshold = Duration.seconds(2);
+
+    @DecimalMin("0.5")
+    @DecimalMax("1.0")
+    private double backoffRatio = 0.9;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public int getMaxLimitForElevatedAccounts() {
+        return maxLimitForElevatedAccounts;
+    }
+
+    public int getMaxLimitForLowTrafficAccounts() {
+        return maxLimitForLowTrafficAccounts;
+    }
+
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+}
@@ -0,0 +1,79 @@
+package uk.gov.pay.api.app.config;
+
+import io.dropwizard.util.Duration;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Limits for the client used to call one downstream service. Each downstream service has its own connection pool
+ * and asynchronous thread pool sized by these, so that one slow service cannot use up another's connections or threads.
+ */
+public class DownstreamClientConfig {
+
+    /**
+     * Requests in flight to the service at once. Further requests wait up to {@link #connectionRequestTimeout}
+     * for a connection and then fail.
+     */
+    @Min(1)
+    private int maxConnections = 256;
+
+    /**
+     * Threads making asynchronous calls to the service.
+     */
+    @Min(1)
+    private int asyncThreadPoolSize = 100;
+
+    /**
+     * Asynchronous calls waiting for one of the {@link #asyncThreadPoolSize} threads. Further calls are rejected.
+     */
+    @Min(1)
+    private int asyncQueueSize = 1000;
+
+    @Valid
+    @NotNull
+    private Duration connectTimeout = Duration.seconds(5);
+
+    @Valid
+    @NotNull
+    private Duration readTimeout = Duration.seconds(60);
+
+    /**
+     * How long to wait for a connection from the pool when all of them are in use.
+     */
+    @Valid
+    @NotNull
+    private Duration connectionRequestTimeout = Duration.seconds(5);
+
+    public DownstreamClientConfig() {
+    }
+
+    public DownstreamClientConfig(int maxConnections, int asyncThreadPoolSize) {
+        this.maxConnections = maxConnections;
+        this.asyncThreadPoolSize = asyncThreadPoolSize;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getAsyncThreadPoolSize() {
+        return asyncThreadPoolSize;
+    }
+
+    public int getAsyncQueueSize() {
+        return asyncQueueSize;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public Duration getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+}
@@ -0,0 +1,52 @@
+package uk.gov.pay.api.app.config;
+
+import io.dropwizard.util.Duration;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Looking up a payment asks connector first and only asks ledger if connector does not have it. With hedging,
+ * ledger is also asked if connector has not answered within {@link #delay}, which should be around connector's
+ * 95th percentile response time. A delay of zero asks both at once. At most {@link #maxHedgedPercent} of lookups
+ * are hedged, so that a slow connector does not double the load on ledger.
+ */
+public class GetPaymentHedgingConfig {
+
+    private boolean enabled = true;
+
+    @Valid
+    @NotNull
+    private Duration delay = Duration.milliseconds(200);
+
+    @Min(0)
+    @Max(100)
+    private int maxHedgedPercent = 10;
+
+    public GetPaymentHedgingConfig() {
+    }
+
+    public GetPaymentHedgingConfig(boolean enabled, Duration delay) {
+        this.enabled = enabled;
+        this.delay = delay;
+    }
+
+    public GetPaymentHedgingConfig(boolean enabled, Duration delay, int maxHedgedPercent) {
+        this(enabled, delay);
+        this.maxHedgedPercent = maxHedgedPercent;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getDelay() {
+        return delay;
+    }
+
+    public int getMaxHedgedPercent() {
+        return maxHedgedPercent;
+    }
+}
@@ -0,0 +1,58 @@
+package uk.gov.pay.api.app.config;
+
+import io.dropwizard.util.Duration;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Getting a payment with {@code wait_for_state_change} holds the request until the payment's status changes,
+ * rechecking connector after {@link #initialInterval}, then at twice the previous interval up to
+ * {@link #maxInterval}. A request waits for at most {@link #maxWait}, which should stay below the idle timeout
+ * of Jetty and of any load balancer in front of it. Once {@link #maxWaiting} requests are waiting on a node,
+ * further requests are answered straight away.
+ */
+public class PaymentStateLongPollConfig {
+
+    @Valid
+    @NotNull
+    private Duration maxWait = Duration.seconds(25);
+
+    @Valid
+    @NotNull
+    private Duration initialInterval = Duration.milliseconds(250);
+
+    @Valid
+    @NotNull
+    private Duration maxInterval = Duration.seconds(4);
+
+    @Min(0)
+    private int maxWaiting = 1000;
+
+    public PaymentStateLongPollConfig() {
+    }
+
+    public PaymentStateLongPollConfig(Duration maxWait, Duration initialInterval, Duration maxInterval, int maxWaiting) {
+        this.maxWait = maxWait;
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval;
+        this.maxWaiting = maxWaiting;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public Duration getInitialInterval() {
+        return initialInterval;
+    }
+
+    public Duration getMaxInterval() {
+        return maxInterval;
+    }
+
+    public int getMaxWaiting() {
+        return maxWaiting;
+    }
+}
@@ -0,0 +1,33 @@
+package uk.gov.pay.api.app.config;
+
+import jakarta.validation.constraints.Min;
+
+/**
+ * Limits for {@code POST /v1/payments/batch-retrieve}. Each payment in a batch is charged against the account's
+ * rate limit for getting a payment, so {@link #maxPaymentIds} should not be more than that limit or full batches
+ * would always be rejected. Up to {@link #parallelism} payments of each batch are looked up at once.
+ */
+public class PaymentsBatchConfig {
+
+    @Min(1)
+    private int maxPaymentIds = 50;
+
+    @Min(1)
+    private int parallelism = 10;
+
+    public PaymentsBatchConfig() {
+    }
+
+    public PaymentsBatchConfig(int maxPaymentIds, int parallelism) {
+        this.maxPaymentIds = maxPaymentIds;
+        this.parallelism = parallelism;
+    }
+
+    public int getMaxPaymentIds() {
+        return maxPaymentIds;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+}
@@ -26,11 +26,22 @@ public class PublicApiConfig extends Configuration {
     @NotNull
     private Boolean allowHttpForReturnUrl;
 
+    private boolean asyncResourcesEnabled = false;
+
     private String apiKeyHmacSecret;
 
     @NotNull
     private CaffeineSpec authenticationCachePolicy;
 
+    @NotNull
+    private CaffeineSpec rejectedApiKeyCachePolicy = CaffeineSpec.parse("expireAfterWrite=1m,maximumSize=10000");
+
+    @NotNull
+    private CaffeineSpec paymentLocationHintCachePolicy = CaffeineSpec.parse("expireAfterWrite=1d,maximumSize=100000");
+
+    @NotNull
+    private CaffeineSpec finishedPaymentCachePolicy = CaffeineSpec.parse("expireAfterWrite=10s,maximumSize=10000");
+
     @Valid
     @NotNull
     @JsonProperty("jerseyClientConfig")
@@ -45,6 +56,31 @@ public class PublicApiConfig extends Configuration {
     @JsonProperty("rateLimiter")
     private RateLimiterConfig rateLimiterConfig;
 
+    @Valid
+    @NotNull
+    @JsonProperty("concurrencyLimiter")
+    private ConcurrencyLimiterConfig concurrencyLimiterConfig = new ConcurrencyLimiterConfig();
+
+    @Valid
+    @NotNull
+    @JsonProperty("sharedAuthenticationCache")
+    private SharedAuthenticationCacheConfig sharedAuthenticationCacheConfig = new SharedAuthenticationCacheConfig();
+
+    @Valid
+    @NotNull
+    @JsonProperty("getPaymentHedging")
+    private GetPaymentHedgingConfig getPaymentHedgingConfig = new GetPaymentHedgingConfig();
+
+    @Valid
+    @NotNull
+    @JsonProperty("paymentStateLongPoll")
+    private PaymentStateLongPollConfig paymentStateLongPollConfig = new PaymentStateLongPollConfig();
+
+    @Valid
+    @NotNull
+    @JsonProperty("paymentsBatch")
+    private PaymentsBatchConfig paymentsBatchConfig = new PaymentsBatchConfig();
+
     @JsonProperty("ecsContainerMetadataUriV4")
     private URI ecsContainerMetadataUriV4;
 
@@ -68,6 +104,10 @@ public class PublicApiConfig extends Configuration {
         return allowHttpForReturnUrl;
     }
 
+    public boolean isAsyncResourcesEnabled() {
+        return asyncResourcesEnabled;
+    }
+
     public String getApiKeyHmacSecret() {
         return apiKeyHmacSecret;
     }
@@ -80,10 +120,42 @@ public class PublicApiConfig extends Configuration {
         return rateLimiterConfig;
     }
 
+    public ConcurrencyLimiterConfig getConcurrencyLimiterConfig() {
+        return concurrencyLimiterConfig;
+    }
+
+    public SharedAuthenticationCacheConfig getSharedAuthenticationCacheConfig() {
+        return sharedAuthenticationCacheConfig;
+    }
+
+    public GetPaymentHedgingConfig getGetPaymentHedgingConfig() {
+        return getPaymentHedgingConfig;
+    }
+
+    public PaymentStateLongPollConfig getPaymentStateLongPollConfig() {
+        return paymentStateLongPollConfig;
+    }
+
+    public PaymentsBatchConfig getPaymentsBatchConfig() {
+        return paymentsBatchConfig;
+    }
+
     public CaffeineSpec getAuthenticationCachePolicy() {
         return authenticationCachePolicy;
     }
 
+    public CaffeineSpec getRejectedApiKeyCachePolicy() {
+        return rejectedApiKeyCachePolicy;
+    }
+
+    public CaffeineSpec getPaymentLocationHintCachePolicy() {
+        return paymentLocationHintCachePolicy;
+    }
+
+    public CaffeineSpec getFinishedPaymentCachePolicy() {
+        return finishedPaymentCachePolicy;
+    }
+
     public RedisConfiguration getRedisConfiguration() {
         return redis;
     }
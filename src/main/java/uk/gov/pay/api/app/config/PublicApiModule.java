@@ -1,5 +1,7 @@
 package uk.gov.pay.api.app.config;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -20,13 +22,19 @@ import uk.gov.pay.api.json.CreateAgreementRequestDeserializer;
 import uk.gov.pay.api.json.CreateCardPaymentRequestDeserializer;
 import uk.gov.pay.api.json.CreatePaymentRefundRequestDeserializer;
 import uk.gov.pay.api.json.StringDeserializer;
+import uk.gov.pay.api.managed.DropwizardCommandLatencyRecorder;
 import uk.gov.pay.api.model.CreateCardPaymentRequest;
 import uk.gov.pay.api.model.CreatePaymentRefundRequest;
+import uk.gov.pay.api.utils.MdcPropagatingExecutorService;
 import uk.gov.pay.api.validation.PaymentRefundRequestValidator;
 import uk.gov.pay.api.validation.URLValidator;
 
 import jakarta.ws.rs.client.Client;
 import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import static uk.gov.pay.api.validation.URLValidator.urlValidatorValueOf;
@@ -50,8 +58,48 @@ public class PublicApiModule extends AbstractModule {
 
     @Provides
     @Singleton
-    public Client provideClient() {
-        return RestClientFactory.buildClient(configuration.getRestClientConfig());
+    @ConnectorClient
+    public Client provideConnectorClient() {
+        return buildClient("connector", configuration.getRestClientConfig().getConnector());
+    }
+
+    @Provides
+    @Singleton
+    @LedgerClient
+    public Client provideLedgerClient() {
+        return buildClient("ledger", configuration.getRestClientConfig().getLedger());
+    }
+
+    @Provides
+    @Singleton
+    @PublicAuthClient
+    public Client providePublicAuthClient() {
+        return buildClient("publicauth", configuration.getRestClientConfig().getPublicAuth());
+    }
+
+    /**
+     * Each downstream service gets its own connection pool and asynchronous thread pool, so that a slow one
+     * cannot starve the others. Asynchronous calls waiting for a thread are published as
+     * {@code http_client.<downstream>.async.queued}, and those rejected because the queue is full as
+     * {@code http_client.<downstream>.async.rejected}.
+     */
+    private Client buildClient(String downstream, DownstreamClientConfig downstreamConfig) {
+        BlockingQueue<Runnable> asyncQueue = new ArrayBlockingQueue<>(downstreamConfig.getAsyncQueueSize());
+        Meter asyncRejected = environment.metrics().meter("http_client." + downstream + ".async.rejected");
+        ThreadPoolExecutor.AbortPolicy abortPolicy = new ThreadPoolExecutor.AbortPolicy();
+        ExecutorService asyncExecutor = environment.lifecycle()
+                .executorService("jersey-client-" + downstream + "-async-%d")
+                .minThreads(downstreamConfig.getAsyncThreadPoolSize())
+                .maxThreads(downstreamConfig.getAsyncThreadPoolSize())
+                .workQueue(asyncQueue)
+                .rejectedExecutionHandler((task, executor) -> {
+                    asyncRejected.mark();
+                    abortPolicy.rejectedExecution(task, executor);
+                })
+                .build();
+        environment.metrics().gauge("http_client." + downstream + ".async.queued", () -> (Gauge<Integer>) asyncQueue::size);
+        return RestClientFactory.buildClient(downstream, configuration.getRestClientConfig(), downstreamConfig,
+                new MdcPropagatingExecutorService(asyncExecutor), environment.metrics());
     }
 
     @Provides
@@ -91,6 +139,7 @@ public class PublicApiModule extends AbstractModule {
                                 configuration.getRedisConfiguration().getReconnectDelayUpperBound(),
                                 configuration.getRedisConfiguration().getReconnectDelayBase(),
                                 TimeUnit.MILLISECONDS))
+                .commandLatencyRecorder(new DropwizardCommandLatencyRecorder(environment.metrics()))
                 .build();
 
         RedisClient client = RedisClient.create(clientResources, configuration.getRedisConfiguration().getUrl());
@@ -0,0 +1,14 @@
+package uk.gov.pay.api.app.config;
+
+public enum RateLimitAlgorithm {
+    /**
+     * Counts requests in discrete windows of the rate limit interval. Cheap, but a client can make
+     * up to twice the limit in a short burst spanning the end of one window and the start of the next.
+     */
+    FIXED_WINDOW,
+    /**
+     * Weights the previous window's count by how much of it still overlaps the last rate limit
+     * interval and adds it to the current window's count, which smooths out bursts at window edges.
+     */
+    SLIDING_WINDOW
+}
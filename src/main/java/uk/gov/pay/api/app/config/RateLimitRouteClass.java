@@ -0,0 +1,59 @@
+package uk.gov.pay.api.app.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * A class of requests, identified by method and path template (e.g. {@code /v1/payments/{paymentId}/capture}),
+ * that is charged {@code cost} requests against the rate limit for each request made.
+ * <p>
+ * Requests in a class with {@code separateCounter} set are counted separately from other requests with
+ * the same method, so they have a limit of their own.
+ */
+public class RateLimitRouteClass {
+
+    @NotBlank
+    private String name;
+
+    @NotBlank
+    private String method;
+
+    @NotBlank
+    private String path;
+
+    @Min(1)
+    private int cost = 1;
+
+    private boolean separateCounter;
+
+    public RateLimitRouteClass() {
+    }
+
+    public RateLimitRouteClass(String name, String method, String path, int cost, boolean separateCounter) {
+        this.name = name;
+        this.method = method;
+        this.path = path;
+        this.cost = cost;
+        this.separateCounter = separateCounter;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public boolean isSeparateCounter() {
+        return separateCounter;
+    }
+}
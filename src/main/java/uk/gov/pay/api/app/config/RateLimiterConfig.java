@@ -2,10 +2,14 @@ package uk.gov.pay.api.app.config;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import io.dropwizard.core.Configuration;
+import io.dropwizard.util.Duration;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -52,6 +56,36 @@ public class RateLimiterConfig extends Configuration {
     @Max(3_599_999)
     private int intervalInMillisForLowTrafficAccounts;
 
+    private String accountTiersFile;
+
+    private Duration accountTiersPollInterval;
+
+    @NotNull
+    private RateLimitAlgorithm algorithm = RateLimitAlgorithm.FIXED_WINDOW;
+
+    // searches have their own route classes so that they can be limited separately, but cost the same as
+    // any other request until a higher cost is configured
+    @Valid
+    @NotNull
+    private List<RateLimitRouteClass> routeClasses = List.of(
+            new RateLimitRouteClass("create_payment", "POST", "/v1/payments", 1, true),
+            new RateLimitRouteClass("capture_payment", "POST", "/v1/payments/{paymentId}/capture", 1, true),
+            new RateLimitRouteClass("retrieve_payments_batch", "POST", "/v1/payments/batch-retrieve", 1, true),
+            new RateLimitRouteClass("search_payments", "GET", "/v1/payments", 1, false),
+            new RateLimitRouteClass("search_transactions", "GET", "/v1/transactions", 1, false),
+            new RateLimitRouteClass("search_refunds", "GET", "/v1/refunds", 1, false),
+            new RateLimitRouteClass("search_disputes", "GET", "/v1/disputes", 1, false),
+            new RateLimitRouteClass("search_agreements", "GET", "/v1/agreements", 1, false));
+
+    private boolean quotaLeaseEnabled;
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double quotaLeaseMaxErrorFraction = 0.1;
+
+    @Min(1)
+    private int quotaLeaseMinAllowedRequests = 50;
+
     public int getNoOfReq() {
         return noOfReq;
     }
@@ -99,4 +133,39 @@ public class RateLimiterConfig extends Configuration {
     public int getIntervalInMillisForLowTrafficAccounts() {
         return intervalInMillisForLowTrafficAccounts;
     }
+
+    /**
+     * @return file to read elevated and low traffic accounts from instead of {@link #getElevatedAccounts()}
+     * and {@link #getLowTrafficAccounts()}, which can be reloaded while the application is running
+     */
+    public Optional<String> getAccountTiersFile() {
+        return Optional.ofNullable(accountTiersFile).filter(file -> !file.isBlank());
+    }
+
+    /**
+     * @return how often to check the account tiers file for changes, or null to only reload it on request
+     */
+    public Duration getAccountTiersPollInterval() {
+        return accountTiersPollInterval;
+    }
+
+    public RateLimitAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public List<RateLimitRouteClass> getRouteClasses() {
+        return routeClasses;
+    }
+
+    public boolean isQuotaLeaseEnabled() {
+        return quotaLeaseEnabled;
+    }
+
+    public double getQuotaLeaseMaxErrorFraction() {
+        return quotaLeaseMaxErrorFraction;
+    }
+
+    public int getQuotaLeaseMinAllowedRequests() {
+        return quotaLeaseMinAllowedRequests;
+    }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import io.dropwizard.util.Duration;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 import static java.lang.String.format;
@@ -42,6 +43,15 @@ public class RedisConfiguration {
     @JsonProperty("reconnectDelayBase")
     private long reconnectDelayBase;
 
+    @Min(1)
+    @JsonProperty("circuitBreakerFailureThreshold")
+    private int circuitBreakerFailureThreshold = 5;
+
+    @Valid
+    @NotNull
+    @JsonProperty("circuitBreakerOpenDuration")
+    private Duration circuitBreakerOpenDuration = Duration.seconds(10);
+
     public String getUrl() {
         return format("%s://%s", ssl ? "rediss" : "redis", endpoint);
     }
@@ -65,4 +75,12 @@ public class RedisConfiguration {
     public long getReconnectDelayBase() {
         return reconnectDelayBase;
     }
+
+    public int getCircuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    public Long getCircuitBreakerOpenDuration() {
+        return circuitBreakerOpenDuration.toMilliseconds();
+    }
 }
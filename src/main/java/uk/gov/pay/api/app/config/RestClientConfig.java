@@ -2,11 +2,40 @@ package uk.gov.pay.api.app.config;
 
 
 import io.dropwizard.core.Configuration;
+import io.dropwizard.util.Duration;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
 
 public class RestClientConfig extends Configuration {
-    
+
     private String disabledSecureConnection = "false";
 
+    @Valid
+    @NotNull
+    private DownstreamClientConfig connector = new DownstreamClientConfig(512, 100);
+
+    @Valid
+    @NotNull
+    private DownstreamClientConfig ledger = new DownstreamClientConfig(256, 100);
+
+    @Valid
+    @NotNull
+    private DownstreamClientConfig publicAuth = new DownstreamClientConfig(128, 10);
+
+    /**
+     * How long to keep a connection open for reuse if the server does not send a shorter Keep-Alive timeout.
+     */
+    @Valid
+    @NotNull
+    private Duration keepAlive = Duration.seconds(30);
+
+    /**
+     * Connections idle in the pool for longer than this are closed.
+     */
+    @Valid
+    @NotNull
+    private Duration idleTimeout = Duration.seconds(30);
+
     public RestClientConfig() {
     }
 
@@ -18,4 +47,23 @@ public class RestClientConfig extends Configuration {
         return "true".equals(disabledSecureConnection);
     }
 
+    public DownstreamClientConfig getConnector() {
+        return connector;
+    }
+
+    public DownstreamClientConfig getLedger() {
+        return ledger;
+    }
+
+    public DownstreamClientConfig getPublicAuth() {
+        return publicAuth;
+    }
+
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
 }
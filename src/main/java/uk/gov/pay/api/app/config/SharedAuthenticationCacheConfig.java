@@ -0,0 +1,46 @@
+package uk.gov.pay.api.app.config;
+
+import io.dropwizard.util.Duration;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Second tier of the authentication cache, shared between nodes in Redis.
+ */
+public class SharedAuthenticationCacheConfig {
+
+    private boolean enabled;
+
+    @Valid
+    @NotNull
+    private Duration timeToLive = Duration.minutes(5);
+
+    /**
+     * How long to wait before trying again to subscribe to invalidations, if that failed on start.
+     */
+    @Valid
+    @NotNull
+    private Duration subscribeRetryInterval = Duration.seconds(30);
+
+    public SharedAuthenticationCacheConfig() {
+    }
+
+    public SharedAuthenticationCacheConfig(boolean enabled, Duration timeToLive, Duration subscribeRetryInterval) {
+        this.enabled = enabled;
+        this.timeToLive = timeToLive;
+        this.subscribeRetryInterval = subscribeRetryInterval;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public Duration getSubscribeRetryInterval() {
+        return subscribeRetryInterval;
+    }
+}
@@ -1,49 +1,81 @@
 package uk.gov.pay.api.auth;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.dropwizard.auth.Authenticator;
+import io.dropwizard.core.setup.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.app.config.PublicAuthClient;
 import uk.gov.pay.api.model.publicauth.AuthResponse;
 import uk.gov.service.payments.commons.model.ErrorIdentifier;
 
 import jakarta.inject.Inject;
+import jakarta.ws.rs.ProcessingException;
 import jakarta.ws.rs.ServiceUnavailableException;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
-import static java.lang.String.format;
 import static jakarta.ws.rs.core.HttpHeaders.AUTHORIZATION;
 import static jakarta.ws.rs.core.Response.Status.OK;
 import static jakarta.ws.rs.core.Response.Status.UNAUTHORIZED;
 import static net.logstash.logback.argument.StructuredArguments.kv;
 
+/**
+ * Checks API keys with public auth.
+ * <p>
+ * The time public auth takes to respond is published as the timers
+ * {@code authenticator.public_auth.response_time.ok} (200), {@code .unauthorized} (401) and {@code .other},
+ * and {@code .error} for requests that got no response, e.g. timeouts.
+ */
 public class AccountAuthenticator implements Authenticator<String, Account> {
     private static Logger logger = LoggerFactory.getLogger(AccountAuthenticator.class);
 
     private final Client client;
     private final String publicAuthUrl;
+    private final Timer okResponseTime;
+    private final Timer unauthorizedResponseTime;
+    private final Timer otherResponseTime;
+    private final Timer errorResponseTime;
 
     @Inject
-    public AccountAuthenticator(Client client, PublicApiConfig configuration) {
+    public AccountAuthenticator(@PublicAuthClient Client client, PublicApiConfig configuration, Environment environment) {
+        this(client, configuration, environment.metrics());
+    }
+
+    public AccountAuthenticator(Client client, PublicApiConfig configuration, MetricRegistry metricRegistry) {
         this.client = client;
         this.publicAuthUrl = configuration.getPublicAuthUrl();
+        this.okResponseTime = metricRegistry.timer("authenticator.public_auth.response_time.ok");
+        this.unauthorizedResponseTime = metricRegistry.timer("authenticator.public_auth.response_time.unauthorized");
+        this.otherResponseTime = metricRegistry.timer("authenticator.public_auth.response_time.other");
+        this.errorResponseTime = metricRegistry.timer("authenticator.public_auth.response_time.error");
     }
 
     @Override
     public Optional<Account> authenticate(String bearerToken) {
 
-        Response response = client.target(publicAuthUrl).request()
-                .header(AUTHORIZATION, "Bearer " + bearerToken)
-                .accept(MediaType.APPLICATION_JSON)
-                .get();
+        long startTime = System.nanoTime();
+        Response response;
+        try {
+            response = client.target(publicAuthUrl).request()
+                    .header(AUTHORIZATION, "Bearer " + bearerToken)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .get();
+        } catch (ProcessingException e) {
+            errorResponseTime.update(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        responseTimer(response.getStatus()).update(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
 
         if (response.getStatus() == OK.getStatusCode()) {
             AuthResponse authResponse = response.readEntity(AuthResponse.class);
-            logger.info(format("Successfully authenticated using API key with token_link %s", authResponse.getTokenLink()),
+            logger.info("Successfully authenticated using API key with token_link {}", authResponse.getTokenLink(),
                     kv("token_link", authResponse.getTokenLink()));
             return Optional.of(new Account(authResponse.getAccountId(), authResponse.getTokenType(), authResponse.getTokenLink()));
         } else if (response.getStatus() == UNAUTHORIZED.getStatusCode()) {
@@ -51,7 +83,7 @@ public class AccountAuthenticator implements Authenticator<String, Account> {
             ErrorIdentifier errorIdentifier = ErrorIdentifier.valueOf(unauthorisedResponse.get("error_identifier").asText());
             if (errorIdentifier == ErrorIdentifier.AUTH_TOKEN_REVOKED) {
                 String tokenLink = unauthorisedResponse.get("token_link").asText();
-                logger.warn(format("Attempt to authenticate using revoked API key with token_link %s", tokenLink), kv("token_link", tokenLink));
+                logger.warn("Attempt to authenticate using revoked API key with token_link {}", tokenLink, kv("token_link", tokenLink));
             } else {
                 logger.warn("Attempt to authenticate using invalid API key with valid checksum");
             }
@@ -59,8 +91,18 @@ public class AccountAuthenticator implements Authenticator<String, Account> {
             return Optional.empty();
         } else {
             response.close();
-            logger.warn("Unexpected status code " + response.getStatus() + " from auth.");
+            logger.warn("Unexpected status code {} from auth.", response.getStatus());
             throw new ServiceUnavailableException();
         }
     }
+
+    private Timer responseTimer(int status) {
+        if (status == OK.getStatusCode()) {
+            return okResponseTime;
+        }
+        if (status == UNAUTHORIZED.getStatusCode()) {
+            return unauthorizedResponseTime;
+        }
+        return otherResponseTime;
+    }
 }
@@ -0,0 +1,72 @@
+package uk.gov.pay.api.auth;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.Authenticator;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Makes concurrent lookups of the same bearer token share a single call to the wrapped authenticator.
+ * <p>
+ * When the cached entry for a busy API key expires, every request with that key misses the cache at
+ * once. The first goes on to public auth and the others wait for its result instead of each making
+ * their own call.
+ * <p>
+ * The number of requests that waited for another's lookup is published as the meter
+ * {@code authenticator.coalesced}, and the number of lookups in progress as the gauge
+ * {@code authenticator.in_flight}.
+ */
+public class CoalescingAuthenticator implements Authenticator<String, Account> {
+
+    private final Authenticator<String, Account> authenticator;
+    private final Meter coalesced;
+    private final ConcurrentMap<String, CompletableFuture<Optional<Account>>> inFlight = new ConcurrentHashMap<>();
+
+    public CoalescingAuthenticator(Authenticator<String, Account> authenticator, MetricRegistry metricRegistry) {
+        this.authenticator = authenticator;
+        this.coalesced = metricRegistry.meter("authenticator.coalesced");
+        metricRegistry.gauge("authenticator.in_flight", () -> (Gauge<Integer>) inFlight::size);
+    }
+
+    @Override
+    public Optional<Account> authenticate(String bearerToken) throws AuthenticationException {
+        CompletableFuture<Optional<Account>> lookup = new CompletableFuture<>();
+        CompletableFuture<Optional<Account>> existingLookup = inFlight.putIfAbsent(bearerToken, lookup);
+        if (existingLookup != null) {
+            coalesced.mark();
+            return waitFor(existingLookup);
+        }
+
+        try {
+            Optional<Account> account = authenticator.authenticate(bearerToken);
+            lookup.complete(account);
+            return account;
+        } catch (AuthenticationException | RuntimeException e) {
+            lookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(bearerToken, lookup);
+        }
+    }
+
+    private static Optional<Account> waitFor(CompletableFuture<Optional<Account>> lookup) throws AuthenticationException {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AuthenticationException authenticationException) {
+                throw authenticationException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
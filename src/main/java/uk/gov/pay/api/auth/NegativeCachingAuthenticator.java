@@ -0,0 +1,53 @@
+package uk.gov.pay.api.auth;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.Authenticator;
+import org.apache.commons.codec.digest.DigestUtils;
+import uk.gov.pay.api.utils.DropwizardCacheStatsCounter;
+
+import java.util.Optional;
+
+/**
+ * Remembers API keys that public auth has rejected (revoked, or invalid with a valid checksum), so that
+ * a client retrying with the same key is rejected without calling public auth each time.
+ * <p>
+ * It loads entries for the {@link RefreshingCachingAuthenticator}, so it is only consulted for keys that
+ * are not cached there, and its hit ratio is the fraction of those that had already been rejected.
+ * <p>
+ * Keys are stored as SHA-256 hashes, in a cache bounded and expired by the {@code rejectedApiKeyCachePolicy}
+ * Caffeine spec; the expiry should be short, as this only needs to absorb repeated attempts.
+ * <p>
+ * Requests rejected from the cache are published as the meter {@code authenticator.rejected_api_key_cache.hits}
+ * and the fraction of lookups that were hits as the gauge {@code authenticator.rejected_api_key_cache.hit_ratio}
+ * (see {@link DropwizardCacheStatsCounter}).
+ */
+public class NegativeCachingAuthenticator implements Authenticator<String, Account> {
+
+    private final Authenticator<String, Account> authenticator;
+    private final Cache<String, Boolean> rejectedApiKeys;
+
+    public NegativeCachingAuthenticator(Authenticator<String, Account> authenticator, CaffeineSpec cachePolicy, MetricRegistry metricRegistry) {
+        this.authenticator = authenticator;
+        this.rejectedApiKeys = Caffeine.from(cachePolicy)
+                .recordStats(() -> new DropwizardCacheStatsCounter(metricRegistry, "authenticator.rejected_api_key_cache"))
+                .build();
+    }
+
+    @Override
+    public Optional<Account> authenticate(String bearerToken) throws AuthenticationException {
+        String tokenHash = DigestUtils.sha256Hex(bearerToken);
+        if (rejectedApiKeys.getIfPresent(tokenHash) != null) {
+            return Optional.empty();
+        }
+
+        Optional<Account> account = authenticator.authenticate(bearerToken);
+        if (account.isEmpty()) {
+            rejectedApiKeys.put(tokenHash, Boolean.TRUE);
+        }
+        return account;
+    }
+}
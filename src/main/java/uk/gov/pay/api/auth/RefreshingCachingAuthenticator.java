@@ -0,0 +1,106 @@
+package uk.gov.pay.api.auth;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.Authenticator;
+import uk.gov.pay.api.utils.DropwizardCacheStatsCounter;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Caches authenticated accounts by bearer token, using the {@code authenticationCachePolicy} Caffeine spec.
+ * <p>
+ * With {@code refreshAfterWrite}, a request for an entry older than that is served the cached account
+ * while the token is checked again with public auth in the background, so busy API keys are not held
+ * up at the moment their entry goes stale. If the background check fails (public auth returns a 5xx or
+ * times out), the cached account continues to be served until {@code expireAfterWrite}, so the
+ * difference between the two is the grace period for which we ride out public auth being unavailable.
+ * <p>
+ * Tokens that public auth rejects are never cached: if a background check finds the token has been
+ * revoked, the entry is removed and the next request is rejected.
+ * <p>
+ * Entries can be loaded and refreshed by different authenticators, so that a refresh can go straight
+ * to public auth rather than through a cache that is shared with other nodes and may be older than it.
+ * <p>
+ * Hits, misses, evictions and load times are published with the prefix {@code authenticator.cache}
+ * (see {@link DropwizardCacheStatsCounter}).
+ */
+public class RefreshingCachingAuthenticator implements Authenticator<String, Account> {
+
+    private final LoadingCache<String, Account> cache;
+
+    public RefreshingCachingAuthenticator(Authenticator<String, Account> authenticator, CaffeineSpec cachePolicy,
+                                          Executor refreshExecutor, MetricRegistry metricRegistry) {
+        this(authenticator, authenticator, cachePolicy, refreshExecutor, metricRegistry);
+    }
+
+    /**
+     * @param loader    authenticates tokens that are not cached
+     * @param refresher authenticates cached tokens again once they are older than {@code refreshAfterWrite}
+     */
+    public RefreshingCachingAuthenticator(Authenticator<String, Account> loader, Authenticator<String, Account> refresher,
+                                          CaffeineSpec cachePolicy, Executor refreshExecutor, MetricRegistry metricRegistry) {
+        this(loader, refresher, cachePolicy, refreshExecutor, metricRegistry, Ticker.systemTicker());
+    }
+
+    RefreshingCachingAuthenticator(Authenticator<String, Account> authenticator, CaffeineSpec cachePolicy,
+                                   Executor refreshExecutor, MetricRegistry metricRegistry, Ticker ticker) {
+        this(authenticator, authenticator, cachePolicy, refreshExecutor, metricRegistry, ticker);
+    }
+
+    RefreshingCachingAuthenticator(Authenticator<String, Account> loader, Authenticator<String, Account> refresher,
+                                   CaffeineSpec cachePolicy, Executor refreshExecutor, MetricRegistry metricRegistry,
+                                   Ticker ticker) {
+        // returning null from the loader means the token is not cached, and removes it when refreshing
+        this.cache = Caffeine.from(cachePolicy)
+                .executor(refreshExecutor)
+                .ticker(ticker)
+                .recordStats(() -> new DropwizardCacheStatsCounter(metricRegistry, "authenticator.cache"))
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Account load(String bearerToken) throws Exception {
+                        return loader.authenticate(bearerToken).orElse(null);
+                    }
+
+                    @Override
+                    public Account reload(String bearerToken, Account oldAccount) throws Exception {
+                        return refresher.authenticate(bearerToken).orElse(null);
+                    }
+                });
+    }
+
+    @Override
+    public Optional<Account> authenticate(String bearerToken) throws AuthenticationException {
+        try {
+            return Optional.ofNullable(cache.get(bearerToken));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AuthenticationException authenticationException) {
+                throw authenticationException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Removes every cached entry for the API key with this token link.
+     *
+     * @return the number of entries removed
+     */
+    public int invalidateTokenLink(String tokenLink) {
+        int evicted = 0;
+        for (Map.Entry<String, Account> entry : cache.asMap().entrySet()) {
+            if (tokenLink.equals(entry.getValue().tokenLink()) && cache.asMap().remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+}
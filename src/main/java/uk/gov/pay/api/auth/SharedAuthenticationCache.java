@@ -0,0 +1,276 @@
+package uk.gov.pay.api.auth;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.Managed;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.app.config.SharedAuthenticationCacheConfig;
+import uk.gov.pay.api.filter.ratelimit.RedisCircuitBreaker;
+import uk.gov.pay.api.managed.RedisClientManager;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Authenticated accounts shared between nodes in Redis, so that an API key checked with public auth
+ * by one node does not have to be checked again by the others.
+ * <p>
+ * Accounts are stored under a SHA-256 hash of the token, never the token itself, and indexed by
+ * token link so that every entry for an API key can be evicted when it is revoked. Evicting an API
+ * key also publishes its token link on the {@value #INVALIDATION_CHANNEL} channel, which every node
+ * subscribes to so that it can remove the key from its own cache straight away.
+ * <p>
+ * Redis being unavailable is never an error for authentication: lookups count as misses and the
+ * account is checked with public auth as it would be without this cache. Calls go through the same
+ * {@link RedisCircuitBreaker} as rate limiting, so that while Redis is down they are skipped rather
+ * than each waiting for the command timeout. If subscribing fails on start, it is retried every
+ * {@code subscribeRetryInterval}.
+ */
+@Singleton
+public class SharedAuthenticationCache implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedAuthenticationCache.class);
+
+    static final String INVALIDATION_CHANNEL = "publicapi:auth-invalidation";
+    static final String ACCOUNT_KEY_PREFIX = "auth:";
+    static final String TOKEN_LINK_KEY_PREFIX = "auth-token-link:";
+
+    private final SharedAuthenticationCacheConfig config;
+    private final RedisClientManager redisClientManager;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService subscriber;
+    private final long timeToLiveInMillis;
+    private final Meter hits;
+    private final Meter misses;
+    private final Meter skipped;
+    private final Meter errors;
+    private final List<Consumer<String>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    private volatile StatefulRedisPubSubConnection<String, String> pubSubConnection;
+
+    @Inject
+    public SharedAuthenticationCache(PublicApiConfig configuration, RedisClientManager redisClientManager,
+                                     RedisCircuitBreaker redisCircuitBreaker, ObjectMapper objectMapper, Environment environment) {
+        this(configuration.getSharedAuthenticationCacheConfig(), redisClientManager, redisCircuitBreaker, objectMapper,
+                configuration.getSharedAuthenticationCacheConfig().isEnabled()
+                        ? environment.lifecycle().scheduledExecutorService("shared-authentication-cache-subscriber").threads(1).build()
+                        : null,
+                environment.metrics());
+    }
+
+    SharedAuthenticationCache(SharedAuthenticationCacheConfig config, RedisClientManager redisClientManager,
+                              RedisCircuitBreaker redisCircuitBreaker, ObjectMapper objectMapper,
+                              ScheduledExecutorService subscriber, MetricRegistry metricRegistry) {
+        this.config = config;
+        this.redisClientManager = redisClientManager;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.objectMapper = objectMapper;
+        this.subscriber = subscriber;
+        this.timeToLiveInMillis = config.getTimeToLive().toMilliseconds();
+        this.hits = metricRegistry.meter("authenticator.shared_cache.hits");
+        this.misses = metricRegistry.meter("authenticator.shared_cache.misses");
+        this.skipped = metricRegistry.meter("authenticator.shared_cache.skipped");
+        this.errors = metricRegistry.meter("authenticator.shared_cache.errors");
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * @param listener called with the token link of each API key evicted by any node
+     */
+    public void addInvalidationListener(Consumer<String> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    public Optional<Account> get(String bearerToken) {
+        if (!redisCircuitBreaker.allowRequest()) {
+            skipped.mark();
+            return Optional.empty();
+        }
+        String json;
+        try {
+            json = await(commands().get(accountKey(hash(bearerToken))));
+            redisCircuitBreaker.recordSuccess();
+        } catch (Exception e) {
+            redisCircuitBreaker.recordFailure();
+            errors.mark();
+            LOGGER.info("Failed to get account from shared authentication cache. Cause of error: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (json == null) {
+            misses.mark();
+            return Optional.empty();
+        }
+        try {
+            Optional<Account> account = Optional.of(objectMapper.readValue(json, Account.class));
+            hits.mark();
+            return account;
+        } catch (Exception e) {
+            errors.mark();
+            LOGGER.info("Failed to read account from shared authentication cache. Cause of error: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void put(String bearerToken, Account account) {
+        if (!redisCircuitBreaker.allowRequest()) {
+            skipped.mark();
+            return;
+        }
+        String tokenHash = hash(bearerToken);
+        String tokenLinkKey = tokenLinkKey(account.tokenLink());
+        try {
+            String json = objectMapper.writeValueAsString(account);
+            RedisAsyncCommands<String, String> commands = commands();
+            // sent together, then each awaited so that a failure of any of them is reported
+            RedisFuture<String> set = commands.set(accountKey(tokenHash), json, SetArgs.Builder.px(timeToLiveInMillis));
+            RedisFuture<Long> sadd = commands.sadd(tokenLinkKey, tokenHash);
+            RedisFuture<Boolean> pexpire = commands.pexpire(tokenLinkKey, timeToLiveInMillis);
+            await(set);
+            await(sadd);
+            await(pexpire);
+            redisCircuitBreaker.recordSuccess();
+        } catch (Exception e) {
+            redisCircuitBreaker.recordFailure();
+            errors.mark();
+            LOGGER.info("Failed to put account in shared authentication cache. Cause of error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the entry for this API key only, e.g. once public auth has rejected it.
+     */
+    public void remove(String bearerToken) {
+        if (!redisCircuitBreaker.allowRequest()) {
+            skipped.mark();
+            return;
+        }
+        try {
+            await(commands().del(accountKey(hash(bearerToken))));
+            redisCircuitBreaker.recordSuccess();
+        } catch (Exception e) {
+            redisCircuitBreaker.recordFailure();
+            errors.mark();
+            LOGGER.info("Failed to remove account from shared authentication cache. Cause of error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Removes every entry for the API key with this token link and tells all nodes to do the same.
+     *
+     * @return the number of entries removed from Redis
+     */
+    public int evict(String tokenLink) throws Exception {
+        RedisAsyncCommands<String, String> commands = commands();
+        String tokenLinkKey = tokenLinkKey(tokenLink);
+        Set<String> tokenHashes = await(commands.smembers(tokenLinkKey));
+        String[] keys = tokenHashes.stream().map(SharedAuthenticationCache::accountKey).toArray(String[]::new);
+        if (keys.length > 0) {
+            await(commands.del(keys));
+        }
+        await(commands.del(tokenLinkKey));
+        await(commands.publish(INVALIDATION_CHANNEL, tokenLink));
+        return keys.length;
+    }
+
+    private RedisAsyncCommands<String, String> commands() {
+        return redisClientManager.getRedisConnection().async();
+    }
+
+    private <T> T await(Future<T> future) throws Exception {
+        StatefulRedisConnection<String, String> connection = redisClientManager.getRedisConnection();
+        try {
+            return future.get(connection.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private static String hash(String bearerToken) {
+        return DigestUtils.sha256Hex(bearerToken);
+    }
+
+    private static String accountKey(String tokenHash) {
+        return ACCOUNT_KEY_PREFIX + tokenHash;
+    }
+
+    private static String tokenLinkKey(String tokenLink) {
+        return TOKEN_LINK_KEY_PREFIX + tokenLink;
+    }
+
+    @Override
+    public void start() {
+        if (isEnabled()) {
+            subscribe();
+        }
+    }
+
+    /**
+     * Once subscribed, Lettuce resubscribes by itself after reconnecting, so only the first subscription is retried.
+     */
+    private void subscribe() {
+        StatefulRedisPubSubConnection<String, String> connection = null;
+        try {
+            connection = redisClientManager.connectPubSub();
+            connection.addListener(new RedisPubSubAdapter<>() {
+                @Override
+                public void message(String channel, String tokenLink) {
+                    invalidationListeners.forEach(listener -> listener.accept(tokenLink));
+                }
+            });
+            connection.sync().subscribe(INVALIDATION_CHANNEL);
+            pubSubConnection = connection;
+        } catch (RuntimeException e) {
+            if (connection != null) {
+                connection.close();
+            }
+            LOGGER.warn("Could not subscribe to authentication cache invalidations, will retry in {}. Until then, evicted " +
+                    "API keys will be cached by other nodes until they expire. Cause of error: {}",
+                    config.getSubscribeRetryInterval(), e.getMessage());
+            try {
+                subscriber.schedule(this::subscribe, config.getSubscribeRetryInterval().toMilliseconds(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignored) {
+                // shutting down
+            }
+        }
+    }
+
+    boolean isSubscribed() {
+        return pubSubConnection != null;
+    }
+
+    @Override
+    public void stop() {
+        // the subscriber executor is shut down by the lifecycle
+        if (pubSubConnection != null) {
+            pubSubConnection.close();
+        }
+    }
+}
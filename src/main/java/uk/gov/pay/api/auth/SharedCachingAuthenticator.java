@@ -0,0 +1,52 @@
+package uk.gov.pay.api.auth;
+
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.Authenticator;
+
+import java.util.Optional;
+
+/**
+ * Looks up accounts in the {@link SharedAuthenticationCache} before calling the wrapped authenticator,
+ * and shares accounts that it authenticates with the other nodes.
+ * <p>
+ * Refreshes of a node's own cache should use {@link #bypassingSharedCache()}: an entry in the shared cache
+ * can be as old as its time to live, so refreshing from it would hide a revoked API key for that long.
+ */
+public class SharedCachingAuthenticator implements Authenticator<String, Account> {
+
+    private final Authenticator<String, Account> authenticator;
+    private final SharedAuthenticationCache sharedAuthenticationCache;
+
+    public SharedCachingAuthenticator(Authenticator<String, Account> authenticator, SharedAuthenticationCache sharedAuthenticationCache) {
+        this.authenticator = authenticator;
+        this.sharedAuthenticationCache = sharedAuthenticationCache;
+    }
+
+    @Override
+    public Optional<Account> authenticate(String bearerToken) throws AuthenticationException {
+        Optional<Account> sharedAccount = sharedAuthenticationCache.get(bearerToken);
+        if (sharedAccount.isPresent()) {
+            return sharedAccount;
+        }
+
+        Optional<Account> account = authenticator.authenticate(bearerToken);
+        account.ifPresent(authenticatedAccount -> sharedAuthenticationCache.put(bearerToken, authenticatedAccount));
+        return account;
+    }
+
+    /**
+     * @return an authenticator that always calls the wrapped authenticator, then shares the account it
+     * authenticates or removes a rejected API key from the shared cache
+     */
+    public Authenticator<String, Account> bypassingSharedCache() {
+        return bearerToken -> {
+            Optional<Account> account = authenticator.authenticate(bearerToken);
+            if (account.isPresent()) {
+                sharedAuthenticationCache.put(bearerToken, account.get());
+            } else {
+                sharedAuthenticationCache.remove(bearerToken);
+            }
+            return account;
+        };
+    }
+}
@@ -4,6 +4,7 @@ public final class ResponseConstants {
     
     public static final String RESPONSE_200_DESCRIPTION = "OK - your request was successful.";
     public static final String RESPONSE_201_DESCRIPTION = "Created";
+    public static final String RESPONSE_304_DESCRIPTION = "Not modified - the payment has not changed since the response whose `ETag` you sent in `If-None-Match`.";
     public static final String RESPONSE_400_DESCRIPTION = "Bad request";
     public static final String RESPONSE_401_DESCRIPTION = "Your API key is missing or invalid. " +
             "Read more about [authenticating GOV.UK Pay API requests](https://docs.payments.service.gov.uk/api_reference/#authentication)";
@@ -0,0 +1,30 @@
+package uk.gov.pay.api.exception.mapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import java.util.concurrent.RejectedExecutionException;
+
+import static jakarta.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+import static uk.gov.pay.api.resources.error.ApiErrorResponse.Code.TOO_MANY_REQUESTS_ERROR;
+import static uk.gov.pay.api.resources.error.ApiErrorResponse.anApiErrorResponse;
+
+/**
+ * A call to connector, ledger or publicauth was rejected because that service's asynchronous client pool
+ * already had as many calls waiting as it allows. The service is overloaded, so the caller can try again later.
+ */
+public class RejectedExecutionExceptionMapper implements ExceptionMapper<RejectedExecutionException> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RejectedExecutionExceptionMapper.class);
+
+    @Override
+    public Response toResponse(RejectedExecutionException exception) {
+        LOGGER.warn("Downstream call rejected, returning http status {}: {}", SERVICE_UNAVAILABLE, exception.getMessage());
+        return Response
+                .status(SERVICE_UNAVAILABLE)
+                .entity(anApiErrorResponse(TOO_MANY_REQUESTS_ERROR))
+                .build();
+    }
+}
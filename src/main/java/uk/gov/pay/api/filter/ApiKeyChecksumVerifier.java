@@ -0,0 +1,157 @@
+package uk.gov.pay.api.filter;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Checks that an API key ends with the checksum of the token before it: the HMAC-SHA1 of the token,
+ * encoded as lower case base32hex without padding.
+ * <p>
+ * This runs on every request, so it avoids allocating: each thread keeps its own {@link Mac},
+ * initialised once with the secret, and its own buffers. Virtual threads are created per request, so a
+ * thread local would initialise a new {@link Mac} every time; they borrow one from a shared pool instead,
+ * which only grows to the number of requests checking a key at the same moment. Rather than encoding the calculated HMAC to
+ * compare strings, the checksum supplied in the API key is decoded into a buffer and compared with the
+ * HMAC in constant time. Lower case base32hex of 20 bytes has exactly one encoding, so this accepts
+ * the same API keys as comparing the encoded strings would.
+ */
+public final class ApiKeyChecksumVerifier {
+
+    static final int CHECKSUM_LENGTH = 32;
+
+    private static final String HMAC_SHA1 = "HmacSHA1";
+    private static final int HMAC_SHA1_BYTES = 20;
+    private static final int INITIAL_TOKEN_BUFFER_SIZE = 64;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<State> platformThreadState;
+    private final Queue<State> virtualThreadStates = new ConcurrentLinkedQueue<>();
+
+    public ApiKeyChecksumVerifier(String apiKeyHmacSecret) {
+        this.key = new SecretKeySpec(apiKeyHmacSecret.getBytes(StandardCharsets.UTF_8), HMAC_SHA1);
+        this.platformThreadState = ThreadLocal.withInitial(() -> new State(key));
+    }
+
+    /**
+     * @param apiKey the token followed by its checksum
+     */
+    public boolean isValid(String apiKey) {
+        return isValid(apiKey, 0);
+    }
+
+    /**
+     * @param value      a string containing the API key, e.g. an Authorization header
+     * @param apiKeyStart the index in the string at which the API key starts, so that callers do not need
+     *                    to take a substring
+     */
+    public boolean isValid(String value, int apiKeyStart) {
+        int checksumStart = value.length() - CHECKSUM_LENGTH;
+        if (checksumStart - apiKeyStart < 1) {
+            return false;
+        }
+
+        boolean virtual = Thread.currentThread().isVirtual();
+        State state = virtual ? borrowState() : platformThreadState.get();
+        try {
+            if (!decodeChecksum(value, checksumStart, state.suppliedChecksum)) {
+                return false;
+            }
+            updateWithToken(state, value, apiKeyStart, checksumStart);
+            try {
+                state.mac.doFinal(state.calculatedChecksum, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+            return MessageDigest.isEqual(state.calculatedChecksum, state.suppliedChecksum);
+        } finally {
+            if (virtual) {
+                virtualThreadStates.offer(state);
+            }
+        }
+    }
+
+    private State borrowState() {
+        State state = virtualThreadStates.poll();
+        return state != null ? state : new State(key);
+    }
+
+    /**
+     * Feeds the token to the {@link Mac} as UTF-8. Tokens are ASCII, so this copies characters into
+     * the thread's buffer, only falling back to {@link String#getBytes} for anything else.
+     */
+    private static void updateWithToken(State state, String value, int start, int end) {
+        int tokenLength = end - start;
+        if (state.tokenBuffer.length < tokenLength) {
+            state.tokenBuffer = new byte[Math.max(tokenLength, state.tokenBuffer.length * 2)];
+        }
+        byte[] tokenBuffer = state.tokenBuffer;
+        for (int i = 0; i < tokenLength; i++) {
+            char c = value.charAt(start + i);
+            if (c >= 0x80) {
+                state.mac.update(value.substring(start, end).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            tokenBuffer[i] = (byte) c;
+        }
+        state.mac.update(tokenBuffer, 0, tokenLength);
+    }
+
+    /**
+     * Decodes the lower case base32hex checksum at the end of the value into the buffer.
+     *
+     * @return false if the checksum contains a character that is not lower case base32hex
+     */
+    private static boolean decodeChecksum(String value, int checksumStart, byte[] checksum) {
+        int buffer = 0;
+        int bitsInBuffer = 0;
+        int decoded = 0;
+        for (int i = checksumStart; i < value.length(); i++) {
+            int digit = base32HexValue(value.charAt(i));
+            if (digit < 0) {
+                return false;
+            }
+            buffer = (buffer << 5) | digit;
+            bitsInBuffer += 5;
+            if (bitsInBuffer >= 8) {
+                bitsInBuffer -= 8;
+                checksum[decoded++] = (byte) (buffer >> bitsInBuffer);
+                buffer &= (1 << bitsInBuffer) - 1;
+            }
+        }
+        return true;
+    }
+
+    private static int base32HexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'v') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private static final class State {
+
+        private final Mac mac;
+        private final byte[] suppliedChecksum = new byte[HMAC_SHA1_BYTES];
+        private final byte[] calculatedChecksum = new byte[HMAC_SHA1_BYTES];
+        private byte[] tokenBuffer = new byte[INITIAL_TOKEN_BUFFER_SIZE];
+
+        private State(SecretKeySpec key) {
+            try {
+                mac = Mac.getInstance(HMAC_SHA1);
+                mac.init(key);
+            } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+                throw new IllegalStateException("Could not initialise " + HMAC_SHA1, e);
+            }
+        }
+    }
+}
@@ -1,8 +1,5 @@
 package uk.gov.pay.api.filter;
 
-import com.google.common.io.BaseEncoding;
-import org.apache.commons.codec.digest.HmacAlgorithms;
-import org.apache.commons.codec.digest.HmacUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.api.app.config.PublicApiConfig;
@@ -17,10 +14,6 @@ import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.util.Arrays;
-import java.util.Optional;
 
 import static jakarta.ws.rs.core.Response.Status.UNAUTHORIZED;
 import static net.logstash.logback.argument.StructuredArguments.kv;
@@ -30,18 +23,17 @@ public class AuthorizationValidationFilter implements Filter {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthorizationValidationFilter.class);
 
-    private static final int HMAC_SHA1_LENGTH = 32;
     private static final String BEARER_PREFIX = "Bearer ";
     
     private static final String[] EXCLUDED_URLS = {
             "/v1/auth"
     };
     
-    private String apiKeyHmacSecret;
+    private final ApiKeyChecksumVerifier apiKeyChecksumVerifier;
 
     @Inject
     public AuthorizationValidationFilter(PublicApiConfig configuration) {
-        this.apiKeyHmacSecret = configuration.getApiKeyHmacSecret();
+        this.apiKeyChecksumVerifier = new ApiKeyChecksumVerifier(configuration.getApiKeyHmacSecret());
     }
 
     @Override
@@ -51,55 +43,54 @@ public class AuthorizationValidationFilter implements Filter {
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
 
-        String path = ((HttpServletRequest) request).getRequestURI();
-        if (Arrays.stream(EXCLUDED_URLS).anyMatch(path::startsWith)) {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        if (isExcluded(httpRequest.getRequestURI())) {
             chain.doFilter(request, response);
             return;
         }
         
-        final String authorization = ((HttpServletRequest) request).getHeader("Authorization");
-        String clientAddress = Optional.ofNullable(((HttpServletRequest) request).getHeader("X-Forwarded-For"))
-                .map(forwarded -> forwarded.split(",")[0])
-                .orElse(null);
+        final String authorization = httpRequest.getHeader("Authorization");
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            sendUnauthorized(response);
+            return;
+        }
 
-        if (isValidAuthorizationHeader(authorization, clientAddress)) {
-            chain.doFilter(request, response);
-        } else {
-            ((HttpServletResponse) response).sendError(UNAUTHORIZED.getStatusCode(), UNAUTHORIZED.getReasonPhrase());
+        if (!apiKeyChecksumVerifier.isValid(authorization, BEARER_PREFIX.length())) {
+            logger.warn("Attempt to authenticate using an API key with an invalid checksum",
+                    kv(REMOTE_ADDRESS, clientAddress(httpRequest)));
+            sendUnauthorized(response);
+            return;
         }
+
+        chain.doFilter(request, response);
     }
 
     @Override
     public void destroy() {
     }
 
-    private boolean isValidAuthorizationHeader(String authorization, String clientAddress) {
-        return authorization != null
-                && authorization.startsWith(BEARER_PREFIX)
-                && isValidTokenIntegrity(authorization.substring(BEARER_PREFIX.length()), clientAddress);
-    }
-
-    private boolean isValidTokenIntegrity(String apiKey, String clientAddress) {
-        boolean isValid = false;
-        if (apiKey.length() >= HMAC_SHA1_LENGTH + 1) {
-            int initHmacIndex = apiKey.length() - HMAC_SHA1_LENGTH;
-            String hmacFromApiKey = apiKey.substring(initHmacIndex);
-            String tokenFromApiKey = apiKey.substring(0, initHmacIndex);
-            isValid = tokenMatchesHmac(tokenFromApiKey, hmacFromApiKey);
-        }
-
-        if (!isValid) {
-            logger.warn("Attempt to authenticate using an API key with an invalid checksum",
-                    kv(REMOTE_ADDRESS, clientAddress));
+    private static boolean isExcluded(String path) {
+        for (String excludedUrl : EXCLUDED_URLS) {
+            if (path.startsWith(excludedUrl)) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        return isValid;
+    private static void sendUnauthorized(ServletResponse response) throws IOException {
+        ((HttpServletResponse) response).sendError(UNAUTHORIZED.getStatusCode(), UNAUTHORIZED.getReasonPhrase());
     }
 
-    private boolean tokenMatchesHmac(String token, String currentHmac) {
-        final String hmacCalculatedFromToken = BaseEncoding.base32Hex()
-                .lowerCase().omitPadding()
-                .encode(new HmacUtils(HmacAlgorithms.HMAC_SHA_1, apiKeyHmacSecret).hmac(token));
-        return MessageDigest.isEqual(hmacCalculatedFromToken.getBytes(StandardCharsets.UTF_8), currentHmac.getBytes(StandardCharsets.UTF_8));
+    /**
+     * Only worked out when logging a rejected request, as it is not needed otherwise.
+     */
+    private static String clientAddress(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null) {
+            return null;
+        }
+        int comma = forwardedFor.indexOf(',');
+        return comma < 0 ? forwardedFor : forwardedFor.substring(0, comma);
     }
 }
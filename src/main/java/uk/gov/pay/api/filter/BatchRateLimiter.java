@@ -0,0 +1,75 @@
+package uk.gov.pay.api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.filter.ratelimit.RateLimitException;
+import uk.gov.pay.api.filter.ratelimit.RateLimitStatus;
+import uk.gov.pay.api.filter.ratelimit.RateLimiter;
+import uk.gov.pay.api.resources.error.ApiErrorResponse.Code;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Variant;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static uk.gov.pay.api.resources.error.ApiErrorResponse.anApiErrorResponse;
+
+/**
+ * Charges a batch request for each of the requests it replaces, once the number of items in it is known.
+ * The {@link RateLimiterFilter} has already charged the batch request itself before its body was read.
+ * <p>
+ * The items are charged to the same counter as the requests they replace, so batching does not raise an
+ * account's rate limit. The status recorded for the request is replaced, so the RateLimit-* headers
+ * describe the item counter.
+ */
+@Singleton
+public class BatchRateLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchRateLimiter.class);
+    private static final int TOO_MANY_REQUESTS_STATUS_CODE = 429;
+    private static final String UTF8_CHARACTER_ENCODING = "utf-8";
+
+    private final RateLimiter rateLimiter;
+    private final String tooManyRequestsErrorResponse;
+
+    @Inject
+    public BatchRateLimiter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        try {
+            this.tooManyRequestsErrorResponse = objectMapper.writeValueAsString(anApiErrorResponse(Code.TOO_MANY_REQUESTS_ERROR));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param method the method of the requests the batch replaces
+     * @throws WebApplicationException with a 429 Too Many Requests response if the items exceed the rate limit
+     */
+    public void chargeItems(ContainerRequestContext requestContext, Account account, String method, int items) {
+        try {
+            RateLimitStatus status = rateLimiter.checkRateOf(account.accountId(), RateLimiterKey.forMethod(method, account.accountId(), items));
+            if (status != null) {
+                requestContext.setProperty(RateLimitHeadersFilter.RATE_LIMIT_STATUS_PROPERTY, status);
+            }
+        } catch (RateLimitException e) {
+            LOGGER.info("Rate limit reached for batch of {} items for current service [account - {}, method - {}]. Sending response '429 Too Many Requests'",
+                    items, account.accountId(), method);
+            if (e.getStatus() != null) {
+                requestContext.setProperty(RateLimitHeadersFilter.RATE_LIMIT_STATUS_PROPERTY, e.getStatus());
+            }
+            throw new WebApplicationException(Response.status(TOO_MANY_REQUESTS_STATUS_CODE)
+                    .entity(tooManyRequestsErrorResponse)
+                    .encoding(UTF8_CHARACTER_ENCODING)
+                    .variant(new Variant(MediaType.APPLICATION_JSON_TYPE, "", UTF8_CHARACTER_ENCODING))
+                    .build());
+        }
+    }
+}
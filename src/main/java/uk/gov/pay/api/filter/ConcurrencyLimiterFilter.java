@@ -0,0 +1,105 @@
+package uk.gov.pay.api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.RateLimitRouteClass;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.filter.concurrencylimit.ConcurrencyLimiter;
+import uk.gov.pay.api.filter.concurrencylimit.ConcurrencyLimiter.Permit;
+import uk.gov.pay.api.filter.ratelimit.RouteClassTable;
+import uk.gov.pay.api.resources.error.ApiErrorResponse.Code;
+import uk.gov.pay.api.service.PaymentStateWatcher;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Variant;
+import jakarta.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import static uk.gov.pay.api.resources.PaymentsResource.WAIT_FOR_STATE_CHANGE;
+import static uk.gov.pay.api.resources.error.ApiErrorResponse.anApiErrorResponse;
+
+/**
+ * Sheds requests once an account has too many requests of the same route class in flight, see
+ * {@link ConcurrencyLimiter}. Runs after the {@link RateLimiterFilter}.
+ * <p>
+ * 429 Too Many Requests will be returned when the limit is reached. The permit taken for a request
+ * is released by the {@link ConcurrencyLimiterRequestEventListener} when the request finishes.
+ * <p>
+ * Long polls for a payment's state ({@code wait_for_state_change}) are not limited here: they are slow
+ * by design, which would shrink the account's limit, and hold no thread while they wait. The number of
+ * them waiting is capped by the {@link PaymentStateWatcher} instead.
+ */
+@Provider
+@Priority(Priorities.USER + 1001)
+public class ConcurrencyLimiterFilter implements ContainerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrencyLimiterFilter.class);
+    private static final int TOO_MANY_REQUESTS_STATUS_CODE = 429;
+    private static final String UTF8_CHARACTER_ENCODING = "utf-8";
+    private static final Pattern PAYMENT_PATH = Pattern.compile("/?v1/payments/[^/]+/?");
+
+    static final String PERMIT_PROPERTY = ConcurrencyLimiterFilter.class.getName() + ".permit";
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final RouteClassTable routeClassTable;
+    private final String tooManyRequestsErrorResponse;
+
+    @Inject
+    public ConcurrencyLimiterFilter(ConcurrencyLimiter concurrencyLimiter, RouteClassTable routeClassTable, ObjectMapper objectMapper) {
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.routeClassTable = routeClassTable;
+        try {
+            this.tooManyRequestsErrorResponse = objectMapper.writeValueAsString(anApiErrorResponse(Code.TOO_MANY_REQUESTS_ERROR));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (!concurrencyLimiter.isEnabled() || "healthcheck".equals(requestContext.getUriInfo().getPath())) {
+            return;
+        }
+
+        Account account = (Account) requestContext.getSecurityContext().getUserPrincipal();
+        if (account == null || isPaymentStateLongPoll(requestContext)) {
+            return;
+        }
+
+        String method = requestContext.getMethod();
+        String routeClass = routeClassTable.match(method, requestContext.getUriInfo().getPath())
+                .map(RateLimitRouteClass::getName)
+                .orElse(method);
+
+        Optional<Permit> permit = concurrencyLimiter.tryAcquire(account.accountId(), routeClass);
+        if (permit.isEmpty()) {
+            LOGGER.info("Concurrency limit reached for current service [account - {}, route class - {}]. Sending response '429 Too Many Requests'",
+                    account.accountId(), routeClass);
+            Response.ResponseBuilder builder = Response.status(TOO_MANY_REQUESTS_STATUS_CODE)
+                    .entity(tooManyRequestsErrorResponse)
+                    .header(HttpHeaders.RETRY_AFTER, 1)
+                    .encoding(UTF8_CHARACTER_ENCODING)
+                    .variant(new Variant(MediaType.APPLICATION_JSON_TYPE, "", UTF8_CHARACTER_ENCODING));
+            throw new WebApplicationException(builder.build());
+        }
+        requestContext.setProperty(PERMIT_PROPERTY, permit.get());
+    }
+
+    private static boolean isPaymentStateLongPoll(ContainerRequestContext requestContext) {
+        return "GET".equals(requestContext.getMethod())
+                && requestContext.getUriInfo().getQueryParameters().containsKey(WAIT_FOR_STATE_CHANGE)
+                && PAYMENT_PATH.matcher(requestContext.getUriInfo().getPath()).matches();
+    }
+}
@@ -0,0 +1,36 @@
+package uk.gov.pay.api.filter;
+
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+import uk.gov.pay.api.filter.concurrencylimit.ConcurrencyLimiter.Permit;
+
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Releases the permit taken by the {@link ConcurrencyLimiterFilter} once a request has finished.
+ * Jersey raises the finished event however the request ends, unlike response filters which are
+ * skipped if writing the response fails, so permits cannot leak.
+ */
+@Provider
+public class ConcurrencyLimiterRequestEventListener implements ApplicationEventListener {
+
+    @Override
+    public void onEvent(ApplicationEvent event) {
+    }
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent requestEvent) {
+        return ConcurrencyLimiterRequestEventListener::onRequestEvent;
+    }
+
+    private static void onRequestEvent(RequestEvent event) {
+        if (event.getType() == RequestEvent.Type.FINISHED
+                && event.getContainerRequest().getProperty(ConcurrencyLimiterFilter.PERMIT_PROPERTY) instanceof Permit permit) {
+            ContainerResponse response = event.getContainerResponse();
+            permit.release(response == null || response.getStatus() >= 500);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package uk.gov.pay.api.filter;
+
+import uk.gov.pay.api.filter.ratelimit.RateLimitStatus;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Adds RateLimit-Limit, RateLimit-Remaining and RateLimit-Reset headers to responses, and Retry-After
+ * when the rate limit has been exceeded, from the {@link RateLimitStatus} the {@link RateLimiterFilter}
+ * recorded for the request. Nothing is added for requests that were not rate limited (e.g. healthcheck).
+ */
+@Provider
+@Priority(Priorities.USER + 1000)
+public class RateLimitHeadersFilter implements ContainerResponseFilter {
+
+    static final String RATE_LIMIT_STATUS_PROPERTY = RateLimitHeadersFilter.class.getName() + ".status";
+
+    static final String RATE_LIMIT_LIMIT = "RateLimit-Limit";
+    static final String RATE_LIMIT_REMAINING = "RateLimit-Remaining";
+    static final String RATE_LIMIT_RESET = "RateLimit-Reset";
+    static final String RETRY_AFTER = "Retry-After";
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (requestContext.getProperty(RATE_LIMIT_STATUS_PROPERTY) instanceof RateLimitStatus status) {
+            addHeaders(responseContext.getHeaders(), status, responseContext.getStatus() == 429);
+        }
+    }
+
+    static void addHeaders(MultivaluedMap<String, Object> headers, RateLimitStatus status, boolean rateLimitExceeded) {
+        headers.putSingle(RATE_LIMIT_LIMIT, status.limit());
+        headers.putSingle(RATE_LIMIT_REMAINING, status.remaining());
+        headers.putSingle(RATE_LIMIT_RESET, status.resetInSeconds());
+        if (rateLimitExceeded) {
+            headers.putSingle(RETRY_AFTER, status.resetInSeconds());
+        }
+    }
+}
@@ -6,7 +6,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.filter.ratelimit.RateLimitException;
+import uk.gov.pay.api.filter.ratelimit.RateLimitStatus;
 import uk.gov.pay.api.filter.ratelimit.RateLimiter;
+import uk.gov.pay.api.filter.ratelimit.RouteClassTable;
 import uk.gov.pay.api.resources.error.ApiErrorResponse.Code;
 
 import jakarta.annotation.Priority;
@@ -20,6 +22,7 @@ import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Variant;
 import jakarta.ws.rs.ext.Provider;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
 
 import static uk.gov.pay.api.resources.error.ApiErrorResponse.anApiErrorResponse;
@@ -28,7 +31,8 @@ import static uk.gov.pay.api.resources.error.ApiErrorResponse.anApiErrorResponse
  * Allow only a certain number of requests from the same source (given by the Authorization Header)
  * within the given time configured in the RateLimiter. See {@link RateLimiter}
  * <p>
- * 429 Too Many Requests will be returned when rate limit is reached.
+ * 429 Too Many Requests will be returned when rate limit is reached. The state of the rate limit is
+ * recorded on the request for the {@link RateLimitHeadersFilter}.
  */
 @Provider
 @Priority(Priorities.USER + 1000)
@@ -39,25 +43,35 @@ public class RateLimiterFilter implements ContainerRequestFilter {
     private static final String UTF8_CHARACTER_ENCODING = "utf-8";
 
     private final RateLimiter rateLimiter;
-    private ObjectMapper objectMapper;
+    private final RouteClassTable routeClassTable;
+    private final String tooManyRequestsErrorResponse;
 
     /**
      * @param rateLimiter Limiter in number of requests per given time coming from the same source (Authorization)
+     * @param routeClassTable Classes of requests with their own cost or limit, see {@link RateLimiterKey}
      */
     @Inject
-    public RateLimiterFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+    public RateLimiterFilter(RateLimiter rateLimiter, RouteClassTable routeClassTable, ObjectMapper objectMapper) {
         this.rateLimiter = rateLimiter;
-        this.objectMapper = objectMapper;
+        this.routeClassTable = routeClassTable;
+        try {
+            this.tooManyRequestsErrorResponse = objectMapper.writeValueAsString(anApiErrorResponse(Code.TOO_MANY_REQUESTS_ERROR));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private void setTooManyRequestsError() throws IOException {
-        String errorResponse = objectMapper.writeValueAsString(anApiErrorResponse(Code.TOO_MANY_REQUESTS_ERROR));
+    private void setTooManyRequestsError(RateLimitStatus status) {
         Response.ResponseBuilder builder = Response.status(TOO_MANY_REQUESTS_STATUS_CODE)
-                .entity(errorResponse)
+                .entity(tooManyRequestsErrorResponse)
                 .encoding(UTF8_CHARACTER_ENCODING)
                 .variant(new Variant(MediaType.APPLICATION_JSON_TYPE, "", UTF8_CHARACTER_ENCODING));
+        Response response = builder.build();
+        if (status != null) {
+            RateLimitHeadersFilter.addHeaders(response.getHeaders(), status, true);
+        }
 
-        throw new WebApplicationException(builder.build());
+        throw new WebApplicationException(response);
     }
 
     @Override
@@ -67,13 +81,19 @@ public class RateLimiterFilter implements ContainerRequestFilter {
         }
 
         String accountId = getAccountId(requestContext);
-        RateLimiterKey key = RateLimiterKey.from(requestContext, accountId);
+        RateLimiterKey key = RateLimiterKey.from(requestContext, accountId, routeClassTable);
         try {
-            rateLimiter.checkRateOf(accountId, key);
+            RateLimitStatus status = rateLimiter.checkRateOf(accountId, key);
+            if (status != null) {
+                requestContext.setProperty(RateLimitHeadersFilter.RATE_LIMIT_STATUS_PROPERTY, status);
+            }
         } catch (RateLimitException e) {
             LOGGER.info("Rate limit reached for current service [account - {}, method - {}]. Sending response '429 Too Many Requests'",
                     accountId, key.getMethod());
-            setTooManyRequestsError();
+            if (e.getStatus() != null) {
+                requestContext.setProperty(RateLimitHeadersFilter.RATE_LIMIT_STATUS_PROPERTY, e.getStatus());
+            }
+            setTooManyRequestsError(e.getStatus());
         }
     }
 
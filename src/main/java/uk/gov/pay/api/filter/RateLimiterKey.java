@@ -1,35 +1,50 @@
 package uk.gov.pay.api.filter;
 
-import uk.gov.pay.api.utils.PathHelper;
+import uk.gov.pay.api.app.config.RateLimitRouteClass;
+import uk.gov.pay.api.filter.ratelimit.RouteClassTable;
 
 import jakarta.ws.rs.container.ContainerRequestContext;
+import java.util.Optional;
 
 public class RateLimiterKey {
 
     private final String method;
     private final String key;
     private final String keyType;
+    private final String routeClass;
+    private final int cost;
 
-    private RateLimiterKey(String key, String keyType, String method) {
+    private RateLimiterKey(String key, String keyType, String method, String routeClass, int cost) {
         this.key = key;
         this.keyType = keyType;
         this.method = method;
+        this.routeClass = routeClass;
+        this.cost = cost;
     }
 
-    public static RateLimiterKey from(ContainerRequestContext requestContext, String accountId) {
+    public static RateLimiterKey from(ContainerRequestContext requestContext, String accountId, RouteClassTable routeClassTable) {
         final String method = requestContext.getMethod();
 
         StringBuilder builder = new StringBuilder(method);
 
-        final String pathType = PathHelper.getPathType(requestContext.getUriInfo().getPath(), method);
-        if (!pathType.isBlank()) {
-            builder.append("-").append(pathType);
-        }
+        final Optional<RateLimitRouteClass> routeClass = routeClassTable.match(method, requestContext.getUriInfo().getPath());
+        routeClass.filter(RateLimitRouteClass::isSeparateCounter)
+                .ifPresent(rc -> builder.append("-").append(rc.getName()));
 
         final String keyType = builder.toString();
         builder.append("-").append(accountId);
 
-        return new RateLimiterKey(builder.toString(), keyType, method);
+        return new RateLimiterKey(builder.toString(), keyType, method,
+                routeClass.map(RateLimitRouteClass::getName).orElse(null),
+                routeClass.map(RateLimitRouteClass::getCost).orElse(1));
+    }
+
+    /**
+     * @return the key for requests with the given method that are not in a {@link RateLimitRouteClass}, charged
+     * {@code cost} requests, e.g. for the payments retrieved by a batch request
+     */
+    public static RateLimiterKey forMethod(String method, String accountId, int cost) {
+        return new RateLimiterKey(method + "-" + accountId, method, method, null, cost);
     }
 
     public String getKey() {
@@ -43,4 +58,18 @@ public class RateLimiterKey {
     public String getMethod() {
         return method;
     }
+
+    /**
+     * @return the name of the {@link RateLimitRouteClass} the request matched, or null if none matched
+     */
+    public String getRouteClass() {
+        return routeClass;
+    }
+
+    /**
+     * @return the number of requests to charge against the rate limit for this request
+     */
+    public int getCost() {
+        return cost;
+    }
 }
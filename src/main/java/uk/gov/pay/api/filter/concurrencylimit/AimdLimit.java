@@ -0,0 +1,82 @@
+package uk.gov.pay.api.filter.concurrencylimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limit on the number of requests in flight at once, adjusted by additive increase/multiplicative
+ * decrease (AIMD) from how requests complete.
+ * <p>
+ * A request that takes longer than the latency threshold, or fails with a server error, is taken
+ * as a sign that whatever it waited on (usually connector or ledger) is struggling, and the limit
+ * is multiplied by the backoff ratio. Otherwise the limit grows by one, but only while at least half
+ * of it is in use, so that an idle account does not build up a limit it has never had to prove.
+ */
+final class AimdLimit {
+
+    private final int minLimit;
+    private volatile int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    AimdLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(Math.min(minLimit, maxLimit), Math.min(initialLimit, maxLimit));
+    }
+
+    /**
+     * @return true if the request may go ahead, in which case {@link #release} must be called when it completes
+     */
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    void release(long latencyNanos, boolean failed) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (inFlightBeforeRelease * 2 >= limit) {
+            increase();
+        }
+    }
+
+    /**
+     * Changes the maximum, e.g. when the account moves to another tier, bringing the limit down to it if needed.
+     */
+    synchronized void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+        limit = Math.max(Math.min(minLimit, maxLimit), Math.min(limit, maxLimit));
+    }
+
+    int getMaxLimit() {
+        return maxLimit;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void decrease() {
+        limit = Math.max(Math.min(minLimit, maxLimit), (int) (limit * backoffRatio));
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(maxLimit, limit + 1);
+    }
+}
@@ -0,0 +1,125 @@
+package uk.gov.pay.api.filter.concurrencylimit;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.core.setup.Environment;
+import uk.gov.pay.api.app.config.ConcurrencyLimiterConfig;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.filter.ratelimit.AccountTiers;
+import uk.gov.pay.api.filter.ratelimit.AccountTiersProvider;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests each account can have in flight at once for each route class, so that
+ * one account's slow requests (e.g. searches waiting on ledger) cannot hold every server thread.
+ * The cap for each account and route class is an {@link AimdLimit}, bounded by the account's tier.
+ * When the account tiers are reloaded, the bounds are updated on the next request.
+ * <p>
+ * The limit and number of requests in flight are published as the gauges
+ * {@code concurrency_limiter.limit.<account>.<route class>} and
+ * {@code concurrency_limiter.in_flight.<account>.<route class>}.
+ */
+@Singleton
+public class ConcurrencyLimiter {
+
+    private final ConcurrencyLimiterConfig config;
+    private final AccountTiersProvider accountTiersProvider;
+    private final MetricRegistry metricRegistry;
+    private final Meter rejected;
+    private final long latencyThresholdNanos;
+
+    // one entry per account and route class, which is small and bounded by the number of accounts
+    private final ConcurrentMap<Key, AimdLimit> limits = new ConcurrentHashMap<>();
+    private volatile AccountTiers appliedAccountTiers;
+
+    @Inject
+    public ConcurrencyLimiter(PublicApiConfig configuration, AccountTiersProvider accountTiersProvider, Environment environment) {
+        this(configuration.getConcurrencyLimiterConfig(), accountTiersProvider, environment.metrics());
+    }
+
+    ConcurrencyLimiter(ConcurrencyLimiterConfig config, AccountTiersProvider accountTiersProvider, MetricRegistry metricRegistry) {
+        this.config = config;
+        this.accountTiersProvider = accountTiersProvider;
+        this.appliedAccountTiers = accountTiersProvider.get();
+        this.metricRegistry = metricRegistry;
+        this.rejected = metricRegistry.meter("concurrency_limiter.rejected");
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getLatencyThreshold().toMilliseconds());
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * @return a permit that must be released when the request completes, or empty if the account
+     * already has as many requests of this route class in flight as it is allowed
+     */
+    public Optional<Permit> tryAcquire(String accountId, String routeClass) {
+        AccountTiers accountTiers = accountTiersProvider.get();
+        if (accountTiers != appliedAccountTiers) {
+            applyAccountTiers(accountTiers);
+        }
+        AimdLimit limit = limits.computeIfAbsent(new Key(accountId, routeClass), key -> newLimit(key, accountTiers));
+        if (limit.tryAcquire()) {
+            return Optional.of(new Permit(limit, System.nanoTime()));
+        }
+        rejected.mark();
+        return Optional.empty();
+    }
+
+    private synchronized void applyAccountTiers(AccountTiers accountTiers) {
+        if (accountTiers == appliedAccountTiers) {
+            return;
+        }
+        limits.forEach((key, limit) -> limit.setMaxLimit(getMaxLimit(key.accountId(), accountTiers)));
+        appliedAccountTiers = accountTiers;
+    }
+
+    private AimdLimit newLimit(Key key, AccountTiers accountTiers) {
+        AimdLimit limit = new AimdLimit(config.getInitialLimit(), config.getMinLimit(), getMaxLimit(key.accountId(), accountTiers),
+                latencyThresholdNanos, config.getBackoffRatio());
+        String name = key.accountId() + "." + key.routeClass();
+        metricRegistry.gauge("concurrency_limiter.limit." + name, () -> (Gauge<Integer>) limit::getLimit);
+        metricRegistry.gauge("concurrency_limiter.in_flight." + name, () -> (Gauge<Integer>) limit::getInFlight);
+        return limit;
+    }
+
+    private int getMaxLimit(String accountId, AccountTiers accountTiers) {
+        if (accountTiers.isElevated(accountId)) {
+            return config.getMaxLimitForElevatedAccounts();
+        }
+        if (accountTiers.isLowTraffic(accountId)) {
+            return config.getMaxLimitForLowTrafficAccounts();
+        }
+        return config.getMaxLimit();
+    }
+
+    private record Key(String accountId, String routeClass) {
+    }
+
+    public static final class Permit {
+
+        private final AimdLimit limit;
+        private final long acquiredAt;
+
+        private Permit(AimdLimit limit, long acquiredAt) {
+            this.limit = limit;
+            this.acquiredAt = acquiredAt;
+        }
+
+        /**
+         * @param failed whether the request failed in a way that suggests the service is overloaded,
+         *               e.g. a 5xx response
+         */
+        public void release(boolean failed) {
+            limit.release(System.nanoTime() - acquiredAt, failed);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of which accounts are in the elevated and low traffic tiers. Lookups are
+ * hash-based, so checking an account's tier is constant time however many accounts are listed.
+ * <p>
+ * Read from a file by {@link AccountTiersProvider}, in the form
+ * <pre>
+ * elevatedAccounts: ["1", "2"]
+ * lowTrafficAccounts: ["5"]
+ * </pre>
+ */
+public final class AccountTiers {
+
+    private final Set<String> elevatedAccounts;
+    private final Set<String> lowTrafficAccounts;
+
+    @JsonCreator
+    public AccountTiers(@JsonProperty("elevatedAccounts") Collection<String> elevatedAccounts,
+                        @JsonProperty("lowTrafficAccounts") Collection<String> lowTrafficAccounts) {
+        this.elevatedAccounts = toSet(elevatedAccounts);
+        this.lowTrafficAccounts = toSet(lowTrafficAccounts);
+    }
+
+    public boolean isElevated(String accountId) {
+        return elevatedAccounts.contains(accountId);
+    }
+
+    public boolean isLowTraffic(String accountId) {
+        return lowTrafficAccounts.contains(accountId);
+    }
+
+    public int getNumberOfElevatedAccounts() {
+        return elevatedAccounts.size();
+    }
+
+    public int getNumberOfLowTrafficAccounts() {
+        return lowTrafficAccounts.size();
+    }
+
+    private static Set<String> toSet(Collection<String> accounts) {
+        return Collections.unmodifiableSet(new HashSet<>(Optional.ofNullable(accounts).orElse(List.of())));
+    }
+}
@@ -0,0 +1,121 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.RateLimiterConfig;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link AccountTiers}, which requests read without locking.
+ * <p>
+ * The tiers come from the rate limiter's elevated and low traffic account lists, unless an account
+ * tiers file is configured, in which case they are read from it instead. The file is read again when
+ * the {@code reload-account-tiers} admin task is run and, if a poll interval is configured, whenever
+ * its modification time changes, on an {@code account-tiers-poller} thread that stops with the application.
+ * Each reload builds a new snapshot and swaps it in, so requests never
+ * wait for a reload; if the file cannot be read, the previous snapshot is kept.
+ */
+@Singleton
+public class AccountTiersProvider implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccountTiersProvider.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper(new YAMLFactory());
+
+    private final Path accountTiersFile;
+    private final Duration pollInterval;
+    private final AtomicReference<AccountTiers> accountTiers = new AtomicReference<>();
+    private volatile FileTime lastModified;
+    private final ScheduledExecutorService poller;
+
+    @Inject
+    public AccountTiersProvider(RateLimiterConfig rateLimiterConfig, Environment environment) {
+        this(rateLimiterConfig, rateLimiterConfig.getAccountTiersFile().isPresent() && rateLimiterConfig.getAccountTiersPollInterval() != null
+                ? environment.lifecycle().scheduledExecutorService("account-tiers-poller").threads(1).build()
+                : null);
+    }
+
+    /**
+     * Without a poller, the account tiers file is only read again by {@link #reload()}.
+     */
+    public AccountTiersProvider(RateLimiterConfig rateLimiterConfig) {
+        this(rateLimiterConfig, null);
+    }
+
+    AccountTiersProvider(RateLimiterConfig rateLimiterConfig, ScheduledExecutorService poller) {
+        this.poller = poller;
+        this.accountTiersFile = rateLimiterConfig.getAccountTiersFile().map(Path::of).orElse(null);
+        this.pollInterval = rateLimiterConfig.getAccountTiersPollInterval();
+        if (accountTiersFile == null) {
+            accountTiers.set(new AccountTiers(rateLimiterConfig.getElevatedAccounts(), rateLimiterConfig.getLowTrafficAccounts()));
+        } else {
+            try {
+                reload();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read account tiers file " + accountTiersFile, e);
+            }
+        }
+    }
+
+    public AccountTiers get() {
+        return accountTiers.get();
+    }
+
+    /**
+     * Reads the account tiers file again, if one is configured.
+     *
+     * @return the account tiers now in use
+     * @throws IOException if the file cannot be read, in which case the account tiers are unchanged
+     */
+    public synchronized AccountTiers reload() throws IOException {
+        if (accountTiersFile == null) {
+            return accountTiers.get();
+        }
+        FileTime modified = Files.getLastModifiedTime(accountTiersFile);
+        AccountTiers loaded = OBJECT_MAPPER.readValue(accountTiersFile.toFile(), AccountTiers.class);
+        accountTiers.set(loaded);
+        lastModified = modified;
+        LOGGER.info("Loaded account tiers from {}: {} elevated accounts, {} low traffic accounts",
+                accountTiersFile, loaded.getNumberOfElevatedAccounts(), loaded.getNumberOfLowTrafficAccounts());
+        return loaded;
+    }
+
+    private void reloadIfModified() {
+        try {
+            if (!Files.getLastModifiedTime(accountTiersFile).equals(lastModified)) {
+                reload();
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Could not reload account tiers from {}, keeping the previous tiers. Cause of error: {}",
+                    accountTiersFile, e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (accountTiersFile != null && pollInterval != null && poller != null) {
+            long intervalInMillis = pollInterval.toMilliseconds();
+            poller.scheduleWithFixedDelay(this::reloadIfModified, intervalInMillis, intervalInMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        // the poller is shut down by the application's lifecycle
+    }
+}
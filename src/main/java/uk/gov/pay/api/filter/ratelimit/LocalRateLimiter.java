@@ -1,7 +1,7 @@
 package uk.gov.pay.api.filter.ratelimit;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.api.app.config.RateLimiterConfig;
@@ -10,7 +10,6 @@ import uk.gov.pay.api.filter.RateLimiterKey;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import jakarta.ws.rs.HttpMethod;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 @Singleton
@@ -29,29 +28,29 @@ public class LocalRateLimiter {
         this.noOfReqPerNode = rateLimiterConfig.getNoOfReqPerNode();
         this.noOfReqForPostPerNode = rateLimiterConfig.getNoOfReqForPostPerNode();
         this.perMillis = rateLimiterConfig.getPerMillis();
-        this.cache = CacheBuilder.newBuilder()
+        // A RateLimit that has been idle for perMillis has fully refilled, so it is safe to drop it
+        this.cache = Caffeine.newBuilder()
                 .expireAfterAccess(perMillis, TimeUnit.MILLISECONDS)
                 .build();
     }
 
-    void checkRateOf(String accountId, RateLimiterKey rateLimiterKey) throws RateLimitException {
+    RateLimitStatus checkRateOf(String accountId, RateLimiterKey rateLimiterKey) throws RateLimitException {
+        RateLimit rateLimit = cache.getIfPresent(rateLimiterKey.getKey());
+        if (rateLimit == null) {
+            rateLimit = cache.get(rateLimiterKey.getKey(), key -> new RateLimit(getNoOfRequestsForMethod(rateLimiterKey.getMethod()), perMillis));
+        }
 
-        RateLimit rateLimit = null;
         try {
-            rateLimit = cache.get(rateLimiterKey.getKey(), () -> new RateLimit(getNoOfRequestsForMethod(rateLimiterKey.getMethod()), perMillis));
-            rateLimit.updateAllowance();
-        } catch (ExecutionException e) {
-            //ExecutionException is thrown when the valueLoader (cache.get())  throws a checked exception.
-            //We just create a new instance (RateLimit) so no exceptions will be thrown, this should never happen.
-            LOGGER.error("Unexpected error creating a Rate Limiter object in cache", e);
+            rateLimit.updateAllowance(rateLimiterKey.getCost());
+            return rateLimit.getStatus();
         } catch (RateLimitException e) {
             LOGGER.info(String.format("LocalRateLimiter - Rate limit exceeded for account [%s] and method [%s] - count: %d, rate allowed: %d",
                     accountId,
                     rateLimiterKey.getMethod(),
-                    rateLimit.getRequestCount(),
+                    rateLimit.getRequestCount() + 1,
                     rateLimit.getNoOfReq()));
 
-            throw e;
+            throw new RateLimitException(rateLimit.getStatus());
         }
     }
 
@@ -0,0 +1,89 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+/**
+ * Allowance leased from Redis by this node for one rate limit key, see {@link RedisRateLimiter}.
+ * <p>
+ * Requests are served from {@code remaining} until it runs out, and only then is another block
+ * leased from Redis. The block size is scaled by this node's share of the key's traffic, so that
+ * across all nodes the allowance leased but not used is at most roughly {@code maxErrorFraction} of
+ * the limit. The share is measured over the previous window in which the key was used; until there is
+ * one, it is estimated from the leases made so far in the current window.
+ * <p>
+ * Leased allowance and counts are reset whenever the window changes. No I/O happens while holding the lock.
+ */
+final class QuotaLease {
+
+    private String window;
+    private int remaining;
+    private int servedInWindow;
+    private long globalUsedInWindow;
+    private double share;
+
+    /**
+     * @return true if the request was served from allowance already leased for this window
+     */
+    synchronized boolean tryAcquire(String currentWindow, int cost) {
+        rollOver(currentWindow);
+        if (remaining >= cost) {
+            remaining -= cost;
+            servedInWindow += cost;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return false if Redis has already reported too little allowance left in this window for a request of this cost
+     */
+    synchronized boolean hasAllowanceLeft(String currentWindow, int allowedNumberOfRequests, int cost) {
+        rollOver(currentWindow);
+        return allowedNumberOfRequests - globalUsedInWindow >= cost;
+    }
+
+    synchronized int nextBlockSize(int allowedNumberOfRequests, double maxErrorFraction, int cost) {
+        double currentShare = share > 0 || globalUsedInWindow == 0
+                ? share
+                : Math.min(1.0, (double) servedInWindow / globalUsedInWindow);
+        return Math.max(cost, (int) (allowedNumberOfRequests * maxErrorFraction * currentShare));
+    }
+
+    /**
+     * Records a lease returned by Redis. {@code cost} tokens are used by the current request.
+     * If Redis could not grant enough for the current request, what it did grant is kept for cheaper requests.
+     *
+     * @return true if the current request was granted allowance
+     */
+    synchronized boolean granted(String currentWindow, long granted, long globalUsed, int cost) {
+        rollOver(currentWindow);
+        globalUsedInWindow = Math.max(globalUsedInWindow, globalUsed);
+        remaining += (int) Math.max(0, granted);
+        if (remaining < cost) {
+            return false;
+        }
+        remaining -= cost;
+        servedInWindow += cost;
+        return true;
+    }
+
+    synchronized long getGlobalUsedInWindow() {
+        return globalUsedInWindow;
+    }
+
+    synchronized double getShare() {
+        return share;
+    }
+
+    private void rollOver(String currentWindow) {
+        if (currentWindow.equals(window)) {
+            return;
+        }
+        // a window without traffic says nothing about this node's share, so keep the last one measured
+        if (window != null && globalUsedInWindow > 0) {
+            share = Math.min(1.0, (double) servedInWindow / globalUsedInWindow);
+        }
+        window = currentWindow;
+        remaining = 0;
+        servedInWindow = 0;
+        globalUsedInWindow = 0;
+    }
+}
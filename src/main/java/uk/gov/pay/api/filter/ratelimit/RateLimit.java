@@ -1,48 +1,94 @@
 package uk.gov.pay.api.filter.ratelimit;
 
-import java.time.Duration;
-import java.time.Instant;
-
-import static java.time.temporal.ChronoUnit.MILLIS;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * Lock-free rate limit for a single key using the generic cell rate algorithm (GCRA).
+ * <p>
+ * Instead of counting requests per window, a single "theoretical arrival time" (TAT) is kept. Each
+ * request pushes the TAT forward by one emission interval ({@code perMillis / noOfReq}) and is
+ * rejected if that would put the TAT more than {@code perMillis} ahead of now. This allows a burst
+ * of {@code noOfReq} requests and then refills continuously, without a window boundary at which a
+ * client can send twice the limit.
+ * <p>
+ * Each RateLimit object is shared between requests from the same source (Service), so the TAT is
+ * updated with a compare-and-set loop rather than under a lock. The last status returned for each request count
+ * is kept and returned again while its reset time is unchanged, so a steady stream of requests allocates nothing.
+ */
 final class RateLimit {
 
     private final int noOfReq;
-    private final int perMillis;
-
-    private Instant created;
-    private int requestCount;
+    private final long periodNanos;
+    private final long emissionIntervalNanos;
+    private final AtomicLong theoreticalArrivalTime;
+    private final AtomicReferenceArray<RateLimitStatus> statuses;
 
     RateLimit(int noOfReq, int perMillis) {
+        if (noOfReq < 1) {
+            throw new IllegalArgumentException("A rate limit must allow at least one request, but was " + noOfReq);
+        }
         this.noOfReq = noOfReq;
-        this.perMillis = perMillis;
-        this.requestCount = 0;
-        this.created = Instant.now().truncatedTo(MILLIS);
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(perMillis);
+        this.emissionIntervalNanos = periodNanos / noOfReq;
+        // start a full period in the past so the first burst is not limited by construction time
+        this.theoreticalArrivalTime = new AtomicLong(System.nanoTime() - periodNanos);
+        this.statuses = new AtomicReferenceArray<>(noOfReq + 1);
+    }
+
+    void updateAllowance(int cost) throws RateLimitException {
+        updateAllowance(cost, System.nanoTime());
     }
 
     /**
-     * This block needs to be synchronous. Each RateLimit object will be shared between requests
-     * from the same source (Service), so is not shared across all the requests.
-     *
-     * @throws RateLimitException
+     * @param cost number of requests to charge against the allowance
+     * @param now current value of {@link System#nanoTime()}
+     * @throws RateLimitException if the request would exceed the allowance
      */
-    synchronized void updateAllowance() throws RateLimitException {
-        requestCount += 1;
-        Instant now = Instant.now().truncatedTo(MILLIS);
-        if (Duration.between(created, now).toMillis() >= perMillis) {
-            requestCount = 1;
-            created = now;
-        }
-        if (requestCount > noOfReq) {
-            throw new RateLimitException();
+    void updateAllowance(int cost, long now) throws RateLimitException {
+        long tat;
+        long newTat;
+        do {
+            tat = theoreticalArrivalTime.get();
+            // a request never costs more than the whole allowance, so it can always be made once per period
+            newTat = (tat - now > 0 ? tat : now) + emissionIntervalNanos * Math.min(cost, noOfReq);
+            if (newTat - now > periodNanos) {
+                throw new RateLimitException();
+            }
+        } while (!theoreticalArrivalTime.compareAndSet(tat, newTat));
+    }
+
+    /**
+     * @return the allowance left, which is fully restored once the theoretical arrival time has passed
+     */
+    RateLimitStatus getStatus() {
+        long backlog = theoreticalArrivalTime.get() - System.nanoTime();
+        int requestCount = requestCount(backlog);
+        long resetInSeconds = RateLimitStatus.resetInSeconds(TimeUnit.NANOSECONDS.toMillis(backlog));
+        RateLimitStatus status = statuses.get(requestCount);
+        if (status == null || status.resetInSeconds() != resetInSeconds) {
+            status = new RateLimitStatus(noOfReq, noOfReq - requestCount, resetInSeconds);
+            statuses.set(requestCount, status);
         }
+        return status;
     }
 
     public int getNoOfReq() {
         return noOfReq;
     }
 
+    /**
+     * @return the number of requests currently counted against the allowance
+     */
     public int getRequestCount() {
-        return requestCount;
+        return requestCount(theoreticalArrivalTime.get() - System.nanoTime());
+    }
+
+    private int requestCount(long backlog) {
+        if (backlog <= 0 || emissionIntervalNanos == 0) {
+            return 0;
+        }
+        return (int) Math.min(noOfReq, (backlog + emissionIntervalNanos - 1) / emissionIntervalNanos);
     }
 }
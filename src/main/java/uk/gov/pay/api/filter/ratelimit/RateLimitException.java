@@ -1,4 +1,21 @@
 package uk.gov.pay.api.filter.ratelimit;
 
 public class RateLimitException extends Exception {
+
+    private final RateLimitStatus status;
+
+    public RateLimitException() {
+        this(null);
+    }
+
+    public RateLimitException(RateLimitStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the status of the rate limit that was exceeded, or null if it is not known
+     */
+    public RateLimitStatus getStatus() {
+        return status;
+    }
 }
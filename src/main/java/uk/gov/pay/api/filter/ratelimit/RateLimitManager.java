@@ -8,13 +8,16 @@ import jakarta.ws.rs.HttpMethod;
 public class RateLimitManager {
 
     private RateLimiterConfig configuration;
+    private AccountTiersProvider accountTiersProvider;
 
-    public RateLimitManager(RateLimiterConfig config) {
+    public RateLimitManager(RateLimiterConfig config, AccountTiersProvider accountTiersProvider) {
         configuration = config;
+        this.accountTiersProvider = accountTiersProvider;
     }
 
     public int getAllowedNumberOfRequests(RateLimiterKey rateLimiterKey, String account) {
-        if (configuration.getElevatedAccounts().contains(account)) {
+        AccountTiers accountTiers = accountTiersProvider.get();
+        if (accountTiers.isElevated(account)) {
             if (HttpMethod.POST.equals(rateLimiterKey.getMethod())) {
                 return configuration.getNoOfPostReqForElevatedAccounts();
             }
@@ -22,7 +25,7 @@ public class RateLimitManager {
             return configuration.getNoOfReqForElevatedAccounts();
         }
 
-        if (configuration.getLowTrafficAccounts().contains(account)) {
+        if (accountTiers.isLowTraffic(account)) {
             if (HttpMethod.POST.equals(rateLimiterKey.getMethod())) {
                 return configuration.getNoOfPostReqForLowTrafficAccounts();
             }
@@ -37,7 +40,7 @@ public class RateLimitManager {
     }
 
     public int getRateLimitInterval(String account) {
-        if (configuration.getLowTrafficAccounts().contains(account)) {
+        if (accountTiersProvider.get().isLowTraffic(account)) {
             return configuration.getIntervalInMillisForLowTrafficAccounts();
         }
 
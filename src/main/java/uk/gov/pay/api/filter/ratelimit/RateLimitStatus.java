@@ -0,0 +1,20 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+/**
+ * The state of a rate limit after a request has been counted against it, as returned in the
+ * RateLimit-* response headers.
+ *
+ * @param limit          number of requests allowed in the rate limit interval
+ * @param remaining      number of requests still allowed before the limit is reached
+ * @param resetInSeconds seconds until the allowance is restored
+ */
+public record RateLimitStatus(int limit, long remaining, long resetInSeconds) {
+
+    static RateLimitStatus of(int limit, long used, long millisUntilReset) {
+        return new RateLimitStatus(limit, Math.max(0, limit - used), resetInSeconds(millisUntilReset));
+    }
+
+    static long resetInSeconds(long millisUntilReset) {
+        return (Math.max(0, millisUntilReset) + 999) / 1000;
+    }
+}
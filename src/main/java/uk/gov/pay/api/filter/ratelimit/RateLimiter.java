@@ -14,19 +14,39 @@ public class RateLimiter {
 
     private final LocalRateLimiter localRateLimiter;
     private final RedisRateLimiter redisRateLimiter;
+    private final RedisCircuitBreaker redisCircuitBreaker;
 
     @Inject
-    public RateLimiter(LocalRateLimiter localRateLimiter, RedisRateLimiter redisRateLimiter) {
+    public RateLimiter(LocalRateLimiter localRateLimiter, RedisRateLimiter redisRateLimiter, RedisCircuitBreaker redisCircuitBreaker) {
         this.localRateLimiter = localRateLimiter;
         this.redisRateLimiter = redisRateLimiter;
+        this.redisCircuitBreaker = redisCircuitBreaker;
     }
 
-    public void checkRateOf(String accountId, RateLimiterKey key) throws RateLimitException {
+    /**
+     * @return the state of the rate limit after counting this request, for the RateLimit-* headers
+     */
+    public RateLimitStatus checkRateOf(String accountId, RateLimiterKey key) throws RateLimitException {
+        if (!redisCircuitBreaker.allowRequest()) {
+            return localRateLimiter.checkRateOf(accountId, key);
+        }
+
         try {
-            redisRateLimiter.checkRateOf(accountId, key);
+            RateLimitStatus status = redisRateLimiter.checkRateOf(accountId, key);
+            redisCircuitBreaker.recordSuccess();
+            return status;
+        } catch (RateLimitException e) {
+            redisCircuitBreaker.recordSuccess();
+            throw e;
         } catch (RedisException e) {
+            redisCircuitBreaker.recordFailure();
             LOGGER.warn("Exception occurred checking rate limits using RedisRateLimiter, falling back to LocalRateLimiter");
-            localRateLimiter.checkRateOf(accountId, key);
+            return localRateLimiter.checkRateOf(accountId, key);
+        } catch (RuntimeException e) {
+            // still counted, or a failed half-open probe would leave the breaker half-open and Redis never retried
+            redisCircuitBreaker.recordFailure();
+            LOGGER.error("Unexpected exception checking rate limits using RedisRateLimiter, falling back to LocalRateLimiter", e);
+            return localRateLimiter.checkRateOf(accountId, key);
         }
     }
 }
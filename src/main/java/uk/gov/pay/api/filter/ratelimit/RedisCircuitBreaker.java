@@ -0,0 +1,110 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.core.setup.Environment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker around {@link RedisRateLimiter} and the shared authentication cache, which use the same Redis.
+ * <p>
+ * While Redis is down every call to it can wait up to {@code redis.commandTimeout} before failing.
+ * After {@code redis.circuitBreakerFailureThreshold} consecutive failures the breaker opens,
+ * {@link RateLimiter} uses only the {@link LocalRateLimiter} and the shared authentication cache is skipped. Once
+ * {@code redis.circuitBreakerOpenDuration} has passed a single request is let through as a probe
+ * (half-open): if it succeeds the breaker closes, otherwise it opens again.
+ */
+@Singleton
+public class RedisCircuitBreaker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long stateChangedAt;
+
+    private final Map<State, Meter> transitionMeters = new EnumMap<>(State.class);
+
+    @Inject
+    public RedisCircuitBreaker(PublicApiConfig configuration, Environment environment) {
+        this(configuration.getRedisConfiguration().getCircuitBreakerFailureThreshold(),
+                configuration.getRedisConfiguration().getCircuitBreakerOpenDuration(),
+                environment.metrics(),
+                System::nanoTime);
+    }
+
+    RedisCircuitBreaker(int failureThreshold, long openDurationMillis, MetricRegistry metricRegistry, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        this.nanoClock = nanoClock;
+        this.stateChangedAt = nanoClock.getAsLong();
+
+        metricRegistry.gauge("redis.circuit_breaker.state", () -> (Gauge<Integer>) () -> state.get().ordinal());
+        for (State s : State.values()) {
+            transitionMeters.put(s, metricRegistry.meter("redis.circuit_breaker.transitions." + s.name().toLowerCase()));
+        }
+    }
+
+    /**
+     * @return true if the request should go to Redis, false if only local rate limiting should be used
+     */
+    public boolean allowRequest() {
+        return switch (state.get()) {
+            case CLOSED -> true;
+            case OPEN -> nanoClock.getAsLong() - stateChangedAt >= openDurationNanos
+                    && transition(State.OPEN, State.HALF_OPEN);
+            // only the request that moved the breaker to half-open is sent to Redis as the probe
+            case HALF_OPEN -> false;
+        };
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (state.get() != State.CLOSED) {
+            transition(State.HALF_OPEN, State.CLOSED);
+        }
+    }
+
+    public void recordFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            transition(State.HALF_OPEN, State.OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            transition(State.CLOSED, State.OPEN);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    private boolean transition(State from, State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        stateChangedAt = nanoClock.getAsLong();
+        consecutiveFailures.set(0);
+        transitionMeters.get(to).mark();
+        LOGGER.warn("Redis circuit breaker changed from {} to {}", from, to);
+        return true;
+    }
+}
@@ -1,79 +1,265 @@
 package uk.gov.pay.api.filter.ratelimit;
 
 import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.inject.Inject;
 import com.google.inject.OutOfScopeException;
 import io.dropwizard.core.setup.Environment;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.RateLimitAlgorithm;
 import uk.gov.pay.api.app.config.RateLimiterConfig;
 import uk.gov.pay.api.filter.RateLimiterKey;
 import uk.gov.pay.api.managed.RedisClientManager;
 
 import jakarta.inject.Singleton;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoField;
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 @Singleton
 public class RedisRateLimiter {
     private static final Logger LOGGER = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    /**
+     * Increments the counter for the window by the request's cost (ARGV[2]) and, if the key has no TTL
+     * yet, expires it after the rate limit interval (ARGV[1], in milliseconds). Running both commands in
+     * one script makes the update atomic and costs a single round trip, so a key can never be left
+     * behind without a TTL.
+     */
+    static final String INCREMENT_AND_EXPIRE_SCRIPT =
+            "local count = redis.call('INCRBY', KEYS[1], ARGV[2]) " +
+            "if redis.call('PTTL', KEYS[1]) == -1 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end " +
+            "return count";
+    static final String INCREMENT_AND_EXPIRE_SCRIPT_SHA = DigestUtils.sha1Hex(INCREMENT_AND_EXPIRE_SCRIPT);
+
+    /**
+     * Leases up to ARGV[2] requests of allowance for the window, without taking the counter past the
+     * limit in ARGV[1], and expires the key after ARGV[3] milliseconds if it has no TTL yet.
+     * Returns the number of requests granted and the counter value after the lease.
+     */
+    static final String LEASE_SCRIPT =
+            "local used = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "local granted = math.min(tonumber(ARGV[2]), tonumber(ARGV[1]) - used) " +
+            "if granted <= 0 then return {0, used} end " +
+            "used = redis.call('INCRBY', KEYS[1], granted) " +
+            "if redis.call('PTTL', KEYS[1]) == -1 then redis.call('PEXPIRE', KEYS[1], ARGV[3]) end " +
+            "return {granted, used}";
+    static final String LEASE_SCRIPT_SHA = DigestUtils.sha1Hex(LEASE_SCRIPT);
+
+    /**
+     * Increments the counter for the current window (KEYS[1]) by the request's cost (ARGV[2]), expiring
+     * it after ARGV[1] milliseconds if it has no TTL yet, and reads the counter for the previous window (KEYS[2]).
+     * Returns both counts so the sliding window estimate costs a single round trip.
+     */
+    static final String SLIDING_WINDOW_SCRIPT =
+            "local current = redis.call('INCRBY', KEYS[1], ARGV[2]) " +
+            "if redis.call('PTTL', KEYS[1]) == -1 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end " +
+            "local previous = tonumber(redis.call('GET', KEYS[2]) or '0') " +
+            "return {current, previous}";
+    static final String SLIDING_WINDOW_SCRIPT_SHA = DigestUtils.sha1Hex(SLIDING_WINDOW_SCRIPT);
+
     private final MetricRegistry metricsRegistry;
 
     private RateLimitManager rateLimitManager;
     private RedisClientManager redisClientManager;
 
+    private final boolean slidingWindow;
+    private final LongSupplier clock;
+
+    private final boolean quotaLeaseEnabled;
+    private final double quotaLeaseMaxErrorFraction;
+    private final int quotaLeaseMinAllowedRequests;
+    private final Cache<String, QuotaLease> quotaLeases;
+
     @Inject
-    public RedisRateLimiter(RateLimiterConfig rateLimiterConfig, RedisClientManager redisClientManager, Environment environment) {
-        this.rateLimitManager = new RateLimitManager(rateLimiterConfig);
+    public RedisRateLimiter(RateLimiterConfig rateLimiterConfig, AccountTiersProvider accountTiersProvider,
+                            RedisClientManager redisClientManager, Environment environment) {
+        this(rateLimiterConfig, accountTiersProvider, redisClientManager, environment, System::currentTimeMillis);
+    }
+
+    RedisRateLimiter(RateLimiterConfig rateLimiterConfig, AccountTiersProvider accountTiersProvider,
+                     RedisClientManager redisClientManager, Environment environment, LongSupplier clock) {
+        this.rateLimitManager = new RateLimitManager(rateLimiterConfig, accountTiersProvider);
         this.redisClientManager = redisClientManager;
         this.metricsRegistry = environment.metrics();
+        this.slidingWindow = rateLimiterConfig.getAlgorithm() == RateLimitAlgorithm.SLIDING_WINDOW;
+        this.clock = clock;
+        this.quotaLeaseEnabled = rateLimiterConfig.isQuotaLeaseEnabled();
+        this.quotaLeaseMaxErrorFraction = rateLimiterConfig.getQuotaLeaseMaxErrorFraction();
+        this.quotaLeaseMinAllowedRequests = rateLimiterConfig.getQuotaLeaseMinAllowedRequests();
+        this.quotaLeases = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
     }
 
-    void checkRateOf(String accountId, RateLimiterKey key)
+    /**
+     * @return the state of the rate limit, derived from the count returned by Redis for this request,
+     * or null if Redis did not return a count
+     */
+    RateLimitStatus checkRateOf(String accountId, RateLimiterKey key)
             throws RedisException, RateLimitException {
 
         Long count;
 
         int rateLimitInterval = rateLimitManager.getRateLimitInterval(accountId);
-        count = updateAllowance(key.getKey(), rateLimitInterval);
-
-        if (count != null) {
-            int allowedNumberOfRequests = rateLimitManager.getAllowedNumberOfRequests(key, accountId);
-            if (count > allowedNumberOfRequests) {
-                LOGGER.info(String.format("RedisRateLimiter - Rate limit exceeded for account [%s] and method [%s] - count: %d, rate allowed: %d",
-                        accountId, key.getKeyType(), count, allowedNumberOfRequests));
-                throw new RateLimitException();
+        int allowedNumberOfRequests = rateLimitManager.getAllowedNumberOfRequests(key, accountId);
+        // a request never costs more than the whole allowance, so it can always be made once per interval
+        int cost = Math.max(1, Math.min(key.getCost(), allowedNumberOfRequests));
+        // read once so that the window counted in and the reset reported for it always agree
+        long now = clock.getAsLong();
+
+        if (quotaLeaseEnabled && !slidingWindow && allowedNumberOfRequests >= quotaLeaseMinAllowedRequests) {
+            return checkRateUsingQuotaLease(accountId, key, rateLimitInterval, allowedNumberOfRequests, cost, now);
+        }
+
+        if (slidingWindow) {
+            count = updateSlidingWindowAllowance(key.getKey(), rateLimitInterval, cost, now);
+        } else {
+            count = updateAllowance(key.getKey(), rateLimitInterval, cost, now);
+        }
+
+        if (count == null) {
+            return null;
+        }
+
+        RateLimitStatus status = RateLimitStatus.of(allowedNumberOfRequests, count, millisUntilEndOfWindow(rateLimitInterval, now));
+        if (count > allowedNumberOfRequests) {
+            LOGGER.info(String.format("RedisRateLimiter - Rate limit exceeded for account [%s] and method [%s] - count: %d, rate allowed: %d",
+                    accountId, key.getKeyType(), count, allowedNumberOfRequests));
+            throw new RateLimitException(status);
+        }
+        return status;
+    }
+
+    /**
+     * Serves the request from allowance this node has already leased for the current window, and
+     * only goes to Redis when that runs out. Once Redis reports too little allowance left in the window
+     * for a request, further requests that cost at least as much are rejected without another round trip.
+     */
+    private RateLimitStatus checkRateUsingQuotaLease(String accountId, RateLimiterKey key, int rateLimitInterval, int allowedNumberOfRequests,
+                                                     int cost, long now) throws RedisException, RateLimitException {
+        String derivedKey = getKeyForWindow(key.getKey(), rateLimitInterval, now);
+        QuotaLease quotaLease = quotaLeases.get(key.getKey(), k -> new QuotaLease());
+
+        if (quotaLease.tryAcquire(derivedKey, cost)) {
+            metricsRegistry.meter("redis.rate_limit_lease.local_hits").mark();
+            return quotaLeaseStatus(quotaLease, rateLimitInterval, allowedNumberOfRequests, now);
+        }
+
+        if (quotaLease.hasAllowanceLeft(derivedKey, allowedNumberOfRequests, cost)) {
+            int blockSize = quotaLease.nextBlockSize(allowedNumberOfRequests, quotaLeaseMaxErrorFraction, cost);
+            List<Long> lease = lease(derivedKey, allowedNumberOfRequests, blockSize, rateLimitInterval);
+            if (quotaLease.granted(derivedKey, lease.get(0), lease.get(1), cost)) {
+                return quotaLeaseStatus(quotaLease, rateLimitInterval, allowedNumberOfRequests, now);
             }
         }
+
+        LOGGER.info(String.format("RedisRateLimiter - Rate limit exceeded for account [%s] and method [%s] - count: %d, rate allowed: %d",
+                accountId, key.getKeyType(), quotaLease.getGlobalUsedInWindow(), allowedNumberOfRequests));
+        throw new RateLimitException(quotaLeaseStatus(quotaLease, rateLimitInterval, allowedNumberOfRequests, now));
+    }
+
+    /**
+     * Remaining allowance as of the last lease from Redis. This can overstate what is left by up to the
+     * allowance leased to other nodes, which is bounded by the quota lease max error fraction.
+     */
+    private RateLimitStatus quotaLeaseStatus(QuotaLease quotaLease, int rateLimitInterval, int allowedNumberOfRequests, long now) {
+        return RateLimitStatus.of(allowedNumberOfRequests, quotaLease.getGlobalUsedInWindow(), millisUntilEndOfWindow(rateLimitInterval, now));
+    }
+
+    /**
+     * Uses the same arithmetic as {@link #getKeyForWindow}, so the reset is when the next window's key is first used.
+     */
+    private static long millisUntilEndOfWindow(int rateLimitInterval, long now) {
+        return rateLimitInterval - now % rateLimitInterval;
+    }
+
+    private List<Long> lease(String derivedKey, int allowedNumberOfRequests, int blockSize, int rateLimitInterval) throws RedisException {
+        try {
+            return time("redis.rate_limit_lease", () -> runScript(LEASE_SCRIPT_SHA, LEASE_SCRIPT, ScriptOutputType.MULTI,
+                    new String[]{derivedKey},
+                    String.valueOf(allowedNumberOfRequests), String.valueOf(blockSize), String.valueOf(rateLimitInterval)));
+        } catch (Exception e) {
+            LOGGER.info(String.format("Failed to lease rate limit allowance for redis key %s. Cause of error: %s", derivedKey, e));
+            throw new RedisException();
+        }
     }
 
     /**
      * @param key the {@link RateLimiterKey#getKey()} key
      * @param rateLimitInterval in milliseconds
+     * @param cost number of requests to charge, see {@link RateLimiterKey#getCost()}
      * @return the count so far within the rateLimitInterval
      * @throws RedisException
      */
-    private Long updateAllowance(String key, int rateLimitInterval) throws RedisException {
-        String derivedKey = getKeyForWindow(key, rateLimitInterval);
-        
-        Long count = 0L;
+    private Long updateAllowance(String key, int rateLimitInterval, int cost, long now) throws RedisException {
+        String derivedKey = getKeyForWindow(key, rateLimitInterval, now);
+
         try {
-            count = time("redis.incr", () -> redisClientManager.getRedisConnection().sync().incr(derivedKey));
+            return time("redis.rate_limit_update", () -> runScript(INCREMENT_AND_EXPIRE_SCRIPT_SHA, INCREMENT_AND_EXPIRE_SCRIPT,
+                    ScriptOutputType.INTEGER, new String[]{derivedKey}, String.valueOf(rateLimitInterval), String.valueOf(cost)));
         } catch (Exception e) {
-            LOGGER.info(String.format("Failed to increment redis key %s. Cause of error: %s", derivedKey, e));
+            LOGGER.info(String.format("Failed to update rate limit for redis key %s. Cause of error: %s", derivedKey, e));
             throw new RedisException();
         }
-        
+    }
+
+    /**
+     * @param key the {@link RateLimiterKey#getKey()} key
+     * @param rateLimitInterval in milliseconds
+     * @param cost number of requests to charge, see {@link RateLimiterKey#getCost()}
+     * @return the estimated count within the rateLimitInterval up to now, see {@link SlidingWindow}
+     * @throws RedisException
+     */
+    private Long updateSlidingWindowAllowance(String key, int rateLimitInterval, int cost, long now) throws RedisException {
+        SlidingWindow window = SlidingWindow.at(key, rateLimitInterval, now);
+
         try {
-            // expire key after a (rateLimitInterval / 1000) so they are not on redis forever
-            time("redis.expire", () -> redisClientManager.getRedisConnection().sync().expire(derivedKey, rateLimitInterval / 1000));
+            // The current window's counter is read as the previous window's during the next interval,
+            // so it has to live for two intervals
+            List<Long> counts = time("redis.rate_limit_update", () -> runScript(SLIDING_WINDOW_SCRIPT_SHA, SLIDING_WINDOW_SCRIPT,
+                    ScriptOutputType.MULTI, new String[]{window.currentKey(), window.previousKey()},
+                    String.valueOf(2L * rateLimitInterval), String.valueOf(cost)));
+            return window.estimateCount(counts.get(0), counts.get(1));
         } catch (Exception e) {
-            LOGGER.info(String.format("Failed to expire redis key %s. Cause of error: %s", derivedKey, e));
+            LOGGER.info(String.format("Failed to update rate limit for redis key %s. Cause of error: %s", window.currentKey(), e));
             throw new RedisException();
         }
-        
-        return count;
+    }
+
+    /**
+     * Runs a script by its SHA so only the digest is sent on each request. If Redis does not have
+     * the script cached (e.g. after a restart or failover) it is sent in full with EVAL, which also
+     * caches it on the server for subsequent EVALSHA calls.
+     * <p>
+     * Uses the async API on the shared connection, so commands from concurrent requests are
+     * pipelined onto the socket, and waits for the result for at most the connection's command timeout.
+     */
+    private <T> T runScript(String sha, String script, ScriptOutputType outputType, String[] keys, String... args) throws Exception {
+        StatefulRedisConnection<String, String> connection = redisClientManager.getRedisConnection();
+        RedisAsyncCommands<String, String> commands = connection.async();
+        long timeoutInMillis = connection.getTimeout().toMillis();
+        try {
+            return commands.<T>evalsha(sha, outputType, keys, args).get(timeoutInMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RedisNoScriptException) {
+                return commands.<T>eval(script, outputType, keys, args).get(timeoutInMillis, TimeUnit.MILLISECONDS);
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
     }
 
     private <T> T time(String metricName, Callable<T> callable) throws Exception {
@@ -82,32 +268,18 @@ public class RedisRateLimiter {
 
     /**
      * Derives Key (Service Key + Window) to use in Redis for noOfReq limiting.
-     * Recommended to use perMillis to lowest granularity. i.e, to seconds. 1000, 2000
      * <p>
-     * Depends on perMillis
-     * <p>
-     * - perMillis < 1000 : Window considered for milliseconds
-     * - perMillis >=1000 && <60000 : Window considered for seconds(s)
-     * - perMillis >=60000 && <3600000 : Window considered for minute(s)
+     * Windows are consecutive rateLimitInterval-long slices of the epoch, numbered as {@link SlidingWindow} numbers
+     * them, so every window is a full interval long whatever the interval and every node agrees on where windows
+     * start. Intervals of an hour or more are not supported.
      *
-     * @return key based on {@link RateLimiterKey#getKey()} and current second/minute/hour window 
+     * @param now in milliseconds since the epoch, from the same clock as the reset reported for the window
+     * @return key based on {@link RateLimiterKey#getKey()} and the window containing now
      */
-    private String getKeyForWindow(String key, int rateLimitInterval) throws OutOfScopeException {
-
-        LocalDateTime now = LocalDateTime.now();
-
-        int window;
-
-        if (rateLimitInterval >= 1 && rateLimitInterval < 1000) {
-            window = (now.get(ChronoField.MILLI_OF_DAY) / rateLimitInterval) + 1;
-        } else if (rateLimitInterval >= 1000 && rateLimitInterval < 60000) {
-            window = now.get(ChronoField.SECOND_OF_MINUTE) / (rateLimitInterval / 1000);
-        } else if (rateLimitInterval >= 60000 && rateLimitInterval < 3600000) {
-            window = now.get(ChronoField.MINUTE_OF_HOUR) / (rateLimitInterval / 1000);
-        } else {
+    private static String getKeyForWindow(String key, int rateLimitInterval, long now) throws OutOfScopeException {
+        if (rateLimitInterval < 1 || rateLimitInterval >= 3600000) {
             throw new OutOfScopeException("Rate limit interval specified is not currently supported");
         }
-
-        return key + window;
+        return key + "-" + now / rateLimitInterval;
     }
 }
@@ -0,0 +1,87 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import uk.gov.pay.api.app.config.RateLimitRouteClass;
+import uk.gov.pay.api.app.config.RateLimiterConfig;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Matches requests to the configured {@link RateLimitRouteClass}es.
+ * <p>
+ * The path templates are compiled once into a trie of path segments, in which a {@code {param}}
+ * segment matches any single segment. Literal segments are preferred over path parameters, so
+ * {@code /v1/payments/search} would match before {@code /v1/payments/{paymentId}}.
+ * Leading and trailing slashes are ignored.
+ */
+@Singleton
+public class RouteClassTable {
+
+    private final Node root = new Node();
+
+    @Inject
+    public RouteClassTable(RateLimiterConfig rateLimiterConfig) {
+        this(rateLimiterConfig.getRouteClasses());
+    }
+
+    public RouteClassTable(List<RateLimitRouteClass> routeClasses) {
+        for (RateLimitRouteClass routeClass : routeClasses) {
+            Node node = root;
+            for (String segment : segments(routeClass.getPath())) {
+                node = isPathParameter(segment)
+                        ? node.pathParameter()
+                        : node.children.computeIfAbsent(segment, s -> new Node());
+            }
+            node.routeClasses.putIfAbsent(routeClass.getMethod().toUpperCase(Locale.ROOT), routeClass);
+        }
+    }
+
+    public Optional<RateLimitRouteClass> match(String method, String path) {
+        return Optional.ofNullable(match(root, segments(path), 0, method));
+    }
+
+    private static RateLimitRouteClass match(Node node, String[] segments, int index, String method) {
+        if (node == null) {
+            return null;
+        }
+        if (index == segments.length) {
+            return node.routeClasses.get(method);
+        }
+        RateLimitRouteClass routeClass = match(node.children.get(segments[index]), segments, index + 1, method);
+        return routeClass != null ? routeClass : match(node.pathParameter, segments, index + 1, method);
+    }
+
+    private static String[] segments(String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return start == end ? new String[0] : path.substring(start, end).split("/");
+    }
+
+    private static boolean isPathParameter(String segment) {
+        return segment.startsWith("{") && segment.endsWith("}");
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final Map<String, RateLimitRouteClass> routeClasses = new HashMap<>();
+        private Node pathParameter;
+
+        private Node pathParameter() {
+            if (pathParameter == null) {
+                pathParameter = new Node();
+            }
+            return pathParameter;
+        }
+    }
+}
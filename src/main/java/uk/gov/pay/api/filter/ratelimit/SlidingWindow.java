@@ -0,0 +1,22 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+/**
+ * The current and previous fixed windows for a rate limit key at a point in time, used by the
+ * sliding window counter in {@link RedisRateLimiter}.
+ * <p>
+ * The number of requests made in the last rate limit interval is estimated as the current window's
+ * count plus the previous window's count weighted by how much of the previous window still falls
+ * within the interval. This assumes requests in the previous window were evenly spread.
+ */
+record SlidingWindow(String currentKey, String previousKey, double previousWeight) {
+
+    static SlidingWindow at(String key, int rateLimitInterval, long nowInMillis) {
+        long window = nowInMillis / rateLimitInterval;
+        double elapsedFraction = (double) (nowInMillis % rateLimitInterval) / rateLimitInterval;
+        return new SlidingWindow(key + "-" + window, key + "-" + (window - 1), 1.0 - elapsedFraction);
+    }
+
+    long estimateCount(long currentCount, long previousCount) {
+        return currentCount + (long) (previousCount * previousWeight);
+    }
+}
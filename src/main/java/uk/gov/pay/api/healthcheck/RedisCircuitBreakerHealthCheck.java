@@ -0,0 +1,36 @@
+package uk.gov.pay.api.healthcheck;
+
+import com.codahale.metrics.health.HealthCheck;
+import uk.gov.pay.api.filter.ratelimit.RedisCircuitBreaker;
+
+import jakarta.inject.Inject;
+
+/**
+ * Reports the state of the {@link RedisCircuitBreaker}.
+ * <p>
+ * Always healthy: when Redis is unavailable the node keeps serving requests using local rate
+ * limiting, so an open breaker should be visible but must not fail the /healthcheck endpoint
+ * (which would take every node out of service during a Redis outage).
+ */
+public class RedisCircuitBreakerHealthCheck extends HealthCheck {
+
+    private final RedisCircuitBreaker redisCircuitBreaker;
+
+    @Inject
+    public RedisCircuitBreakerHealthCheck(RedisCircuitBreaker redisCircuitBreaker) {
+        this.redisCircuitBreaker = redisCircuitBreaker;
+    }
+
+    @Override
+    protected Result check() {
+        RedisCircuitBreaker.State state = redisCircuitBreaker.getState();
+        return switch (state) {
+            case CLOSED -> Result.healthy("Redis rate limiting available");
+            case OPEN, HALF_OPEN -> Result.builder()
+                    .healthy()
+                    .withMessage("Redis rate limiting unavailable, using local rate limiting")
+                    .withDetail("state", state.name())
+                    .build();
+        };
+    }
+}
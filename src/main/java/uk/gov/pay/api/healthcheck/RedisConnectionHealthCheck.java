@@ -0,0 +1,34 @@
+package uk.gov.pay.api.healthcheck;
+
+import com.codahale.metrics.health.HealthCheck;
+import uk.gov.pay.api.managed.RedisClientManager;
+
+import jakarta.inject.Inject;
+
+/**
+ * Reports whether the connection to Redis is open.
+ * <p>
+ * Always healthy, for the same reason as {@link RedisCircuitBreakerHealthCheck}: the node keeps
+ * serving requests with local rate limiting while Redis is unavailable.
+ */
+public class RedisConnectionHealthCheck extends HealthCheck {
+
+    private final RedisClientManager redisClientManager;
+
+    @Inject
+    public RedisConnectionHealthCheck(RedisClientManager redisClientManager) {
+        this.redisClientManager = redisClientManager;
+    }
+
+    @Override
+    protected Result check() {
+        if (redisClientManager.isConnected()) {
+            return Result.healthy("Connected to Redis");
+        }
+        return Result.builder()
+                .healthy()
+                .withMessage("Not connected to Redis, using local rate limiting")
+                .withDetail("connected", false)
+                .build();
+    }
+}
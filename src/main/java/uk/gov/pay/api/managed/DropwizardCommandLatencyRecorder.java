@@ -0,0 +1,29 @@
+package uk.gov.pay.api.managed;
+
+import com.codahale.metrics.MetricRegistry;
+import io.lettuce.core.metrics.CommandLatencyRecorder;
+import io.lettuce.core.protocol.ProtocolKeyword;
+
+import java.net.SocketAddress;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of each Redis command, from being sent to its response being read, in the
+ * Dropwizard timer {@code redis.command.<command>} (e.g. {@code redis.command.evalsha}).
+ */
+public class DropwizardCommandLatencyRecorder implements CommandLatencyRecorder {
+
+    private final MetricRegistry metricRegistry;
+
+    public DropwizardCommandLatencyRecorder(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    @Override
+    public void recordCommandLatency(SocketAddress local, SocketAddress remote, ProtocolKeyword commandType,
+                                     long firstResponseLatency, long completionLatency) {
+        metricRegistry.timer("redis.command." + commandType.name().toLowerCase(Locale.ROOT))
+                .update(completionLatency, TimeUnit.NANOSECONDS);
+    }
+}
@@ -2,22 +2,62 @@ package uk.gov.pay.api.managed;
 
 import io.dropwizard.lifecycle.Managed;
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisException;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
+/**
+ * Owns the single connection to Redis, which is thread-safe and shared by all requests. Lettuce
+ * multiplexes commands from concurrent callers onto the connection, so they are written to the
+ * socket together rather than each waiting for a connection of its own.
+ * <p>
+ * The connection is opened on {@link #start()}. If Redis is unavailable then, the application still
+ * starts (rate limiting falls back to local limits) and connecting is retried on the next use.
+ * Once connected, Lettuce reconnects automatically.
+ */
 @Singleton
 public class RedisClientManager implements Managed {
-    private RedisClient redisClient;
-    private StatefulRedisConnection<String, String> statefulRedisConnection;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisClientManager.class);
+
+    private final RedisClient redisClient;
+    private volatile StatefulRedisConnection<String, String> statefulRedisConnection;
 
     @Inject
     public RedisClientManager(RedisClient redisClient) {
         this.redisClient = redisClient;
     }
 
-    public StatefulRedisConnection getRedisConnection() {
+    public StatefulRedisConnection<String, String> getRedisConnection() {
+        StatefulRedisConnection<String, String> connection = statefulRedisConnection;
+        if (connection == null) {
+            connection = connect();
+        }
+        return connection;
+    }
+
+    /**
+     * Opens a separate connection for subscribing to channels, as a connection that has subscribed
+     * cannot be used for other commands. The caller is responsible for closing it.
+     */
+    public StatefulRedisPubSubConnection<String, String> connectPubSub() {
+        return redisClient.connectPubSub();
+    }
+
+    /**
+     * @return true if the connection has been opened and is not currently disconnected
+     */
+    public boolean isConnected() {
+        StatefulRedisConnection<String, String> connection = statefulRedisConnection;
+        return connection != null && connection.isOpen();
+    }
+
+    private synchronized StatefulRedisConnection<String, String> connect() {
         if (statefulRedisConnection == null) {
             statefulRedisConnection = redisClient.connect();
         }
@@ -25,12 +65,19 @@ public class RedisClientManager implements Managed {
     }
 
     @Override
-    public void start() throws Exception {}
+    public void start() {
+        try {
+            connect();
+        } catch (RedisException e) {
+            LOGGER.warn("Could not connect to Redis on startup, will retry on first use. Cause of error: {}", e.getMessage());
+        }
+    }
 
     @Override
     public void stop() {
-        if (statefulRedisConnection != null) {
-            statefulRedisConnection.close();
+        StatefulRedisConnection<String, String> connection = statefulRedisConnection;
+        if (connection != null) {
+            connection.close();
         }
         redisClient.getResources().shutdown();
         redisClient.shutdown();
@@ -33,6 +33,8 @@ public class RequestError {
         CREATE_PAYMENT_IDEMPOTENCY_KEY_ALREADY_USED("P0191", "The `Idempotency-Key` you sent in the request header has already been used to create a payment."),
 
         GET_PAYMENT_NOT_FOUND_ERROR("P0200", "Not found"),
+        GET_PAYMENT_VALIDATION_ERROR("P0201", "Invalid parameters: %s. See Public API documentation for the correct data formats"),
+        RETRIEVE_PAYMENTS_BATCH_VALIDATION_ERROR("P0202", "Invalid attribute value: payment_ids. %s"),
         GET_PAYMENT_CONNECTOR_ERROR("P0298", "Downstream system error"),
 
         GET_PAYMENT_EVENTS_NOT_FOUND_ERROR("P0300", "Not found"),
@@ -0,0 +1,37 @@
+package uk.gov.pay.api.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+@Schema(name = "RetrievePaymentsBatchRequest", description = "The Retrieve Payments Batch Request Payload")
+public class RetrievePaymentsBatchRequest {
+
+    @JsonProperty("payment_ids")
+    @ArraySchema(arraySchema = @Schema(description = "The `payment_id`s of the payments you want to get. " +
+            "You can send up to 50 IDs in one request.", requiredMode = REQUIRED),
+            schema = @Schema(example = "hu20sqlact5260q2nanm0q8u93"))
+    private List<String> paymentIds;
+
+    public RetrievePaymentsBatchRequest() {
+    }
+
+    public RetrievePaymentsBatchRequest(List<String> paymentIds) {
+        this.paymentIds = paymentIds;
+    }
+
+    public List<String> getPaymentIds() {
+        return paymentIds;
+    }
+
+    @Override
+    public String toString() {
+        return "RetrievePaymentsBatchRequest{" +
+                "paymentIds=" + paymentIds +
+                '}';
+    }
+}
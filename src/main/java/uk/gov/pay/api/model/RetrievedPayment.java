@@ -0,0 +1,64 @@
+package uk.gov.pay.api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+/**
+ * One payment of a batch retrieved with {@code POST /v1/payments/batch-retrieve}: either the payment, as
+ * {@code GET /v1/payments/{paymentId}} would return it, or the error that request would have returned.
+ */
+@JsonInclude(NON_NULL)
+@Schema(name = "RetrievedPayment", description = "A payment, or the error getting it, in a batch of payments")
+public class RetrievedPayment {
+
+    @JsonProperty("payment_id")
+    @Schema(description = "The `payment_id` you sent.", example = "hu20sqlact5260q2nanm0q8u93")
+    private final String paymentId;
+
+    @JsonProperty("status")
+    @Schema(description = "The HTTP status code that getting this payment on its own would have returned.", example = "200")
+    private final int status;
+
+    @JsonProperty("payment")
+    @Schema(description = "The payment, if `status` is `200`.")
+    private final PaymentWithAllLinks payment;
+
+    @JsonProperty("error")
+    @Schema(description = "Why the payment could not be got, if `status` is not `200`.")
+    private final RequestError error;
+
+    private RetrievedPayment(String paymentId, int status, PaymentWithAllLinks payment, RequestError error) {
+        this.paymentId = paymentId;
+        this.status = status;
+        this.payment = payment;
+        this.error = error;
+    }
+
+    public static RetrievedPayment found(String paymentId, PaymentWithAllLinks payment) {
+        return new RetrievedPayment(paymentId, 200, payment, null);
+    }
+
+    public static RetrievedPayment failed(String paymentId, int status, RequestError error) {
+        return new RetrievedPayment(paymentId, status, null, error);
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public PaymentWithAllLinks getPayment() {
+        return payment;
+    }
+
+    public RequestError getError() {
+        return error;
+    }
+}
@@ -0,0 +1,51 @@
+package uk.gov.pay.api.resources;
+
+import com.codahale.metrics.Timer;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.core.Response;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Resumes a suspended {@link AsyncResponse} with the outcome of a {@link CompletionStage}. Exceptions are
+ * passed to {@link AsyncResponse#resume(Throwable)} unwrapped, so they are mapped by the same exception
+ * mappers as if the resource method had thrown them.
+ * <p>
+ * The timer runs until the response is resumed. {@code @Timed} cannot be used on these resource methods,
+ * as it stops when the method returns, which may be as soon as the request is suspended.
+ */
+final class AsyncResponses {
+
+    static void resume(AsyncResponse asyncResponse, Timer timer, Supplier<CompletionStage<Response>> responseSupplier) {
+        Timer.Context timerContext = timer.time();
+        CompletionStage<Response> response;
+        try {
+            response = responseSupplier.get();
+        } catch (RuntimeException e) {
+            timerContext.stop();
+            asyncResponse.resume(e);
+            return;
+        }
+
+        response.whenComplete((result, throwable) -> {
+            timerContext.stop();
+            if (throwable == null) {
+                asyncResponse.resume(result);
+            } else {
+                asyncResponse.resume(unwrap(throwable));
+            }
+        });
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+
+    private AsyncResponses() {
+    }
+}
@@ -0,0 +1,36 @@
+package uk.gov.pay.api.resources;
+
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+import uk.gov.pay.api.service.GetPaymentService;
+
+import java.util.concurrent.CompletionStage;
+
+public class GetOnePaymentAsyncStrategy extends LedgerOrConnectorStrategyTemplate<CompletionStage<PaymentWithAllLinks>> {
+
+    private final Account account;
+    private final String paymentId;
+    private final GetPaymentService getPaymentService;
+
+    public GetOnePaymentAsyncStrategy(String strategy, Account account, String paymentId, GetPaymentService getPaymentService) {
+        super(strategy);
+        this.account = account;
+        this.paymentId = paymentId;
+        this.getPaymentService = getPaymentService;
+    }
+
+    @Override
+    protected CompletionStage<PaymentWithAllLinks> executeLedgerOnlyStrategy() {
+        return getPaymentService.getLedgerTransactionAsync(account, paymentId);
+    }
+
+    @Override
+    protected CompletionStage<PaymentWithAllLinks> executeDefaultStrategy() {
+        return getPaymentService.getPaymentAsync(account, paymentId);
+    }
+
+    @Override
+    protected CompletionStage<PaymentWithAllLinks> executeConnectorOnlyStrategy() {
+        return getPaymentService.getConnectorChargeAsync(account, paymentId);
+    }
+}
@@ -0,0 +1,94 @@
+package uk.gov.pay.api.resources;
+
+import com.codahale.metrics.annotation.Timed;
+import io.dropwizard.auth.Auth;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.filter.BatchRateLimiter;
+import uk.gov.pay.api.model.RequestError;
+import uk.gov.pay.api.model.RetrievePaymentsBatchRequest;
+import uk.gov.pay.api.model.RetrievedPayment;
+import uk.gov.pay.api.resources.error.ApiErrorResponse;
+import uk.gov.pay.api.service.RetrievePaymentsBatchService;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Response;
+import java.util.List;
+
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.apache.http.HttpHeaders.CACHE_CONTROL;
+import static org.apache.http.HttpHeaders.PRAGMA;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_200_DESCRIPTION;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_401_DESCRIPTION;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_422_DESCRIPTION;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_429_DESCRIPTION;
+
+@Path("/")
+@Tag(name = "Card payments")
+@Produces({"application/json"})
+public class PaymentsBatchResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentsBatchResource.class);
+
+    private final RetrievePaymentsBatchService retrievePaymentsBatchService;
+    private final BatchRateLimiter batchRateLimiter;
+
+    @Inject
+    public PaymentsBatchResource(RetrievePaymentsBatchService retrievePaymentsBatchService, BatchRateLimiter batchRateLimiter) {
+        this.retrievePaymentsBatchService = retrievePaymentsBatchService;
+        this.batchRateLimiter = batchRateLimiter;
+    }
+
+    @POST
+    @Timed
+    @Path("/v1/payments/batch-retrieve")
+    @Consumes(APPLICATION_JSON)
+    @Produces(APPLICATION_JSON)
+    @Operation(security = {@SecurityRequirement(name = "BearerAuth")},
+            operationId = "Retrieve a batch of payments",
+            summary = "Get information about several payments",
+            description = "You can use this endpoint to get information about up to 50 payments in one request. " +
+                    "The payments are returned in the order of their `payment_id`s, each with the HTTP status code " +
+                    "that getting it on its own would have returned. Each payment counts towards your rate limit " +
+                    "as one request to get a payment.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = RESPONSE_200_DESCRIPTION,
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = RetrievedPayment.class)))),
+                    @ApiResponse(responseCode = "401",
+                            description = RESPONSE_401_DESCRIPTION),
+                    @ApiResponse(responseCode = "422",
+                            description = RESPONSE_422_DESCRIPTION,
+                            content = @Content(schema = @Schema(implementation = RequestError.class))),
+                    @ApiResponse(responseCode = "429", description = RESPONSE_429_DESCRIPTION,
+                            content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+            }
+    )
+    public Response retrievePayments(@Parameter(hidden = true) @Auth Account account,
+                                     @Parameter(required = true, description = "requestPayload")
+                                     RetrievePaymentsBatchRequest retrievePaymentsBatchRequest,
+                                     @Context ContainerRequestContext requestContext) {
+        List<String> paymentIds = retrievePaymentsBatchService.validate(retrievePaymentsBatchRequest);
+        batchRateLimiter.chargeItems(requestContext, account, "GET", paymentIds.size());
+
+        logger.info("Batch of {} payments requested - [ {} ]", paymentIds.size(), retrievePaymentsBatchRequest);
+        return Response.ok(retrievePaymentsBatchService.retrieve(account, paymentIds), APPLICATION_JSON)
+                .header(PRAGMA, "no-cache")
+                .header(CACHE_CONTROL, "no-store")
+                .build();
+    }
+}
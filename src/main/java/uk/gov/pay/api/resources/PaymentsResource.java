@@ -1,6 +1,9 @@
 package uk.gov.pay.api.resources;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.codahale.metrics.annotation.Timed;
+import io.dropwizard.core.setup.Environment;
 import io.dropwizard.auth.Auth;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,8 +17,10 @@ import org.apache.http.HttpStatus;
 import org.hibernate.validator.constraints.Length;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.CaptureChargeException;
+import uk.gov.pay.api.exception.PaymentValidationException;
 import uk.gov.pay.api.model.CreateCardPaymentRequest;
 import uk.gov.pay.api.model.CreatePaymentResult;
 import uk.gov.pay.api.model.CreatedPaymentWithAllLinks;
@@ -30,7 +35,10 @@ import uk.gov.pay.api.service.CreatePaymentService;
 import uk.gov.pay.api.service.GetPaymentEventsService;
 import uk.gov.pay.api.service.GetPaymentService;
 import uk.gov.pay.api.service.PaymentSearchParams;
+import uk.gov.pay.api.service.PaymentResponseCache;
+import uk.gov.pay.api.service.PaymentResponseCache.RenderedPayment;
 import uk.gov.pay.api.service.PaymentSearchService;
+import uk.gov.pay.api.service.PaymentStateWatcher;
 import uk.gov.pay.api.service.PublicApiUriGenerator;
 
 import jakarta.inject.Inject;
@@ -44,15 +52,27 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
 
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
 import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static jakarta.ws.rs.core.HttpHeaders.IF_NONE_MATCH;
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.http.HttpHeaders.CACHE_CONTROL;
 import static org.apache.http.HttpHeaders.PRAGMA;
 import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_200_DESCRIPTION;
+import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_304_DESCRIPTION;
 import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_400_DESCRIPTION;
 import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_401_DESCRIPTION;
 import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_404_DESCRIPTION;
@@ -60,6 +80,8 @@ import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_409_DESCRIPTION;
 import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_422_DESCRIPTION;
 import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_429_DESCRIPTION;
 import static uk.gov.pay.api.common.ResponseConstants.RESPONSE_500_DESCRIPTION;
+import static uk.gov.pay.api.model.RequestError.Code.GET_PAYMENT_VALIDATION_ERROR;
+import static uk.gov.pay.api.model.RequestError.aRequestError;
 
 @Path("/")
 @Tag(name = "Card payments")
@@ -68,6 +90,11 @@ public class PaymentsResource {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentsResource.class);
 
+    public static final String WAIT_FOR_STATE_CHANGE = "wait_for_state_change";
+
+    // added to the longest wait to leave room for the last lookup; only reached if a long poll is never answered
+    private static final Duration LONG_POLL_RESPONSE_TIMEOUT_MARGIN = Duration.ofSeconds(30);
+
     private final CreatePaymentService createPaymentService;
     private final PublicApiUriGenerator publicApiUriGenerator;
     private final PaymentSearchService paymentSearchService;
@@ -75,6 +102,13 @@ public class PaymentsResource {
     private final CapturePaymentService capturePaymentService;
     private final CancelPaymentService cancelPaymentService;
     private final GetPaymentEventsService getPaymentEventsService;
+    private final PaymentResponseCache paymentResponseCache;
+    private final PaymentStateWatcher paymentStateWatcher;
+    private final boolean asyncResourcesEnabled;
+    // in place of @Timed, which stops timing when the method returns rather than when the response is resumed
+    private final Timer getPaymentTimer;
+    private final Timer searchPaymentsTimer;
+    private final Timer createNewPaymentTimer;
 
     @Inject
     public PaymentsResource(CreatePaymentService createPaymentService,
@@ -83,7 +117,27 @@ public class PaymentsResource {
                             GetPaymentService getPaymentService,
                             CapturePaymentService capturePaymentService,
                             CancelPaymentService cancelPaymentService,
-                            GetPaymentEventsService getPaymentEventsService) {
+                            GetPaymentEventsService getPaymentEventsService,
+                            PaymentResponseCache paymentResponseCache,
+                            PaymentStateWatcher paymentStateWatcher,
+                            PublicApiConfig configuration,
+                            Environment environment) {
+        this(createPaymentService, paymentSearchService, publicApiUriGenerator, getPaymentService, capturePaymentService,
+                cancelPaymentService, getPaymentEventsService, paymentResponseCache, paymentStateWatcher, configuration,
+                environment.metrics());
+    }
+
+    public PaymentsResource(CreatePaymentService createPaymentService,
+                            PaymentSearchService paymentSearchService,
+                            PublicApiUriGenerator publicApiUriGenerator,
+                            GetPaymentService getPaymentService,
+                            CapturePaymentService capturePaymentService,
+                            CancelPaymentService cancelPaymentService,
+                            GetPaymentEventsService getPaymentEventsService,
+                            PaymentResponseCache paymentResponseCache,
+                            PaymentStateWatcher paymentStateWatcher,
+                            PublicApiConfig configuration,
+                            MetricRegistry metricRegistry) {
         this.createPaymentService = createPaymentService;
         this.publicApiUriGenerator = publicApiUriGenerator;
         this.paymentSearchService = paymentSearchService;
@@ -91,10 +145,16 @@ public class PaymentsResource {
         this.capturePaymentService = capturePaymentService;
         this.cancelPaymentService = cancelPaymentService;
         this.getPaymentEventsService = getPaymentEventsService;
+        this.paymentResponseCache = paymentResponseCache;
+        this.paymentStateWatcher = paymentStateWatcher;
+        this.asyncResourcesEnabled = configuration.isAsyncResourcesEnabled();
+        // the names @Timed gave these timers, so that existing dashboards keep working
+        this.getPaymentTimer = metricRegistry.timer(MetricRegistry.name(PaymentsResource.class, "getPayment"));
+        this.searchPaymentsTimer = metricRegistry.timer(MetricRegistry.name(PaymentsResource.class, "searchPayments"));
+        this.createNewPaymentTimer = metricRegistry.timer(MetricRegistry.name(PaymentsResource.class, "createNewPayment"));
     }
 
     @GET
-    @Timed
     @Path("/v1/payments/{paymentId}")
     @Produces(APPLICATION_JSON)
     @Operation(security = {@SecurityRequirement(name = "BearerAuth")},
@@ -105,32 +165,119 @@ public class PaymentsResource {
             responses = {
                     @ApiResponse(responseCode = "200", description = RESPONSE_200_DESCRIPTION,
                             content = @Content(schema = @Schema(implementation = PaymentWithAllLinks.class))),
+                    @ApiResponse(responseCode = "304", description = RESPONSE_304_DESCRIPTION),
                     @ApiResponse(responseCode = "401",
                             description = RESPONSE_401_DESCRIPTION),
                     @ApiResponse(responseCode = "404", description = RESPONSE_404_DESCRIPTION,
                             content = @Content(schema = @Schema(implementation = RequestError.class))),
+                    @ApiResponse(responseCode = "422",
+                            description = "Invalid parameters: wait_for_state_change. See Public API documentation for the correct data formats",
+                            content = @Content(schema = @Schema(implementation = RequestError.class))),
                     @ApiResponse(responseCode = "429", description = RESPONSE_429_DESCRIPTION,
                             content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
                     @ApiResponse(responseCode = "500", description = RESPONSE_500_DESCRIPTION,
                             content = @Content(schema = @Schema(implementation = RequestError.class)))
             }
     )
-    public Response getPayment(@Parameter(hidden = true) @Auth Account account,
-                               @PathParam("paymentId")
-                               @Parameter(name = "paymentId", description = "Returns the payment with the matching `payment_id`.", example = "hu20sqlact5260q2nanm0q8u93")
-                               String paymentId,
-                               @Parameter(hidden = true) @HeaderParam("X-Ledger") String strategyName) {
-
-        var strategy = new GetOnePaymentStrategy(strategyName, account, paymentId, getPaymentService);
-        PaymentWithAllLinks payment = strategy.validateAndExecute();
-        
-        logger.info("Payment returned - [ {} ]", payment);
-        return Response.ok(payment)
+    public void getPayment(@Parameter(hidden = true) @Auth Account account,
+                           @PathParam("paymentId")
+                           @Parameter(name = "paymentId", description = "Returns the payment with the matching `payment_id`.", example = "hu20sqlact5260q2nanm0q8u93")
+                           String paymentId,
+                           @Parameter(hidden = true) @HeaderParam("X-Ledger") String strategyName,
+                           @Parameter(hidden = true) @HeaderParam(IF_NONE_MATCH) String ifNoneMatch,
+                           @Parameter(description = "Wait up to this many seconds for the payment's `state.status` to change " +
+                                   "before responding, instead of polling. The response is sent as soon as the status changes " +
+                                   "or the payment is finished. Values above `25` are treated as `25`.", example = "20")
+                           @QueryParam(WAIT_FOR_STATE_CHANGE) String waitForStateChange,
+                           @Parameter(description = "The `state.status` you last saw for the payment, used with " +
+                                   "`wait_for_state_change`. Defaults to the payment's status when the request is received.", example = "started")
+                           @QueryParam("known_status") String knownStatus,
+                           @Suspended AsyncResponse asyncResponse) {
+
+        AsyncResponses.resume(asyncResponse, getPaymentTimer, () -> {
+            // long polls use the default lookup whatever the X-Ledger strategy
+            Duration wait = waitForStateChange == null ? null : parseWaitForStateChange(waitForStateChange);
+            if (isBlank(strategyName) || wait != null) {
+                // a cached payment is finished, so there is no state change to wait for
+                Optional<RenderedPayment> cachedPayment = paymentResponseCache.getIfPresent(account, paymentId);
+                if (cachedPayment.isPresent()) {
+                    return completedFuture(buildGetPaymentResponse(cachedPayment.get(), ifNoneMatch));
+                }
+            }
+            if (wait != null) {
+                // a backstop: a long poll still unanswered by then gets the default 503
+                asyncResponse.setTimeout(paymentStateWatcher.getMaxWait().plus(LONG_POLL_RESPONSE_TIMEOUT_MARGIN).toMillis(),
+                        TimeUnit.MILLISECONDS);
+                return paymentStateWatcher.waitForStateChange(account, paymentId, knownStatus, wait)
+                        .thenApply(payment -> paymentResponseCache.render(account, paymentId, payment))
+                        .thenApply(renderedPayment -> buildGetPaymentResponse(renderedPayment, ifNoneMatch));
+            }
+            return fetchPayment(account, paymentId, strategyName)
+                    .thenApply(payment -> isBlank(strategyName)
+                            ? paymentResponseCache.render(account, paymentId, payment)
+                            : paymentResponseCache.render(payment))
+                    .thenApply(renderedPayment -> buildGetPaymentResponse(renderedPayment, ifNoneMatch));
+        });
+    }
+
+    private static Duration parseWaitForStateChange(String waitForStateChange) {
+        try {
+            long seconds = Long.parseLong(waitForStateChange);
+            if (seconds >= 0) {
+                return Duration.ofSeconds(seconds);
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new PaymentValidationException(aRequestError(GET_PAYMENT_VALIDATION_ERROR, WAIT_FOR_STATE_CHANGE));
+    }
+
+    private CompletionStage<PaymentWithAllLinks> fetchPayment(Account account, String paymentId, String strategyName) {
+        if (asyncResourcesEnabled) {
+            return new GetOnePaymentAsyncStrategy(strategyName, account, paymentId, getPaymentService).validateAndExecute();
+        }
+        return completedFuture(new GetOnePaymentStrategy(strategyName, account, paymentId, getPaymentService).validateAndExecute());
+    }
+
+    private Response buildGetPaymentResponse(RenderedPayment renderedPayment, String ifNoneMatch) {
+        boolean notModified = matchesEntityTag(ifNoneMatch, renderedPayment.entityTag());
+        paymentResponseCache.recordResponse(notModified);
+        if (notModified) {
+            return Response.notModified(renderedPayment.entityTag())
+                    .header(PRAGMA, "no-cache")
+                    .header(CACHE_CONTROL, "no-store")
+                    .build();
+        }
+        logger.info("Payment returned - [ {} ]", renderedPayment.payment());
+        return Response.ok(renderedPayment.json(), APPLICATION_JSON)
+                .tag(renderedPayment.entityTag())
                 .header(PRAGMA, "no-cache")
                 .header(CACHE_CONTROL, "no-store")
                 .build();
     }
 
+    /**
+     * Whether an {@code If-None-Match} header matches the entity tag, using the weak comparison that
+     * RFC 9110 specifies for it.
+     */
+    static boolean matchesEntityTag(String ifNoneMatch, EntityTag entityTag) {
+        if (isBlank(ifNoneMatch)) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("\"" + entityTag.getValue() + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @GET
     @Timed
     @Path("/v1/payments/{paymentId}/events")
@@ -168,7 +315,6 @@ public class PaymentsResource {
     }
 
     @GET
-    @Timed
     @Path("/v1/payments")
     @Produces(APPLICATION_JSON)
     @Operation(security = {@SecurityRequirement(name = "BearerAuth")},
@@ -190,7 +336,7 @@ public class PaymentsResource {
                             content = @Content(schema = @Schema(implementation = RequestError.class)))
             }
     )
-    public Response searchPayments(@Parameter(hidden = true)
+    public void searchPayments(@Parameter(hidden = true)
                                    @Auth Account account,
                                    @Parameter(description = "Returns payments with `reference` values exactly matching your specified value.")
                                    @QueryParam("reference") String reference,
@@ -235,7 +381,8 @@ public class PaymentsResource {
                                    @Parameter(description = "Returns payments that were authorised using the agreement with this `agreement_id`. " +
                                            "Must be an exact match.", example = "abcefghjklmnopqr1234567890")
                                    @QueryParam("agreement_id") String agreementId,
-                                   @Context UriInfo uriInfo) {
+                                   @Context UriInfo uriInfo,
+                                   @Suspended AsyncResponse asyncResponse) {
 
         logger.info("Payments search request - [ reference: {}, email: REDACTED, status: {}, card_brand {}, fromDate: {}, toDate: {}, page: {}, display_size: {}, cardholder_name: REDACTED, first_digits_card_number: {}, last_digits_card_number: {}, from_settled_date: {}, to_settled_date: {}, agreement_id: {} ]",
                 reference, state, cardBrand, fromDate, toDate, pageNumber, displaySize, firstDigitsCardNumber, lastDigitsCardNumber, fromSettledDate, toSettledDate, agreementId);
@@ -257,11 +404,12 @@ public class PaymentsResource {
                 .withAgreementId(agreementId)
                 .build();
 
-        return paymentSearchService.searchLedgerPayments(account, paymentSearchParams);
+        AsyncResponses.resume(asyncResponse, searchPaymentsTimer, () -> asyncResourcesEnabled
+                ? paymentSearchService.searchLedgerPaymentsAsync(account, paymentSearchParams)
+                : completedFuture(paymentSearchService.searchLedgerPayments(account, paymentSearchParams)));
     }
 
     @POST
-    @Timed
     @Path("/v1/payments")
     @Consumes(APPLICATION_JSON)
     @Produces(APPLICATION_JSON)
@@ -285,18 +433,29 @@ public class PaymentsResource {
                             content = @Content(schema = @Schema(implementation = RequestError.class)))
             }
     )
-    public Response createNewPayment(@Parameter(hidden = true) @Auth Account account,
-                                     @Parameter(required = true, description = "requestPayload")
-                                     @Valid CreateCardPaymentRequest createCardPaymentRequest,
-                                     @Nullable
-                                     @Length(min = 1, max = 255, message = "Header [Idempotency-Key] can have a size between 1 and 255")
-                                     @Pattern(regexp = "^$|^[a-zA-Z0-9-]+$", message = "Header [Idempotency-Key] can only contain alphanumeric characters and hyphens")
-                                     @HeaderParam("Idempotency-Key")
-                                     String idempotencyKey) {
+    public void createNewPayment(@Parameter(hidden = true) @Auth Account account,
+                                 @Parameter(required = true, description = "requestPayload")
+                                 @Valid CreateCardPaymentRequest createCardPaymentRequest,
+                                 @Nullable
+                                 @Length(min = 1, max = 255, message = "Header [Idempotency-Key] can have a size between 1 and 255")
+                                 @Pattern(regexp = "^$|^[a-zA-Z0-9-]+$", message = "Header [Idempotency-Key] can only contain alphanumeric characters and hyphens")
+                                 @HeaderParam("Idempotency-Key")
+                                 String idempotencyKey,
+                                 @Suspended AsyncResponse asyncResponse) {
         logger.info("Payment create request parsed to {}", createCardPaymentRequest);
 
-        CreatedPaymentWithAllLinks createdPayment = createPaymentService.create(account, createCardPaymentRequest, idempotencyKey);
+        AsyncResponses.resume(asyncResponse, createNewPaymentTimer, () -> createPayment(account, createCardPaymentRequest, idempotencyKey)
+                .thenApply(this::buildCreatePaymentResponse));
+    }
+
+    private CompletionStage<CreatedPaymentWithAllLinks> createPayment(Account account, CreateCardPaymentRequest createCardPaymentRequest, String idempotencyKey) {
+        if (asyncResourcesEnabled) {
+            return createPaymentService.createAsync(account, createCardPaymentRequest, idempotencyKey);
+        }
+        return completedFuture(createPaymentService.create(account, createCardPaymentRequest, idempotencyKey));
+    }
 
+    private Response buildCreatePaymentResponse(CreatedPaymentWithAllLinks createdPayment) {
         PaymentWithAllLinks paymentWithAllLinks = createdPayment.getPayment();
         Response.ResponseBuilder response;
 
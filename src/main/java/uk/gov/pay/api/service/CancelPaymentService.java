@@ -1,6 +1,7 @@
 package uk.gov.pay.api.service;
 
 import org.apache.http.HttpStatus;
+import uk.gov.pay.api.app.config.ConnectorClient;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.CancelChargeException;
 
@@ -14,7 +15,7 @@ public class CancelPaymentService {
     private final ConnectorUriGenerator connectorUriGenerator;
 
     @Inject
-    public CancelPaymentService(Client client, ConnectorUriGenerator connectorUriGenerator) {
+    public CancelPaymentService(@ConnectorClient Client client, ConnectorUriGenerator connectorUriGenerator) {
         this.client = client;
         this.connectorUriGenerator = connectorUriGenerator;
     }
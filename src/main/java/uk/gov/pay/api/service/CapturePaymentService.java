@@ -1,5 +1,6 @@
 package uk.gov.pay.api.service;
 
+import uk.gov.pay.api.app.config.ConnectorClient;
 import uk.gov.pay.api.auth.Account;
 
 import jakarta.inject.Inject;
@@ -11,18 +12,23 @@ public class CapturePaymentService {
 
     private final Client client;
     private final ConnectorUriGenerator connectorUriGenerator;
+    private final PaymentResponseCache paymentResponseCache;
 
     @Inject
-    public CapturePaymentService(Client client, ConnectorUriGenerator connectorUriGenerator) {
+    public CapturePaymentService(@ConnectorClient Client client, ConnectorUriGenerator connectorUriGenerator,
+                                 PaymentResponseCache paymentResponseCache) {
         this.client = client;
         this.connectorUriGenerator = connectorUriGenerator;
+        this.paymentResponseCache = paymentResponseCache;
     }
 
     public Response capture(Account account, String chargeId) {
-        return client
+        Response response = client
                 .target(connectorUriGenerator.captureURI(account, chargeId))
                 .request()
                 .post(Entity.json("{}"));
+        paymentResponseCache.invalidate(account, chargeId);
+        return response;
     }
 
 }
@@ -8,6 +8,7 @@ import jakarta.ws.rs.core.Response;
 import org.apache.http.HttpStatus;
 import uk.gov.pay.api.agreement.model.AgreementCreatedResponse;
 import uk.gov.pay.api.agreement.model.CreateAgreementRequest;
+import uk.gov.pay.api.app.config.ConnectorClient;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.CancelAgreementException;
 import uk.gov.pay.api.exception.CreateAgreementException;
@@ -19,6 +20,8 @@ import uk.gov.pay.api.model.ChargeFromResponse;
 import uk.gov.pay.api.model.PaymentEvents;
 import uk.gov.pay.api.model.RefundFromConnector;
 
+import java.util.concurrent.CompletionStage;
+
 import static jakarta.ws.rs.client.Entity.json;
 import static org.apache.http.HttpStatus.SC_OK;
 
@@ -27,7 +30,7 @@ public class ConnectorService {
     private final ConnectorUriGenerator connectorUriGenerator;
 
     @Inject
-    public ConnectorService(Client client, ConnectorUriGenerator connectorUriGenerator) {
+    public ConnectorService(@ConnectorClient Client client, ConnectorUriGenerator connectorUriGenerator) {
         this.client = client;
         this.connectorUriGenerator = connectorUriGenerator;
     }
@@ -46,6 +49,22 @@ public class ConnectorService {
         throw new GetChargeException(response);
     }
 
+    public CompletionStage<Charge> getChargeAsync(Account account, String paymentId) {
+        return client
+                .target(connectorUriGenerator.chargeURI(account, paymentId))
+                .request()
+                .rx()
+                .get()
+                .thenApply(response -> {
+                    if (response.getStatus() == SC_OK) {
+                        ChargeFromResponse chargeFromResponse = response.readEntity(ChargeFromResponse.class);
+                        return Charge.from(chargeFromResponse);
+                    }
+
+                    throw new GetChargeException(response);
+                });
+    }
+
     public PaymentEvents getChargeEvents(Account account, String paymentId) {
         Response connectorResponse = client
                 .target(connectorUriGenerator.chargeEventsURI(account, paymentId))
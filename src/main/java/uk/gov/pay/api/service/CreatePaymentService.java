@@ -1,6 +1,7 @@
 package uk.gov.pay.api.service;
 
 import org.apache.http.HttpStatus;
+import uk.gov.pay.api.app.config.ConnectorClient;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.CreateChargeException;
 import uk.gov.pay.api.model.Charge;
@@ -12,12 +13,14 @@ import uk.gov.pay.api.model.links.PaymentWithAllLinks;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.Invocation;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.MultivaluedHashMap;
 import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.Response;
 
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 
 import static jakarta.ws.rs.client.Entity.json;
 import static uk.gov.pay.api.model.CreatedPaymentWithAllLinks.WhenCreated.BRAND_NEW;
@@ -30,15 +33,27 @@ public class CreatePaymentService {
     private final ConnectorUriGenerator connectorUriGenerator;
 
     @Inject
-    public CreatePaymentService(Client client, PublicApiUriGenerator publicApiUriGenerator, ConnectorUriGenerator connectorUriGenerator) {
+    public CreatePaymentService(@ConnectorClient Client client, PublicApiUriGenerator publicApiUriGenerator, ConnectorUriGenerator connectorUriGenerator) {
         this.client = client;
         this.publicApiUriGenerator = publicApiUriGenerator;
         this.connectorUriGenerator = connectorUriGenerator;
     }
 
     public CreatedPaymentWithAllLinks create(Account account, CreateCardPaymentRequest createCardPaymentRequest, String idempotencyKey) {
-        Response connectorResponse = createCharge(account, createCardPaymentRequest, idempotencyKey);
+        Response connectorResponse = chargesRequest(account, idempotencyKey)
+                .post(buildChargeRequestPayload(createCardPaymentRequest));
+
+        return processConnectorResponse(connectorResponse);
+    }
 
+    public CompletionStage<CreatedPaymentWithAllLinks> createAsync(Account account, CreateCardPaymentRequest createCardPaymentRequest, String idempotencyKey) {
+        return chargesRequest(account, idempotencyKey)
+                .rx()
+                .post(buildChargeRequestPayload(createCardPaymentRequest))
+                .thenApply(this::processConnectorResponse);
+    }
+
+    private CreatedPaymentWithAllLinks processConnectorResponse(Response connectorResponse) {
         if (connectorCreatedNewPayment(connectorResponse)) {
             ChargeFromResponse chargeFromResponse = connectorResponse.readEntity(ChargeFromResponse.class);
             return CreatedPaymentWithAllLinks.of(buildResponseModel(Charge.from(chargeFromResponse)), BRAND_NEW);
@@ -71,7 +86,7 @@ public class CreatePaymentService {
         return connectorResponse.getStatus() == HttpStatus.SC_OK;
     }
 
-    private Response createCharge(Account account, CreateCardPaymentRequest createCardPaymentRequest, String idempotencyKey) {
+    private Invocation.Builder chargesRequest(Account account, String idempotencyKey) {
         MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
 
         Optional.ofNullable(idempotencyKey)
@@ -81,8 +96,7 @@ public class CreatePaymentService {
                 .target(connectorUriGenerator.chargesURI(account))
                 .request()
                 .headers(headers)
-                .accept(MediaType.APPLICATION_JSON)
-                .post(buildChargeRequestPayload(createCardPaymentRequest));
+                .accept(MediaType.APPLICATION_JSON);
     }
 
     private Entity buildChargeRequestPayload(CreateCardPaymentRequest requestPayload) {
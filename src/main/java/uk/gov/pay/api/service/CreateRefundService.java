@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.gson.GsonBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.ConnectorClient;
 import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.CreateRefundException;
@@ -29,15 +30,18 @@ public class CreateRefundService {
     private static final Logger logger = LoggerFactory.getLogger(CreateRefundService.class);
 
     private final GetPaymentService getPaymentService;
+    private final PaymentResponseCache paymentResponseCache;
     private final Client client;
     private final String connectorUrl;
     private final String baseUrl;
 
     @Inject
     public CreateRefundService(GetPaymentService getPaymentService,
-                               Client client,
+                               PaymentResponseCache paymentResponseCache,
+                               @ConnectorClient Client client,
                                PublicApiConfig configuration) {
         this.getPaymentService = getPaymentService;
+        this.paymentResponseCache = paymentResponseCache;
         this.client = client;
         this.baseUrl = configuration.getBaseUrl();
         this.connectorUrl = configuration.getConnectorUrl();
@@ -62,6 +66,7 @@ public class CreateRefundService {
         if (connectorResponse.getStatus() != ACCEPTED.getStatusCode()) {
             throw new CreateRefundException(connectorResponse);
         }
+        paymentResponseCache.invalidate(account, paymentId);
 
         RefundFromConnector refundFromConnector = connectorResponse.readEntity(RefundFromConnector.class);
         logger.debug("created refund returned - [ {} ]", refundFromConnector);
@@ -9,19 +9,24 @@ import uk.gov.pay.api.model.TransactionEvents;
 import jakarta.inject.Inject;
 import java.net.URI;
 
+import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
+
 public class GetPaymentEventsService {
 
     private final PublicApiUriGenerator publicApiUriGenerator;
     private ConnectorService connectorService;
     private LedgerService ledgerService;
+    private final PaymentLocationHintCache paymentLocationHintCache;
 
     @Inject
     public GetPaymentEventsService(PublicApiUriGenerator publicApiUriGenerator,
                                    ConnectorService connectorService,
-                                   LedgerService ledgerService) {
+                                   LedgerService ledgerService,
+                                   PaymentLocationHintCache paymentLocationHintCache) {
         this.publicApiUriGenerator = publicApiUriGenerator;
         this.connectorService = connectorService;
         this.ledgerService = ledgerService;
+        this.paymentLocationHintCache = paymentLocationHintCache;
     }
 
     public PaymentEventsResponse getPaymentEventsFromConnector(Account account, String paymentId) {
@@ -43,10 +48,17 @@ public class GetPaymentEventsService {
     }
 
     public PaymentEventsResponse getPaymentEvents(Account account, String paymentId) {
+        if (paymentLocationHintCache.isOnlyInLedger(account, paymentId)) {
+            return getPaymentEventsFromLedger(account, paymentId);
+        }
         try {
             return getPaymentEventsFromConnector(account, paymentId);
         } catch (GetEventsException ex) {
-            return getPaymentEventsFromLedger(account, paymentId);
+            PaymentEventsResponse paymentEvents = getPaymentEventsFromLedger(account, paymentId);
+            if (ex.getErrorStatus() == NOT_FOUND.getStatusCode()) {
+                paymentLocationHintCache.rememberOnlyInLedger(account, paymentId);
+            }
+            return paymentEvents;
         }
     }
 }
@@ -1,5 +1,12 @@
 package uk.gov.pay.api.service;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.util.Duration;
+import uk.gov.pay.api.app.config.GetPaymentHedgingConfig;
+import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.GetChargeException;
 import uk.gov.pay.api.model.Charge;
@@ -7,19 +14,60 @@ import uk.gov.pay.api.model.links.PaymentWithAllLinks;
 
 import jakarta.inject.Inject;
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
+import static uk.gov.pay.api.utils.MdcPropagatingExecutorService.withMdc;
 
 public class GetPaymentService {
 
     private final PublicApiUriGenerator publicApiUriGenerator;
     private final ConnectorService connectorService;
     private final LedgerService ledgerService;
+    private final GetPaymentHedgingConfig hedgingConfig;
+    private final HedgeBudget hedgeBudget;
+    private final PaymentLocationHintCache paymentLocationHintCache;
+    private final Meter answeredByConnector;
+    private final Meter answeredByLedger;
+    private final Meter ledgerHedgesSent;
+    private final Meter ledgerHedgesUnused;
+    private final Meter ledgerHedgesOverBudget;
 
     @Inject
+    public GetPaymentService(PublicApiUriGenerator publicApiUriGenerator,
+                             ConnectorService connectorService, LedgerService ledgerService,
+                             PaymentLocationHintCache paymentLocationHintCache,
+                             PublicApiConfig configuration, Environment environment) {
+        this(publicApiUriGenerator, connectorService, ledgerService, paymentLocationHintCache,
+                configuration.getGetPaymentHedgingConfig(), environment.metrics());
+    }
+
     public GetPaymentService(PublicApiUriGenerator publicApiUriGenerator,
                              ConnectorService connectorService, LedgerService ledgerService) {
+        this(publicApiUriGenerator, connectorService, ledgerService,
+                new PaymentLocationHintCache(CaffeineSpec.parse("maximumSize=0"), new MetricRegistry()),
+                new GetPaymentHedgingConfig(false, Duration.milliseconds(0)), new MetricRegistry());
+    }
+
+    public GetPaymentService(PublicApiUriGenerator publicApiUriGenerator,
+                             ConnectorService connectorService, LedgerService ledgerService,
+                             PaymentLocationHintCache paymentLocationHintCache,
+                             GetPaymentHedgingConfig hedgingConfig, MetricRegistry metricRegistry) {
         this.publicApiUriGenerator = publicApiUriGenerator;
         this.connectorService = connectorService;
         this.ledgerService = ledgerService;
+        this.paymentLocationHintCache = paymentLocationHintCache;
+        this.hedgingConfig = hedgingConfig;
+        this.hedgeBudget = new HedgeBudget(hedgingConfig.getMaxHedgedPercent());
+        this.answeredByConnector = metricRegistry.meter("get_payment.answered_by.connector");
+        this.answeredByLedger = metricRegistry.meter("get_payment.answered_by.ledger");
+        this.ledgerHedgesSent = metricRegistry.meter("get_payment.ledger_hedge.sent");
+        this.ledgerHedgesUnused = metricRegistry.meter("get_payment.ledger_hedge.unused");
+        this.ledgerHedgesOverBudget = metricRegistry.meter("get_payment.ledger_hedge.over_budget");
     }
 
     public PaymentWithAllLinks getConnectorCharge(Account account, String paymentId) {
@@ -34,14 +82,159 @@ public class GetPaymentService {
         return getPaymentWithAllLinks(charge);
     }
 
+    /**
+     * Never hedges: waiting here for a hedged lookup would hold a client thread as well as the request thread, so
+     * hedging is left to {@link #getPaymentAsync}.
+     */
     public PaymentWithAllLinks getPayment(Account account, String paymentId) {
+        if (paymentLocationHintCache.isOnlyInLedger(account, paymentId)) {
+            return answeredByLedger(getLedgerTransaction(account, paymentId));
+        }
         try {
-            return getConnectorCharge(account, paymentId);
+            return answeredByConnector(getConnectorCharge(account, paymentId));
         } catch (GetChargeException ex) {
-            return getLedgerTransaction(account, paymentId);
+            return foundInLedger(account, paymentId, ex, getLedgerTransaction(account, paymentId));
+        }
+    }
+
+    public CompletionStage<PaymentWithAllLinks> getConnectorChargeAsync(Account account, String paymentId) {
+        return connectorService.getChargeAsync(account, paymentId)
+                .thenApply(this::getPaymentWithAllLinks);
+    }
+
+    public CompletionStage<PaymentWithAllLinks> getLedgerTransactionAsync(Account account, String paymentId) {
+        return ledgerService.getPaymentTransactionAsync(account, paymentId)
+                .thenApply(this::getPaymentWithAllLinks);
+    }
+
+    public CompletionStage<PaymentWithAllLinks> getPaymentAsync(Account account, String paymentId) {
+        if (paymentLocationHintCache.isOnlyInLedger(account, paymentId)) {
+            return getLedgerTransactionAsync(account, paymentId).thenApply(this::answeredByLedger);
+        }
+        if (hedgingConfig.isEnabled()) {
+            return getPaymentHedged(account, paymentId);
+        }
+        return getConnectorChargeAsync(account, paymentId)
+                .thenApply(this::answeredByConnector)
+                .exceptionallyCompose(throwable -> {
+                    Throwable cause = unwrap(throwable);
+                    if (cause instanceof GetChargeException connectorError) {
+                        return getLedgerTransactionAsync(account, paymentId)
+                                .thenApply(payment -> foundInLedger(account, paymentId, connectorError, payment));
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    /**
+     * Asks connector for the payment and, if it has not answered within the hedge delay, ledger as well. Connector
+     * stays the authority on payments it has, since ledger can lag behind it, so ledger's answer is only used once
+     * connector has said it does not have the payment. That saves a round trip for payments that have been expunged
+     * from connector, which is when connector is slowest to answer. Lookups that would take the share of hedged
+     * lookups over the configured maximum wait for connector instead.
+     */
+    private CompletionStage<PaymentWithAllLinks> getPaymentHedged(Account account, String paymentId) {
+        CompletableFuture<PaymentWithAllLinks> fromConnector = getConnectorChargeAsync(account, paymentId).toCompletableFuture();
+        HedgedLedgerLookup fromLedger = new HedgedLedgerLookup(account, paymentId);
+        hedgeBudget.lookupStarted();
+
+        long delayMillis = hedgingConfig.getDelay().toMilliseconds();
+        Runnable hedge = () -> {
+            if (fromConnector.isDone() || fromLedger.isStarted()) {
+                return;
+            }
+            if (!hedgeBudget.tryHedge()) {
+                ledgerHedgesOverBudget.mark();
+            } else if (fromLedger.start()) {
+                ledgerHedgesSent.mark();
+            }
+        };
+        if (delayMillis == 0) {
+            hedge.run();
+        } else {
+            CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS).execute(withMdc(hedge));
+        }
+
+        return fromConnector
+                .thenApply(payment -> {
+                    if (fromLedger.isStarted()) {
+                        ledgerHedgesUnused.mark();
+                    }
+                    return answeredByConnector(payment);
+                })
+                .exceptionallyCompose(throwable -> {
+                    Throwable cause = unwrap(throwable);
+                    if (cause instanceof GetChargeException connectorError) {
+                        fromLedger.start();
+                        return fromLedger.result.thenApply(payment -> foundInLedger(account, paymentId, connectorError, payment));
+                    }
+                    if (fromLedger.isStarted()) {
+                        ledgerHedgesUnused.mark();
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    private final class HedgedLedgerLookup {
+        private final Account account;
+        private final String paymentId;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<PaymentWithAllLinks> result = new CompletableFuture<>();
+
+        private HedgedLedgerLookup(Account account, String paymentId) {
+            this.account = account;
+            this.paymentId = paymentId;
+        }
+
+        private boolean start() {
+            if (!started.compareAndSet(false, true)) {
+                return false;
+            }
+            try {
+                getLedgerTransactionAsync(account, paymentId).whenComplete((payment, throwable) -> {
+                    if (throwable == null) {
+                        result.complete(payment);
+                    } else {
+                        result.completeExceptionally(unwrap(throwable));
+                    }
+                });
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+            return true;
+        }
+
+        private boolean isStarted() {
+            return started.get();
         }
     }
 
+    private PaymentWithAllLinks answeredByConnector(PaymentWithAllLinks payment) {
+        answeredByConnector.mark();
+        return payment;
+    }
+
+    private PaymentWithAllLinks answeredByLedger(PaymentWithAllLinks payment) {
+        answeredByLedger.mark();
+        return payment;
+    }
+
+    /**
+     * Only remembers that the payment is in ledger alone if connector said it does not have it. Any other error
+     * from connector may be transient, and remembering it would hide the payment's updates in connector.
+     */
+    private PaymentWithAllLinks foundInLedger(Account account, String paymentId, GetChargeException connectorError,
+                                              PaymentWithAllLinks payment) {
+        if (connectorError.getErrorStatus() == NOT_FOUND.getStatusCode()) {
+            paymentLocationHintCache.rememberOnlyInLedger(account, paymentId);
+        }
+        return answeredByLedger(payment);
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException ? throwable.getCause() : throwable;
+    }
+
     private PaymentWithAllLinks getPaymentWithAllLinks(Charge chargeFromResponse) {
         URI paymentURI = publicApiUriGenerator.getPaymentURI(chargeFromResponse.getChargeId());
 
@@ -0,0 +1,39 @@
+package uk.gov.pay.api.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that lets at most a given percentage of lookups be hedged. Every lookup adds that percentage to the
+ * balance and every hedge takes out a hundred, so hedges keep to the percentage over time while a burst of up to
+ * {@value #MAX_BURST} slow responses can still all be hedged. When connector slows down for everyone, hedging stops
+ * once the budget runs out rather than doubling the load on ledger.
+ */
+class HedgeBudget {
+
+    static final int MAX_BURST = 10;
+
+    private static final long COST_OF_A_HEDGE = 100;
+    private static final long MAX_BALANCE = MAX_BURST * COST_OF_A_HEDGE;
+
+    private final long depositPerLookup;
+    private final AtomicLong balance = new AtomicLong(MAX_BALANCE);
+
+    HedgeBudget(int maxHedgedPercent) {
+        this.depositPerLookup = maxHedgedPercent;
+    }
+
+    void lookupStarted() {
+        balance.accumulateAndGet(depositPerLookup, (current, deposit) -> Math.min(MAX_BALANCE, current + deposit));
+    }
+
+    boolean tryHedge() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < COST_OF_A_HEDGE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - COST_OF_A_HEDGE));
+        return true;
+    }
+}
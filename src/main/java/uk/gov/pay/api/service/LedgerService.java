@@ -3,6 +3,7 @@ package uk.gov.pay.api.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.pay.api.agreement.model.AgreementLedgerResponse;
+import uk.gov.pay.api.app.config.LedgerClient;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.exception.GetAgreementException;
 import uk.gov.pay.api.exception.GetChargeException;
@@ -35,6 +36,7 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 import static org.apache.http.HttpStatus.SC_OK;
@@ -55,7 +57,7 @@ public class LedgerService {
     private final LedgerUriGenerator ledgerUriGenerator;
 
     @Inject
-    public LedgerService(Client client, LedgerUriGenerator ledgerUriGenerator) {
+    public LedgerService(@LedgerClient Client client, LedgerUriGenerator ledgerUriGenerator) {
         this.client = client;
         this.ledgerUriGenerator = ledgerUriGenerator;
     }
@@ -74,6 +76,22 @@ public class LedgerService {
         throw new GetChargeException(response);
     }
 
+    public CompletionStage<Charge> getPaymentTransactionAsync(Account account, String paymentId) {
+        return client
+                .target(ledgerUriGenerator.transactionURI(account, paymentId, PAYMENT_TRANSACTION_TYPE))
+                .request()
+                .rx()
+                .get()
+                .thenApply(response -> {
+                    if (response.getStatus() == SC_OK) {
+                        TransactionResponse transactionResponse = response.readEntity(TransactionResponse.class);
+                        return Charge.from(transactionResponse);
+                    }
+
+                    throw new GetChargeException(response);
+                });
+    }
+
     public RefundTransactionFromLedger getRefundTransaction(Account account, String transactionId, String parentExternalId) {
         Response response = client
                 .target(ledgerUriGenerator.transactionURI(account, transactionId, REFUND_TRANSACTION_TYPE, parentExternalId))
@@ -160,10 +178,7 @@ public class LedgerService {
     }
 
     public PaymentSearchResponse<TransactionResponse> searchPayments(Account account, Map<String, String> paramsAsMap) {
-
-        paramsAsMap.put(PARAM_ACCOUNT_ID, account.accountId());
-        paramsAsMap.put(PARAM_TRANSACTION_TYPE, PAYMENT_TRANSACTION_TYPE);
-        paramsAsMap.put(PARAM_EXACT_REFERENCE_MATCH, "true");
+        addPaymentSearchParams(account, paramsAsMap);
 
         Response response = client
                 .target(ledgerUriGenerator.transactionsURIWithParams(paramsAsMap))
@@ -171,6 +186,28 @@ public class LedgerService {
                 .accept(MediaType.APPLICATION_JSON_TYPE)
                 .get();
 
+        return readPaymentSearchResponse(response);
+    }
+
+    public CompletionStage<PaymentSearchResponse<TransactionResponse>> searchPaymentsAsync(Account account, Map<String, String> paramsAsMap) {
+        addPaymentSearchParams(account, paramsAsMap);
+
+        return client
+                .target(ledgerUriGenerator.transactionsURIWithParams(paramsAsMap))
+                .request()
+                .accept(MediaType.APPLICATION_JSON_TYPE)
+                .rx()
+                .get()
+                .thenApply(this::readPaymentSearchResponse);
+    }
+
+    private void addPaymentSearchParams(Account account, Map<String, String> paramsAsMap) {
+        paramsAsMap.put(PARAM_ACCOUNT_ID, account.accountId());
+        paramsAsMap.put(PARAM_TRANSACTION_TYPE, PAYMENT_TRANSACTION_TYPE);
+        paramsAsMap.put(PARAM_EXACT_REFERENCE_MATCH, "true");
+    }
+
+    private PaymentSearchResponse<TransactionResponse> readPaymentSearchResponse(Response response) {
         if (response.getStatus() == SC_OK) {
             try {
                 return response.readEntity(new GenericType<>() {
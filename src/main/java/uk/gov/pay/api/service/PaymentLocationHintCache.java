@@ -0,0 +1,51 @@
+package uk.gov.pay.api.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import io.dropwizard.core.setup.Environment;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.utils.DropwizardCacheStatsCounter;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * Remembers payments that connector no longer has but ledger does, so that later requests for them can go straight
+ * to ledger instead of waiting for connector to say it does not have them first. Payments expunged from connector
+ * do not come back, so a hint only goes stale if ledger loses the payment as well.
+ * <p>
+ * Entries are keyed by account and payment ID, in a cache bounded and expired by the
+ * {@code paymentLocationHintCachePolicy} Caffeine spec. Lookups are published under
+ * {@code payment_location_hint_cache} (see {@link DropwizardCacheStatsCounter}).
+ */
+@Singleton
+public class PaymentLocationHintCache {
+
+    private final Cache<String, Boolean> paymentsInLedger;
+
+    @Inject
+    public PaymentLocationHintCache(PublicApiConfig configuration, Environment environment) {
+        this(configuration.getPaymentLocationHintCachePolicy(), environment.metrics());
+    }
+
+    public PaymentLocationHintCache(CaffeineSpec cachePolicy, MetricRegistry metricRegistry) {
+        this.paymentsInLedger = Caffeine.from(cachePolicy)
+                .recordStats(() -> new DropwizardCacheStatsCounter(metricRegistry, "payment_location_hint_cache"))
+                .build();
+    }
+
+    public boolean isOnlyInLedger(Account account, String paymentId) {
+        return paymentsInLedger.getIfPresent(key(account, paymentId)) != null;
+    }
+
+    public void rememberOnlyInLedger(Account account, String paymentId) {
+        paymentsInLedger.put(key(account, paymentId), Boolean.TRUE);
+    }
+
+    private static String key(Account account, String paymentId) {
+        return account.accountId() + ":" + paymentId;
+    }
+}
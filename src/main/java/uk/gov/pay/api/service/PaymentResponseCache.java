@@ -0,0 +1,102 @@
+package uk.gov.pay.api.service;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import io.dropwizard.core.setup.Environment;
+import org.apache.commons.codec.digest.DigestUtils;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+import uk.gov.pay.api.utils.DropwizardCacheStatsCounter;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.core.EntityTag;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+/**
+ * Renders payments to the JSON returned by {@code GET /v1/payments/{paymentId}}, with a strong ETag over the
+ * rendered bytes, and keeps the rendered responses of finished payments so that clients polling them can be
+ * answered without calling connector or ledger.
+ * <p>
+ * A finished payment only changes in its refund and settlement summaries, so entries are kept for the short
+ * time allowed by the {@code finishedPaymentCachePolicy} Caffeine spec, and removed from this node's cache
+ * straight away when a capture or refund for the payment goes through it. Lookups are published under
+ * {@code finished_payment_cache} (see {@link DropwizardCacheStatsCounter}), and responses that were or were
+ * not {@code 304 Not Modified} as the meters {@code get_payment.responses.not_modified} and
+ * {@code get_payment.responses.ok} and the gauge {@code get_payment.responses.not_modified_ratio}.
+ */
+@Singleton
+public class PaymentResponseCache {
+
+    public record RenderedPayment(PaymentWithAllLinks payment, byte[] json, EntityTag entityTag) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, RenderedPayment> finishedPayments;
+    private final Meter okResponses;
+    private final Meter notModifiedResponses;
+
+    @Inject
+    public PaymentResponseCache(PublicApiConfig configuration, ObjectMapper objectMapper, Environment environment) {
+        this(configuration.getFinishedPaymentCachePolicy(), objectMapper, environment.metrics());
+    }
+
+    public PaymentResponseCache(CaffeineSpec cachePolicy, ObjectMapper objectMapper, MetricRegistry metricRegistry) {
+        this.objectMapper = objectMapper;
+        this.finishedPayments = Caffeine.from(cachePolicy)
+                .recordStats(() -> new DropwizardCacheStatsCounter(metricRegistry, "finished_payment_cache"))
+                .build();
+        this.okResponses = metricRegistry.meter("get_payment.responses.ok");
+        this.notModifiedResponses = metricRegistry.meter("get_payment.responses.not_modified");
+        metricRegistry.gauge("get_payment.responses.not_modified_ratio", () -> new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(notModifiedResponses.getCount(), notModifiedResponses.getCount() + okResponses.getCount());
+            }
+        });
+    }
+
+    public Optional<RenderedPayment> getIfPresent(Account account, String paymentId) {
+        return Optional.ofNullable(finishedPayments.getIfPresent(key(account, paymentId)));
+    }
+
+    /**
+     * Renders the payment and, if it is finished, caches it under the given account and payment ID.
+     */
+    public RenderedPayment render(Account account, String paymentId, PaymentWithAllLinks payment) {
+        RenderedPayment renderedPayment = render(payment);
+        if (payment.getState() != null && payment.getState().isFinished()) {
+            finishedPayments.put(key(account, paymentId), renderedPayment);
+        }
+        return renderedPayment;
+    }
+
+    public RenderedPayment render(PaymentWithAllLinks payment) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(payment);
+            return new RenderedPayment(payment, json, new EntityTag(DigestUtils.sha256Hex(json)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void invalidate(Account account, String paymentId) {
+        finishedPayments.invalidate(key(account, paymentId));
+    }
+
+    public void recordResponse(boolean notModified) {
+        (notModified ? notModifiedResponses : okResponses).mark();
+    }
+
+    private static String key(Account account, String paymentId) {
+        return account.accountId() + ":" + paymentId;
+    }
+}
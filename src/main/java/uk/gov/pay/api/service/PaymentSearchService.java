@@ -10,6 +10,7 @@ import uk.gov.pay.api.model.search.card.PaymentSearchResponse;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 import static java.util.stream.Collectors.toList;
 import static org.apache.http.HttpHeaders.CACHE_CONTROL;
@@ -41,6 +42,13 @@ public class PaymentSearchService {
         return processLedgerResponse(paymentSearchResponse);
     }
 
+    public CompletionStage<Response> searchLedgerPaymentsAsync(Account account, PaymentSearchParams searchParams) {
+        validateSearchParameters(searchParams);
+
+        return ledgerService.searchPaymentsAsync(account, searchParams.getParamsAsMap())
+                .thenApply(this::processLedgerResponse);
+    }
+
     private Response processLedgerResponse(PaymentSearchResponse<TransactionResponse> paymentSearchResponse) {
         List<PaymentForSearchResult> chargeFromResponses = paymentSearchResponse.getPayments()
                 .stream()
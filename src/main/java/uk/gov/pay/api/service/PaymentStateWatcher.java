@@ -0,0 +1,151 @@
+package uk.gov.pay.api.service;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.core.setup.Environment;
+import uk.gov.pay.api.app.config.PaymentStateLongPollConfig;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.commons.lang3.StringUtils.equalsIgnoreCase;
+import static uk.gov.pay.api.utils.MdcPropagatingExecutorService.withMdc;
+
+/**
+ * Waits for a payment's status to change, so that services waiting for a payment to finish can make one request
+ * instead of polling. The payment is rechecked on a backoff schedule (see {@link PaymentStateLongPollConfig}) with
+ * {@link GetPaymentService#getPaymentAsync}, and no thread is held between checks; they are scheduled on a single
+ * {@code payment-state-long-poll} thread that only starts the next lookup.
+ * <p>
+ * Requests waiting are published as the gauge {@code payment_state_long_poll.waiting}, and how they ended as the
+ * meters {@code payment_state_long_poll.answered} (the status changed or the payment is finished),
+ * {@code payment_state_long_poll.timed_out} and {@code payment_state_long_poll.not_held}, the last for requests
+ * answered straight away because too many were already waiting.
+ */
+@Singleton
+public class PaymentStateWatcher {
+
+    private final GetPaymentService getPaymentService;
+    private final PaymentStateLongPollConfig config;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Meter answered;
+    private final Meter timedOut;
+    private final Meter notHeld;
+
+    @Inject
+    public PaymentStateWatcher(GetPaymentService getPaymentService, PublicApiConfig configuration, Environment environment) {
+        this(getPaymentService, configuration.getPaymentStateLongPollConfig(),
+                environment.lifecycle().scheduledExecutorService("payment-state-long-poll-%d").threads(1).build(),
+                environment.metrics());
+    }
+
+    public PaymentStateWatcher(GetPaymentService getPaymentService, PaymentStateLongPollConfig config,
+                               ScheduledExecutorService scheduler, MetricRegistry metricRegistry) {
+        this.getPaymentService = getPaymentService;
+        this.config = config;
+        this.scheduler = scheduler;
+        this.answered = metricRegistry.meter("payment_state_long_poll.answered");
+        this.timedOut = metricRegistry.meter("payment_state_long_poll.timed_out");
+        this.notHeld = metricRegistry.meter("payment_state_long_poll.not_held");
+        metricRegistry.gauge("payment_state_long_poll.waiting", () -> (Gauge<Integer>) waiting::get);
+    }
+
+    public Duration getMaxWait() {
+        return config.getMaxWait().toJavaDuration();
+    }
+
+    /**
+     * Completes with the payment as soon as its status is not {@code knownStatus}, or it is finished, or
+     * {@code wait} (capped at the configured maximum) has passed. Without a {@code knownStatus}, waits for
+     * the status to change from the one it has when first looked up.
+     */
+    public CompletionStage<PaymentWithAllLinks> waitForStateChange(Account account, String paymentId, String knownStatus, Duration wait) {
+        if (waiting.incrementAndGet() > config.getMaxWaiting()) {
+            waiting.decrementAndGet();
+            notHeld.mark();
+            return getPaymentService.getPaymentAsync(account, paymentId);
+        }
+        Duration cappedWait = wait.compareTo(getMaxWait()) > 0 ? getMaxWait() : wait;
+        var watch = new Watch(account, paymentId, knownStatus, System.nanoTime() + cappedWait.toNanos());
+        watch.check();
+        return watch.result.whenComplete((payment, throwable) -> waiting.decrementAndGet());
+    }
+
+    private class Watch {
+
+        private final Account account;
+        private final String paymentId;
+        private final long deadlineNanos;
+        private final CompletableFuture<PaymentWithAllLinks> result = new CompletableFuture<>();
+        private String knownStatus;
+        private long intervalNanos = config.getInitialInterval().toNanoseconds();
+
+        private Watch(Account account, String paymentId, String knownStatus, long deadlineNanos) {
+            this.account = account;
+            this.paymentId = paymentId;
+            this.knownStatus = knownStatus;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private void check() {
+            CompletionStage<PaymentWithAllLinks> lookup;
+            try {
+                lookup = getPaymentService.getPaymentAsync(account, paymentId);
+            } catch (RuntimeException e) {
+                // e.g. the client pool rejected the lookup; left uncaught, the request would never be answered
+                result.completeExceptionally(e);
+                return;
+            }
+            lookup.whenComplete((payment, throwable) -> {
+                if (throwable != null) {
+                    result.completeExceptionally(unwrap(throwable));
+                } else {
+                    onPayment(payment);
+                }
+            });
+        }
+
+        private void onPayment(PaymentWithAllLinks payment) {
+            String status = payment.getState() == null ? null : payment.getState().getStatus();
+            if (knownStatus == null) {
+                knownStatus = status;
+            }
+            if (!equalsIgnoreCase(status, knownStatus) || payment.getState() == null || payment.getState().isFinished()) {
+                answered.mark();
+                result.complete(payment);
+                return;
+            }
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                timedOut.mark();
+                result.complete(payment);
+                return;
+            }
+            try {
+                scheduler.schedule(withMdc(this::check), Math.min(intervalNanos, remainingNanos), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // shutting down, so answer with what we have rather than leave the request hanging
+                result.complete(payment);
+                return;
+            }
+            intervalNanos = Math.min(intervalNanos * 2, config.getMaxInterval().toNanoseconds());
+        }
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+}
@@ -0,0 +1,150 @@
+package uk.gov.pay.api.service;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.core.setup.Environment;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.PaymentsBatchConfig;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.GetChargeException;
+import uk.gov.pay.api.exception.PaymentValidationException;
+import uk.gov.pay.api.model.RetrievePaymentsBatchRequest;
+import uk.gov.pay.api.model.RetrievedPayment;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static jakarta.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
+import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
+import static uk.gov.pay.api.model.RequestError.Code.GET_PAYMENT_CONNECTOR_ERROR;
+import static uk.gov.pay.api.model.RequestError.Code.GET_PAYMENT_NOT_FOUND_ERROR;
+import static uk.gov.pay.api.model.RequestError.Code.RETRIEVE_PAYMENTS_BATCH_VALIDATION_ERROR;
+import static uk.gov.pay.api.model.RequestError.aRequestError;
+
+/**
+ * Gets a batch of payments, as {@link GetPaymentService#getPaymentAsync} would get each of them, with up to
+ * {@link PaymentsBatchConfig#getParallelism()} lookups in flight at once. The results are streamed as a JSON array
+ * in the order the IDs were given, each as soon as it and those before it are ready, so a failed lookup becomes
+ * an error in its own element instead of failing the batch. Batch sizes are published as the histogram
+ * {@code retrieve_payments_batch.size}.
+ */
+public class RetrievePaymentsBatchService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetrievePaymentsBatchService.class);
+
+    private final GetPaymentService getPaymentService;
+    private final ObjectMapper objectMapper;
+    private final PaymentsBatchConfig config;
+    private final Histogram batchSizes;
+
+    @Inject
+    public RetrievePaymentsBatchService(GetPaymentService getPaymentService, ObjectMapper objectMapper,
+                                        PublicApiConfig configuration, Environment environment) {
+        this(getPaymentService, objectMapper, configuration.getPaymentsBatchConfig(), environment.metrics());
+    }
+
+    public RetrievePaymentsBatchService(GetPaymentService getPaymentService, ObjectMapper objectMapper,
+                                        PaymentsBatchConfig config, MetricRegistry metricRegistry) {
+        this.getPaymentService = getPaymentService;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.batchSizes = metricRegistry.histogram("retrieve_payments_batch.size");
+    }
+
+    /**
+     * @return the payment IDs of the request
+     * @throws PaymentValidationException if there are none, too many or any are blank
+     */
+    public List<String> validate(RetrievePaymentsBatchRequest request) {
+        List<String> paymentIds = request == null ? null : request.getPaymentIds();
+        if (paymentIds == null || paymentIds.isEmpty() || paymentIds.size() > config.getMaxPaymentIds()) {
+            throw new PaymentValidationException(aRequestError("payment_ids", RETRIEVE_PAYMENTS_BATCH_VALIDATION_ERROR,
+                    String.format("Must contain between 1 and %d payment IDs", config.getMaxPaymentIds())));
+        }
+        if (paymentIds.stream().anyMatch(StringUtils::isBlank)) {
+            throw new PaymentValidationException(aRequestError("payment_ids", RETRIEVE_PAYMENTS_BATCH_VALIDATION_ERROR,
+                    "Payment IDs must not be blank"));
+        }
+        return paymentIds;
+    }
+
+    public StreamingOutput retrieve(Account account, List<String> paymentIds) {
+        batchSizes.update(paymentIds.size());
+        List<CompletableFuture<RetrievedPayment>> results = lookUp(account, paymentIds);
+        return output -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                for (CompletableFuture<RetrievedPayment> result : results) {
+                    generator.writeObject(result.join());
+                    generator.flush();
+                }
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    /**
+     * Starts the first lookups straight away and each of the rest when an earlier one completes.
+     */
+    List<CompletableFuture<RetrievedPayment>> lookUp(Account account, List<String> paymentIds) {
+        List<CompletableFuture<RetrievedPayment>> results = Stream.generate(CompletableFuture<RetrievedPayment>::new)
+                .limit(paymentIds.size())
+                .toList();
+        AtomicInteger next = new AtomicInteger();
+        for (int i = 0; i < Math.min(config.getParallelism(), paymentIds.size()); i++) {
+            lookUpNext(account, paymentIds, results, next);
+        }
+        return results;
+    }
+
+    private void lookUpNext(Account account, List<String> paymentIds, List<CompletableFuture<RetrievedPayment>> results,
+                            AtomicInteger next) {
+        int index = next.getAndIncrement();
+        if (index >= paymentIds.size()) {
+            return;
+        }
+        String paymentId = paymentIds.get(index);
+        lookUp(account, paymentId).whenComplete((result, throwable) -> {
+            // a null result would be written as null, so anything that went wrong turning the lookup into a result is an error too
+            results.get(index).complete(throwable == null ? result : failed(paymentId, unwrap(throwable)));
+            lookUpNext(account, paymentIds, results, next);
+        });
+    }
+
+    private CompletionStage<RetrievedPayment> lookUp(Account account, String paymentId) {
+        CompletionStage<PaymentWithAllLinks> payment;
+        try {
+            payment = getPaymentService.getPaymentAsync(account, paymentId);
+        } catch (RuntimeException e) {
+            payment = CompletableFuture.failedFuture(e);
+        }
+        return payment.handle((found, throwable) -> throwable == null
+                ? RetrievedPayment.found(paymentId, found)
+                : failed(paymentId, unwrap(throwable)));
+    }
+
+    private static RetrievedPayment failed(String paymentId, Throwable cause) {
+        if (cause instanceof GetChargeException e && e.getErrorStatus() == NOT_FOUND.getStatusCode()) {
+            return RetrievedPayment.failed(paymentId, NOT_FOUND.getStatusCode(), aRequestError(GET_PAYMENT_NOT_FOUND_ERROR));
+        }
+        LOGGER.error("Getting payment {} of a batch failed: {}", paymentId, cause.getMessage());
+        return RetrievedPayment.failed(paymentId, INTERNAL_SERVER_ERROR.getStatusCode(), aRequestError(GET_PAYMENT_CONNECTOR_ERROR));
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+}
@@ -0,0 +1,45 @@
+package uk.gov.pay.api.tasks;
+
+import io.dropwizard.servlets.tasks.Task;
+import uk.gov.pay.api.auth.RefreshingCachingAuthenticator;
+import uk.gov.pay.api.auth.SharedAuthenticationCache;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin task to stop an API key being served from the authentication caches, e.g. straight after it is revoked:
+ * {@code POST /tasks/evict-api-key?token_link=<token link>} on the admin port.
+ * <p>
+ * Evicts the key from this node's cache and, if the shared cache is enabled, from Redis and every other node.
+ */
+public class EvictApiKeyTask extends Task {
+
+    private static final String TOKEN_LINK_PARAMETER = "token_link";
+
+    private final RefreshingCachingAuthenticator cachingAuthenticator;
+    private final SharedAuthenticationCache sharedAuthenticationCache;
+
+    public EvictApiKeyTask(RefreshingCachingAuthenticator cachingAuthenticator, SharedAuthenticationCache sharedAuthenticationCache) {
+        super("evict-api-key");
+        this.cachingAuthenticator = cachingAuthenticator;
+        this.sharedAuthenticationCache = sharedAuthenticationCache;
+    }
+
+    @Override
+    public void execute(Map<String, List<String>> parameters, PrintWriter output) throws Exception {
+        List<String> tokenLinks = parameters.getOrDefault(TOKEN_LINK_PARAMETER, List.of());
+        if (tokenLinks.isEmpty()) {
+            throw new IllegalArgumentException("Missing " + TOKEN_LINK_PARAMETER + " parameter");
+        }
+        for (String tokenLink : tokenLinks) {
+            int evictedLocally = cachingAuthenticator.invalidateTokenLink(tokenLink);
+            output.printf("%s: %d evicted from local cache%n", tokenLink, evictedLocally);
+            if (sharedAuthenticationCache.isEnabled()) {
+                int evictedFromShared = sharedAuthenticationCache.evict(tokenLink);
+                output.printf("%s: %d evicted from shared cache%n", tokenLink, evictedFromShared);
+            }
+        }
+    }
+}
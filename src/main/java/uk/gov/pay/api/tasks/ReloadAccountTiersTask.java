@@ -0,0 +1,32 @@
+package uk.gov.pay.api.tasks;
+
+import io.dropwizard.servlets.tasks.Task;
+import uk.gov.pay.api.filter.ratelimit.AccountTiers;
+import uk.gov.pay.api.filter.ratelimit.AccountTiersProvider;
+
+import jakarta.inject.Inject;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin task to read the account tiers file again without a redeploy:
+ * {@code POST /tasks/reload-account-tiers} on the admin port.
+ */
+public class ReloadAccountTiersTask extends Task {
+
+    private final AccountTiersProvider accountTiersProvider;
+
+    @Inject
+    public ReloadAccountTiersTask(AccountTiersProvider accountTiersProvider) {
+        super("reload-account-tiers");
+        this.accountTiersProvider = accountTiersProvider;
+    }
+
+    @Override
+    public void execute(Map<String, List<String>> parameters, PrintWriter output) throws Exception {
+        AccountTiers accountTiers = accountTiersProvider.reload();
+        output.printf("%d elevated accounts, %d low traffic accounts%n",
+                accountTiers.getNumberOfElevatedAccounts(), accountTiers.getNumberOfLowTrafficAccounts());
+    }
+}
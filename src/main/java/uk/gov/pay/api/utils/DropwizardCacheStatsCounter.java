@@ -0,0 +1,75 @@
+package uk.gov.pay.api.utils;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the statistics of a Caffeine cache as Dropwizard metrics, so they are exported to Prometheus:
+ * <ul>
+ *     <li>meters {@code <prefix>.hits}, {@code <prefix>.misses} and {@code <prefix>.evictions}</li>
+ *     <li>timers {@code <prefix>.load_success} and {@code <prefix>.load_failure} for the time taken by loads</li>
+ *     <li>gauge {@code <prefix>.hit_ratio}</li>
+ * </ul>
+ * Use with {@code Caffeine.recordStats(() -> new DropwizardCacheStatsCounter(metricRegistry, prefix))}.
+ */
+public class DropwizardCacheStatsCounter implements StatsCounter {
+
+    private final Meter hits;
+    private final Meter misses;
+    private final Meter evictions;
+    private final Timer loadSuccess;
+    private final Timer loadFailure;
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder evictionWeight = new LongAdder();
+
+    public DropwizardCacheStatsCounter(MetricRegistry metricRegistry, String prefix) {
+        this.hits = metricRegistry.meter(prefix + ".hits");
+        this.misses = metricRegistry.meter(prefix + ".misses");
+        this.evictions = metricRegistry.meter(prefix + ".evictions");
+        this.loadSuccess = metricRegistry.timer(prefix + ".load_success");
+        this.loadFailure = metricRegistry.timer(prefix + ".load_failure");
+        metricRegistry.gauge(prefix + ".hit_ratio", () -> (Gauge<Double>) () -> snapshot().hitRate());
+    }
+
+    @Override
+    public void recordHits(int count) {
+        hits.mark(count);
+    }
+
+    @Override
+    public void recordMisses(int count) {
+        misses.mark(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(long loadTime) {
+        loadSuccess.update(loadTime, TimeUnit.NANOSECONDS);
+        totalLoadTime.add(loadTime);
+    }
+
+    @Override
+    public void recordLoadFailure(long loadTime) {
+        loadFailure.update(loadTime, TimeUnit.NANOSECONDS);
+        totalLoadTime.add(loadTime);
+    }
+
+    @Override
+    public void recordEviction(int weight, RemovalCause cause) {
+        evictions.mark();
+        evictionWeight.add(weight);
+    }
+
+    @Override
+    public CacheStats snapshot() {
+        return CacheStats.of(hits.getCount(), misses.getCount(), loadSuccess.getCount(), loadFailure.getCount(),
+                totalLoadTime.sum(), evictions.getCount(), evictionWeight.sum());
+    }
+}
@@ -0,0 +1,72 @@
+package uk.gov.pay.api.utils;
+
+import org.slf4j.MDC;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks with the MDC of the thread that submitted them, so that log lines written while making
+ * an asynchronous downstream call, or when its response arrives, still carry the request's
+ * logging context.
+ */
+public class MdcPropagatingExecutorService extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+
+    public MdcPropagatingExecutorService(ExecutorService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(withMdc(command));
+    }
+
+    /**
+     * Wraps a task to run with the MDC of the current thread, wherever it ends up running.
+     */
+    public static Runnable withMdc(Runnable command) {
+        Map<String, String> contextMap = MDC.getCopyOfContextMap();
+        return () -> {
+            if (contextMap == null) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(contextMap);
+            }
+            try {
+                command.run();
+            } finally {
+                MDC.clear();
+            }
+        };
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
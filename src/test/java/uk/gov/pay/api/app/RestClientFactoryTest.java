@@ -1,6 +1,8 @@
 package uk.gov.pay.api.app;
 
+import com.codahale.metrics.MetricRegistry;
 import org.junit.jupiter.api.Test;
+import uk.gov.pay.api.app.config.DownstreamClientConfig;
 import uk.gov.pay.api.app.config.RestClientConfig;
 
 import javax.net.ssl.SSLContext;
@@ -9,16 +11,13 @@ import jakarta.ws.rs.client.Client;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.core.IsNot.not;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
 public class RestClientFactoryTest {
 
     @Test
     public void jerseyClient_shouldUseSSLWhenSecureInternalCommunicationIsOn() {
         //given
-        RestClientConfig clientConfiguration = mock(RestClientConfig.class);
-        when(clientConfiguration.isDisabledSecureConnection()).thenReturn(false);
+        RestClientConfig clientConfiguration = new RestClientConfig(false);
 
         //when
         Client client = RestClientFactory.buildClient(clientConfiguration);
@@ -32,8 +31,7 @@ public class RestClientFactoryTest {
     @Test
     public void jerseyClient_shouldNotUseSSLWhenSecureInternalCommunicationIsOff() {
         //given
-        RestClientConfig clientConfiguration = mock(RestClientConfig.class);
-        when(clientConfiguration.isDisabledSecureConnection()).thenReturn(true);
+        RestClientConfig clientConfiguration = new RestClientConfig(true);
 
         //when
         Client client = RestClientFactory.buildClient(clientConfiguration);
@@ -41,4 +39,20 @@ public class RestClientFactoryTest {
         //then
         assertThat(client.getSslContext().getProtocol(), is(not("TLSv1.2")));
     }
+
+    @Test
+    public void jerseyClient_shouldHaveSeparateConnectionPoolPerDownstreamService() {
+        //given
+        RestClientConfig clientConfiguration = new RestClientConfig(true);
+        MetricRegistry metricRegistry = new MetricRegistry();
+
+        //when
+        RestClientFactory.buildClient("connector", clientConfiguration, new DownstreamClientConfig(20, 1), null, metricRegistry);
+        RestClientFactory.buildClient("ledger", clientConfiguration, new DownstreamClientConfig(5, 1), null, metricRegistry);
+
+        //then
+        assertThat(metricRegistry.getGauges().get("http_client.connector.pool.max").getValue(), is(20));
+        assertThat(metricRegistry.getGauges().get("http_client.ledger.pool.max").getValue(), is(5));
+        assertThat(metricRegistry.getMeters().get("http_client.ledger.pool.rejected").getCount(), is(0L));
+    }
 }
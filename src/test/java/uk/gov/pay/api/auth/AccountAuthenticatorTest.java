@@ -5,6 +5,7 @@ import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEvent;
 import ch.qos.logback.core.Appender;
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
@@ -48,6 +49,7 @@ public class AccountAuthenticatorTest {
 
     private AccountAuthenticator accountAuthenticator;
     private ObjectMapper objectMapper = new ObjectMapper();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
 
     private final String bearerToken = "aaa";
     private final String accountId = "accountId";
@@ -80,7 +82,7 @@ public class AccountAuthenticatorTest {
         logger.addAppender(mockAppender);
         
         when(mockConfiguration.getPublicAuthUrl()).thenReturn("/v1/api/auth");
-        accountAuthenticator = new AccountAuthenticator(publicAuthMock, mockConfiguration);
+        accountAuthenticator = new AccountAuthenticator(publicAuthMock, mockConfiguration, metricRegistry);
         when(publicAuthMock.target("/v1/api/auth")).thenReturn(mockTarget);
         when(mockTarget.request()).thenReturn(mockRequest);
         when(mockRequest.header(AUTHORIZATION, "Bearer " + bearerToken)).thenReturn(mockRequest);
@@ -102,6 +104,7 @@ public class AccountAuthenticatorTest {
         List<LoggingEvent> logEvents = loggingEventArgumentCaptor.getAllValues();
         assertThat(logEvents, hasSize(1));
         assertThat(logEvents.get(0).getFormattedMessage(), is("Successfully authenticated using API key with token_link a-token-link"));
+        assertThat(metricRegistry.timer("authenticator.public_auth.response_time.ok").getCount(), is(1L));
     }
 
     @Test
@@ -120,6 +123,7 @@ public class AccountAuthenticatorTest {
         List<LoggingEvent> logEvents = loggingEventArgumentCaptor.getAllValues();
         assertThat(logEvents, hasSize(1));
         assertThat(logEvents.get(0).getFormattedMessage(), is("Attempt to authenticate using revoked API key with token_link a-token-link"));
+        assertThat(metricRegistry.timer("authenticator.public_auth.response_time.unauthorized").getCount(), is(1L));
     }
 
     @Test
@@ -143,5 +147,6 @@ public class AccountAuthenticatorTest {
     public void shouldThrow_ifUnknownResponse() {
         when(mockResponse.getStatus()).thenReturn(NOT_FOUND.getStatusCode());
         assertThrows(ServiceUnavailableException.class, () -> accountAuthenticator.authenticate(bearerToken));
+        assertThat(metricRegistry.timer("authenticator.public_auth.response_time.other").getCount(), is(1L));
     }
 }
@@ -0,0 +1,119 @@
+package uk.gov.pay.api.auth;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.auth.Authenticator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jakarta.ws.rs.ServiceUnavailableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingAuthenticatorTest {
+
+    private static final int CONCURRENT_REQUESTS = 10;
+
+    @Mock
+    private Authenticator<String, Account> accountAuthenticator;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final Account account = new Account("123", CARD, "token-link");
+    private final CountDownLatch lookupStarted = new CountDownLatch(1);
+    private final CountDownLatch finishLookup = new CountDownLatch(1);
+
+    private CoalescingAuthenticator coalescingAuthenticator;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        coalescingAuthenticator = new CoalescingAuthenticator(accountAuthenticator, metricRegistry);
+        executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldShareOneLookupBetweenConcurrentRequestsForTheSameToken() throws Exception {
+        when(accountAuthenticator.authenticate("token")).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            finishLookup.await();
+            return Optional.of(account);
+        });
+
+        List<Future<Optional<Account>>> results = authenticateConcurrently("token");
+
+        for (Future<Optional<Account>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS), is(Optional.of(account)));
+        }
+        verify(accountAuthenticator, times(1)).authenticate("token");
+        assertThat(metricRegistry.meter("authenticator.coalesced").getCount(), is((long) CONCURRENT_REQUESTS - 1));
+        assertThat(metricRegistry.getGauges().get("authenticator.in_flight").getValue(), is(0));
+    }
+
+    @Test
+    void shouldPassFailureOfSharedLookupToEveryWaitingRequest() throws Exception {
+        when(accountAuthenticator.authenticate("token")).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            finishLookup.await();
+            throw new ServiceUnavailableException();
+        });
+
+        List<Future<Optional<Account>>> results = authenticateConcurrently("token");
+
+        for (Future<Optional<Account>> result : results) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertThat(exception.getCause(), is(instanceOf(ServiceUnavailableException.class)));
+        }
+        verify(accountAuthenticator, times(1)).authenticate("token");
+    }
+
+    @Test
+    void shouldLookUpTokenAgain_onceThePreviousLookupHasFinished() throws Exception {
+        when(accountAuthenticator.authenticate("token")).thenReturn(Optional.of(account));
+
+        coalescingAuthenticator.authenticate("token");
+        coalescingAuthenticator.authenticate("token");
+
+        verify(accountAuthenticator, times(2)).authenticate("token");
+        assertThat(metricRegistry.meter("authenticator.coalesced").getCount(), is(0L));
+    }
+
+    private List<Future<Optional<Account>>> authenticateConcurrently(String bearerToken) throws InterruptedException {
+        List<Future<Optional<Account>>> results = new ArrayList<>();
+        results.add(executor.submit(() -> coalescingAuthenticator.authenticate(bearerToken)));
+        assertThat(lookupStarted.await(5, TimeUnit.SECONDS), is(true));
+
+        for (int i = 1; i < CONCURRENT_REQUESTS; i++) {
+            results.add(executor.submit(() -> coalescingAuthenticator.authenticate(bearerToken)));
+        }
+        while (metricRegistry.meter("authenticator.coalesced").getCount() < CONCURRENT_REQUESTS - 1) {
+            Thread.sleep(10);
+        }
+        finishLookup.countDown();
+        return results;
+    }
+}
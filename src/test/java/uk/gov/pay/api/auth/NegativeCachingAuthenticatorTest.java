@@ -0,0 +1,61 @@
+package uk.gov.pay.api.auth;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import io.dropwizard.auth.Authenticator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+@ExtendWith(MockitoExtension.class)
+class NegativeCachingAuthenticatorTest {
+
+    @Mock
+    private Authenticator<String, Account> accountAuthenticator;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    private NegativeCachingAuthenticator negativeCachingAuthenticator;
+
+    @BeforeEach
+    void setUp() {
+        negativeCachingAuthenticator = new NegativeCachingAuthenticator(accountAuthenticator,
+                CaffeineSpec.parse("expireAfterWrite=1m,maximumSize=100"), metricRegistry);
+    }
+
+    @Test
+    void shouldRejectApiKeyWithoutCallingPublicAuth_onceItHasBeenRejected() throws Exception {
+        when(accountAuthenticator.authenticate("revoked-token")).thenReturn(Optional.empty());
+
+        assertThat(negativeCachingAuthenticator.authenticate("revoked-token"), is(Optional.empty()));
+        assertThat(negativeCachingAuthenticator.authenticate("revoked-token"), is(Optional.empty()));
+        assertThat(negativeCachingAuthenticator.authenticate("revoked-token"), is(Optional.empty()));
+
+        verify(accountAuthenticator, times(1)).authenticate("revoked-token");
+        assertThat(metricRegistry.meter("authenticator.rejected_api_key_cache.hits").getCount(), is(2L));
+        assertThat(metricRegistry.getGauges().get("authenticator.rejected_api_key_cache.hit_ratio").getValue(), is(2.0 / 3));
+    }
+
+    @Test
+    void shouldNotRememberAuthenticatedApiKeys() throws Exception {
+        Account account = new Account("123", CARD, "token-link");
+        when(accountAuthenticator.authenticate("valid-token")).thenReturn(Optional.of(account));
+
+        assertThat(negativeCachingAuthenticator.authenticate("valid-token"), is(Optional.of(account)));
+        assertThat(negativeCachingAuthenticator.authenticate("valid-token"), is(Optional.of(account)));
+
+        verify(accountAuthenticator, times(2)).authenticate("valid-token");
+        assertThat(metricRegistry.meter("authenticator.rejected_api_key_cache.hits").getCount(), is(0L));
+    }
+}
@@ -0,0 +1,161 @@
+package uk.gov.pay.api.auth;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import io.dropwizard.auth.Authenticator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jakarta.ws.rs.ServiceUnavailableException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshingCachingAuthenticatorTest {
+
+    private static final String BEARER_TOKEN = "token";
+
+    @Mock
+    private Authenticator<String, Account> accountAuthenticator;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final Account account = new Account("123", CARD, "token-link");
+
+    private RefreshingCachingAuthenticator cachingAuthenticator;
+
+    @BeforeEach
+    void setUp() {
+        cachingAuthenticator = new RefreshingCachingAuthenticator(accountAuthenticator,
+                CaffeineSpec.parse("refreshAfterWrite=1m,expireAfterWrite=5m"), Runnable::run, metricRegistry, nanoTime::get);
+    }
+
+    @Test
+    void shouldCacheAuthenticatedAccount() throws Exception {
+        when(accountAuthenticator.authenticate(BEARER_TOKEN)).thenReturn(Optional.of(account));
+
+        assertThat(cachingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.of(account)));
+        assertThat(cachingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.of(account)));
+
+        verify(accountAuthenticator, times(1)).authenticate(BEARER_TOKEN);
+        assertThat(metricRegistry.meter("authenticator.cache.hits").getCount(), is(1L));
+        assertThat(metricRegistry.meter("authenticator.cache.misses").getCount(), is(1L));
+        assertThat(metricRegistry.timer("authenticator.cache.load_success").getCount(), is(1L));
+        assertThat(metricRegistry.getGauges().get("authenticator.cache.hit_ratio").getValue(), is(0.5));
+    }
+
+    @Test
+    void shouldNotCacheRejectedToken() throws Exception {
+        when(accountAuthenticator.authenticate(BEARER_TOKEN)).thenReturn(Optional.empty());
+
+        assertThat(cachingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.empty()));
+        assertThat(cachingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.empty()));
+
+        verify(accountAuthenticator, times(2)).authenticate(BEARER_TOKEN);
+    }
+
+    @Test
+    void shouldServeCachedAccount_whenRefreshFailsWithinGracePeriod() throws Exception {
+        when(accountAuthenticator.authenticate(BEARER_TOKEN))
+                .thenReturn(Optional.of(account))
+                .thenThrow(new ServiceUnavailableException());
+        cachingAuthenticator.authenticate(BEARER_TOKEN);
+
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        assertThat(cachingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.of(account)));
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        assertThat(cachingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.of(account)));
+
+        verify(accountAuthenticator, times(3)).authenticate(BEARER_TOKEN);
+    }
+
+    @Test
+    void shouldFail_whenPublicAuthIsUnavailableAfterGracePeriod() throws Exception {
+        when(accountAuthenticator.authenticate(BEARER_TOKEN))
+                .thenReturn(Optional.of(account))
+                .thenThrow(new ServiceUnavailableException());
+        cachingAuthenticator.authenticate(BEARER_TOKEN);
+
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(6));
+
+        assertThrows(ServiceUnavailableException.class, () -> cachingAuthenticator.authenticate(BEARER_TOKEN));
+    }
+
+    @Test
+    void shouldStopServingCachedAccount_onceRefreshFindsTokenIsRevoked() throws Exception {
+        when(accountAuthenticator.authenticate(BEARER_TOKEN))
+                .thenReturn(Optional.of(account))
+                .thenReturn(Optional.empty());
+        cachingAuthenticator.authenticate(BEARER_TOKEN);
+
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        // served while the refresh runs, which finds the token has been revoked
+        assertThat(cachingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.of(account)));
+
+        assertThat(cachingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.empty()));
+    }
+
+    @Test
+    void shouldEvictEveryEntryForTokenLink() throws Exception {
+        Account otherAccount = new Account("456", CARD, "other-token-link");
+        when(accountAuthenticator.authenticate(BEARER_TOKEN)).thenReturn(Optional.of(account));
+        when(accountAuthenticator.authenticate("other-token")).thenReturn(Optional.of(otherAccount));
+        cachingAuthenticator.authenticate(BEARER_TOKEN);
+        cachingAuthenticator.authenticate("other-token");
+
+        assertThat(cachingAuthenticator.invalidateTokenLink("token-link"), is(1));
+
+        cachingAuthenticator.authenticate(BEARER_TOKEN);
+        cachingAuthenticator.authenticate("other-token");
+        verify(accountAuthenticator, times(2)).authenticate(BEARER_TOKEN);
+        verify(accountAuthenticator, times(1)).authenticate("other-token");
+    }
+
+    @Test
+    void shouldLoadWithLoaderAndRefreshWithRefresher() throws Exception {
+        @SuppressWarnings("unchecked")
+        Authenticator<String, Account> refresher = mock(Authenticator.class);
+        Account refreshedAccount = new Account("123", CARD, "refreshed-token-link");
+        cachingAuthenticator = new RefreshingCachingAuthenticator(accountAuthenticator, refresher,
+                CaffeineSpec.parse("refreshAfterWrite=1m,expireAfterWrite=5m"), Runnable::run, metricRegistry, nanoTime::get);
+        when(accountAuthenticator.authenticate(BEARER_TOKEN)).thenReturn(Optional.of(account));
+        when(refresher.authenticate(BEARER_TOKEN)).thenReturn(Optional.of(refreshedAccount));
+        cachingAuthenticator.authenticate(BEARER_TOKEN);
+
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        cachingAuthenticator.authenticate(BEARER_TOKEN);
+
+        assertThat(cachingAuthenticator.authenticate(BEARER_TOKEN), is(Optional.of(refreshedAccount)));
+        verify(accountAuthenticator, times(1)).authenticate(BEARER_TOKEN);
+        verify(refresher, times(1)).authenticate(BEARER_TOKEN);
+    }
+
+    @Test
+    void shouldNotConsultTheRejectedApiKeyCache_forCachedAccounts() throws Exception {
+        var negativeCachingAuthenticator = new NegativeCachingAuthenticator(accountAuthenticator,
+                CaffeineSpec.parse("expireAfterWrite=1m,maximumSize=100"), metricRegistry);
+        cachingAuthenticator = new RefreshingCachingAuthenticator(negativeCachingAuthenticator, accountAuthenticator,
+                CaffeineSpec.parse("refreshAfterWrite=1m,expireAfterWrite=5m"), Runnable::run, metricRegistry, nanoTime::get);
+        when(accountAuthenticator.authenticate(BEARER_TOKEN)).thenReturn(Optional.of(account));
+
+        cachingAuthenticator.authenticate(BEARER_TOKEN);
+        cachingAuthenticator.authenticate(BEARER_TOKEN);
+        cachingAuthenticator.authenticate(BEARER_TOKEN);
+
+        assertThat(metricRegistry.meter("authenticator.rejected_api_key_cache.misses").getCount(), is(1L));
+        assertThat(metricRegistry.meter("authenticator.cache.hits").getCount(), is(2L));
+    }
+}
@@ -0,0 +1,100 @@
+package uk.gov.pay.api.auth;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.util.Duration;
+import io.lettuce.core.RedisConnectionException;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.lettuce.core.pubsub.api.sync.RedisPubSubCommands;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.SharedAuthenticationCacheConfig;
+import uk.gov.pay.api.filter.ratelimit.RedisCircuitBreaker;
+import uk.gov.pay.api.managed.RedisClientManager;
+
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+@ExtendWith(MockitoExtension.class)
+class SharedAuthenticationCacheTest {
+
+    @Mock
+    private RedisClientManager redisClientManager;
+
+    @Mock
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Mock
+    private ScheduledExecutorService subscriber;
+
+    @Mock
+    private StatefulRedisPubSubConnection<String, String> pubSubConnection;
+
+    @Mock
+    private RedisPubSubCommands<String, String> pubSubCommands;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    private final SharedAuthenticationCacheConfig config =
+            new SharedAuthenticationCacheConfig(true, Duration.minutes(5), Duration.seconds(30));
+
+    @Test
+    void shouldSkipRedis_whenTheCircuitBreakerIsOpen() {
+        when(redisCircuitBreaker.allowRequest()).thenReturn(false);
+        SharedAuthenticationCache cache = sharedAuthenticationCache();
+
+        assertThat(cache.get("token"), is(Optional.empty()));
+        cache.put("token", new Account("123", CARD, "token-link"));
+
+        verifyNoInteractions(redisClientManager);
+        assertThat(metricRegistry.meter("authenticator.shared_cache.skipped").getCount(), is(2L));
+    }
+
+    @Test
+    void shouldRecordAFailureWithTheCircuitBreaker_whenRedisIsUnavailable() {
+        when(redisCircuitBreaker.allowRequest()).thenReturn(true);
+        when(redisClientManager.getRedisConnection()).thenThrow(new RedisConnectionException("Connection refused"));
+
+        assertThat(sharedAuthenticationCache().get("token"), is(Optional.empty()));
+
+        verify(redisCircuitBreaker).recordFailure();
+        assertThat(metricRegistry.meter("authenticator.shared_cache.errors").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldRetrySubscribingToInvalidations_whenItFailsOnStart() {
+        when(redisClientManager.connectPubSub())
+                .thenThrow(new RedisConnectionException("Connection refused"))
+                .thenReturn(pubSubConnection);
+        when(pubSubConnection.sync()).thenReturn(pubSubCommands);
+        SharedAuthenticationCache cache = sharedAuthenticationCache();
+
+        cache.start();
+
+        assertThat(cache.isSubscribed(), is(false));
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+        verify(subscriber).schedule(retry.capture(), anyLong(), any(TimeUnit.class));
+        retry.getValue().run();
+
+        assertThat(cache.isSubscribed(), is(true));
+        verify(pubSubCommands).subscribe(SharedAuthenticationCache.INVALIDATION_CHANNEL);
+    }
+
+    private SharedAuthenticationCache sharedAuthenticationCache() {
+        return new SharedAuthenticationCache(config, redisClientManager, redisCircuitBreaker, new ObjectMapper(),
+                subscriber, metricRegistry);
+    }
+}
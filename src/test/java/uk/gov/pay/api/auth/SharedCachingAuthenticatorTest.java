@@ -0,0 +1,88 @@
+package uk.gov.pay.api.auth;
+
+import io.dropwizard.auth.Authenticator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+@ExtendWith(MockitoExtension.class)
+class SharedCachingAuthenticatorTest {
+
+    @Mock
+    private Authenticator<String, Account> accountAuthenticator;
+
+    @Mock
+    private SharedAuthenticationCache sharedAuthenticationCache;
+
+    private final Account account = new Account("123", CARD, "token-link");
+
+    private SharedCachingAuthenticator sharedCachingAuthenticator;
+
+    @BeforeEach
+    void setUp() {
+        sharedCachingAuthenticator = new SharedCachingAuthenticator(accountAuthenticator, sharedAuthenticationCache);
+    }
+
+    @Test
+    void shouldUseAccountFromSharedCache() throws Exception {
+        when(sharedAuthenticationCache.get("token")).thenReturn(Optional.of(account));
+
+        assertThat(sharedCachingAuthenticator.authenticate("token"), is(Optional.of(account)));
+
+        verifyNoInteractions(accountAuthenticator);
+    }
+
+    @Test
+    void shouldShareAccountAuthenticatedByPublicAuth() throws Exception {
+        when(sharedAuthenticationCache.get("token")).thenReturn(Optional.empty());
+        when(accountAuthenticator.authenticate("token")).thenReturn(Optional.of(account));
+
+        assertThat(sharedCachingAuthenticator.authenticate("token"), is(Optional.of(account)));
+
+        verify(sharedAuthenticationCache).put("token", account);
+    }
+
+    @Test
+    void shouldNotShareRejectedApiKeys() throws Exception {
+        when(sharedAuthenticationCache.get("token")).thenReturn(Optional.empty());
+        when(accountAuthenticator.authenticate("token")).thenReturn(Optional.empty());
+
+        assertThat(sharedCachingAuthenticator.authenticate("token"), is(Optional.empty()));
+
+        verify(sharedAuthenticationCache, never()).put(anyString(), any(Account.class));
+    }
+
+    @Test
+    void shouldGoToPublicAuthAndShareAccount_whenBypassingSharedCache() throws Exception {
+        when(accountAuthenticator.authenticate("token")).thenReturn(Optional.of(account));
+
+        assertThat(sharedCachingAuthenticator.bypassingSharedCache().authenticate("token"), is(Optional.of(account)));
+
+        verify(sharedAuthenticationCache, never()).get(anyString());
+        verify(sharedAuthenticationCache).put("token", account);
+    }
+
+    @Test
+    void shouldRemoveRevokedApiKeyFromSharedCache_whenBypassingSharedCache() throws Exception {
+        when(accountAuthenticator.authenticate("token")).thenReturn(Optional.empty());
+
+        assertThat(sharedCachingAuthenticator.bypassingSharedCache().authenticate("token"), is(Optional.empty()));
+
+        verify(sharedAuthenticationCache).remove("token");
+        verify(sharedAuthenticationCache, never()).put(anyString(), any(Account.class));
+    }
+}
@@ -0,0 +1,25 @@
+package uk.gov.pay.api.exception.mapper;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.api.resources.error.ApiErrorResponse;
+
+import jakarta.ws.rs.core.Response;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class RejectedExecutionExceptionMapperTest {
+
+    private final RejectedExecutionExceptionMapper mapper = new RejectedExecutionExceptionMapper();
+
+    @Test
+    void shouldReturnServiceUnavailable_whenADownstreamCallIsRejected() {
+        Response response = mapper.toResponse(new RejectedExecutionException("Client pool is full"));
+
+        assertThat(response.getStatus(), is(503));
+        ApiErrorResponse error = (ApiErrorResponse) response.getEntity();
+        assertThat(error.getCode(), is("P0900"));
+        assertThat(error.getDescription(), is("Too many requests"));
+    }
+}
@@ -0,0 +1,72 @@
+package uk.gov.pay.api.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static uk.gov.pay.api.utils.ApiKeyGenerator.apiKeyValueOf;
+
+class ApiKeyChecksumVerifierTest {
+
+    private static final String SECRET_KEY = "mysupersecret";
+
+    private final ApiKeyChecksumVerifier verifier = new ApiKeyChecksumVerifier(SECRET_KEY);
+
+    @Test
+    void shouldAcceptApiKeyWithValidChecksum() {
+        assertThat(verifier.isValid(apiKeyValueOf("asdfghdasd", SECRET_KEY)), is(true));
+        assertThat(verifier.isValid(apiKeyValueOf("another-token-that-is-longer-than-the-initial-buffer-of-64-characters", SECRET_KEY)), is(true));
+    }
+
+    @Test
+    void shouldAcceptApiKeyStartingPartWayThroughValue() {
+        assertThat(verifier.isValid("Bearer " + apiKeyValueOf("asdfghdasd", SECRET_KEY), "Bearer ".length()), is(true));
+    }
+
+    @Test
+    void shouldAcceptApiKeyWithNonAsciiToken() {
+        assertThat(verifier.isValid(apiKeyValueOf("tøken", SECRET_KEY)), is(true));
+    }
+
+    @Test
+    void shouldRejectApiKeyWithChecksumForDifferentSecret() {
+        assertThat(verifier.isValid(apiKeyValueOf("asdfghdasd", "anothersecret")), is(false));
+    }
+
+    @Test
+    void shouldRejectApiKeyWithChecksumForDifferentToken() {
+        String apiKey = apiKeyValueOf("asdfghdasd", SECRET_KEY);
+        assertThat(verifier.isValid("x" + apiKey.substring(1)), is(false));
+    }
+
+    @Test
+    void shouldRejectApiKeyWithUpperCaseChecksum() {
+        String apiKey = apiKeyValueOf("asdfghdasd", SECRET_KEY);
+        String token = apiKey.substring(0, apiKey.length() - ApiKeyChecksumVerifier.CHECKSUM_LENGTH);
+        String checksum = apiKey.substring(token.length());
+        assertThat(verifier.isValid(token + checksum.toUpperCase()), is(false));
+    }
+
+    @Test
+    void shouldRejectApiKeyWithCharactersThatAreNotBase32HexInChecksum() {
+        assertThat(verifier.isValid("asdfghdasdakjshdkjwhdjweghrhjgwerguweurweruhiweuiweriuui"), is(false));
+    }
+
+    @Test
+    void shouldRejectApiKeyWithNoToken() {
+        String apiKey = apiKeyValueOf("asdfghdasd", SECRET_KEY);
+        assertThat(verifier.isValid(apiKey.substring(apiKey.length() - ApiKeyChecksumVerifier.CHECKSUM_LENGTH)), is(false));
+    }
+
+    @Test
+    void shouldCheckApiKeysOnVirtualThreads() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            assertThat(executor.submit(() -> verifier.isValid(apiKeyValueOf("asdfghdasd", SECRET_KEY))).get(), is(true));
+            assertThat(executor.submit(() -> verifier.isValid(apiKeyValueOf("asdfghdasd", "anothersecret"))).get(), is(false));
+            assertThat(executor.submit(() -> verifier.isValid(apiKeyValueOf("qwertyuiop", SECRET_KEY))).get(), is(true));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package uk.gov.pay.api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.RateLimiterConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.filter.concurrencylimit.ConcurrencyLimiter;
+import uk.gov.pay.api.filter.concurrencylimit.ConcurrencyLimiter.Permit;
+import uk.gov.pay.api.filter.ratelimit.RouteClassTable;
+import uk.gov.pay.api.model.TokenPaymentType;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.UriInfo;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimiterFilterTest {
+
+    private static final String ACCOUNT_ID = "account-id";
+
+    @Mock
+    private ConcurrencyLimiter concurrencyLimiter;
+    @Mock
+    private ContainerRequestContext requestContext;
+    @Mock
+    private UriInfo uriInfo;
+    @Mock
+    private SecurityContext securityContext;
+
+    private ConcurrencyLimiterFilter concurrencyLimiterFilter;
+
+    @BeforeEach
+    void setUp() {
+        concurrencyLimiterFilter = new ConcurrencyLimiterFilter(concurrencyLimiter,
+                new RouteClassTable(new RateLimiterConfig().getRouteClasses()), new ObjectMapper());
+        when(concurrencyLimiter.isEnabled()).thenReturn(true);
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+    }
+
+    @Test
+    void shouldTakePermitForAccountAndRouteClass() {
+        givenRequest("GET", "v1/payments");
+        Permit permit = mock(Permit.class);
+        when(concurrencyLimiter.tryAcquire(ACCOUNT_ID, "search_payments")).thenReturn(Optional.of(permit));
+
+        concurrencyLimiterFilter.filter(requestContext);
+
+        verify(requestContext).setProperty(ConcurrencyLimiterFilter.PERMIT_PROPERTY, permit);
+    }
+
+    @Test
+    void shouldUseMethod_whenRequestIsNotInARouteClass() {
+        givenRequest("GET", "v1/payments/payment-id");
+        when(concurrencyLimiter.tryAcquire(ACCOUNT_ID, "GET")).thenReturn(Optional.of(mock(Permit.class)));
+
+        concurrencyLimiterFilter.filter(requestContext);
+
+        verify(concurrencyLimiter).tryAcquire(ACCOUNT_ID, "GET");
+    }
+
+    @Test
+    void shouldSendErrorResponse_whenConcurrencyLimitReached() {
+        givenRequest("GET", "v1/payments");
+        when(concurrencyLimiter.tryAcquire(ACCOUNT_ID, "search_payments")).thenReturn(Optional.empty());
+
+        WebApplicationException webApplicationException = assertThrows(WebApplicationException.class,
+                () -> concurrencyLimiterFilter.filter(requestContext));
+
+        Response response = webApplicationException.getResponse();
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeaderString("Retry-After"));
+        assertEquals("{\"code\":\"P0900\",\"description\":\"Too many requests\"}", response.getEntity());
+    }
+
+    @Test
+    void shouldNotLimitPaymentStateLongPolls() {
+        givenRequest("GET", "v1/payments/payment-id", new MultivaluedHashMap<>(Map.of("wait_for_state_change", "20")));
+
+        concurrencyLimiterFilter.filter(requestContext);
+
+        verify(concurrencyLimiter, never()).tryAcquire(anyString(), anyString());
+        verify(requestContext, never()).setProperty(anyString(), any());
+    }
+
+    @Test
+    void shouldLimitOtherRequestsWithAWaitForStateChangeParameter() {
+        givenRequest("GET", "v1/payments", new MultivaluedHashMap<>(Map.of("wait_for_state_change", "20")));
+        when(concurrencyLimiter.tryAcquire(ACCOUNT_ID, "search_payments")).thenReturn(Optional.of(mock(Permit.class)));
+
+        concurrencyLimiterFilter.filter(requestContext);
+
+        verify(concurrencyLimiter).tryAcquire(ACCOUNT_ID, "search_payments");
+    }
+
+    @Test
+    void shouldNotLimitHealthcheck() {
+        when(uriInfo.getPath()).thenReturn("healthcheck");
+
+        concurrencyLimiterFilter.filter(requestContext);
+
+        verify(concurrencyLimiter, never()).tryAcquire(anyString(), anyString());
+        verify(requestContext, never()).setProperty(anyString(), any());
+    }
+
+    private void givenRequest(String method, String path) {
+        givenRequest(method, path, new MultivaluedHashMap<>());
+    }
+
+    private void givenRequest(String method, String path, MultivaluedMap<String, String> queryParameters) {
+        when(uriInfo.getPath()).thenReturn(path);
+        lenient().when(uriInfo.getQueryParameters()).thenReturn(queryParameters);
+        when(requestContext.getMethod()).thenReturn(method);
+        when(requestContext.getSecurityContext()).thenReturn(securityContext);
+        when(securityContext.getUserPrincipal()).thenReturn(new Account(ACCOUNT_ID, TokenPaymentType.CARD, "some-token-link"));
+    }
+}
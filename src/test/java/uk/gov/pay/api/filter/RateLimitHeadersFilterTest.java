@@ -0,0 +1,66 @@
+package uk.gov.pay.api.filter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.filter.ratelimit.RateLimitStatus;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitHeadersFilterTest {
+
+    @Mock
+    private ContainerRequestContext requestContext;
+
+    @Mock
+    private ContainerResponseContext responseContext;
+
+    private final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+
+    private final RateLimitHeadersFilter rateLimitHeadersFilter = new RateLimitHeadersFilter();
+
+    @Test
+    void shouldAddRateLimitHeaders() {
+        when(requestContext.getProperty(RateLimitHeadersFilter.RATE_LIMIT_STATUS_PROPERTY)).thenReturn(new RateLimitStatus(15, 4, 1));
+        when(responseContext.getHeaders()).thenReturn(headers);
+        when(responseContext.getStatus()).thenReturn(200);
+
+        rateLimitHeadersFilter.filter(requestContext, responseContext);
+
+        assertThat(headers.getFirst("RateLimit-Limit"), is(15));
+        assertThat(headers.getFirst("RateLimit-Remaining"), is(4L));
+        assertThat(headers.getFirst("RateLimit-Reset"), is(1L));
+        assertThat(headers.getFirst("Retry-After"), is(nullValue()));
+    }
+
+    @Test
+    void shouldAddRetryAfterHeader_whenRateLimitExceeded() {
+        when(requestContext.getProperty(RateLimitHeadersFilter.RATE_LIMIT_STATUS_PROPERTY)).thenReturn(new RateLimitStatus(15, 4, 1));
+        when(responseContext.getHeaders()).thenReturn(headers);
+        when(responseContext.getStatus()).thenReturn(429);
+
+        rateLimitHeadersFilter.filter(requestContext, responseContext);
+
+        assertThat(headers.getFirst("Retry-After"), is(1L));
+    }
+
+    @Test
+    void shouldNotAddHeaders_whenRequestWasNotRateLimited() {
+        when(requestContext.getProperty(RateLimitHeadersFilter.RATE_LIMIT_STATUS_PROPERTY)).thenReturn(null);
+
+        rateLimitHeadersFilter.filter(requestContext, responseContext);
+
+        assertThat(headers, is(anEmptyMap()));
+    }
+}
@@ -8,7 +8,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.filter.ratelimit.RateLimitException;
+import uk.gov.pay.api.filter.ratelimit.RateLimitStatus;
 import uk.gov.pay.api.filter.ratelimit.RateLimiter;
+import uk.gov.pay.api.filter.ratelimit.RouteClassTable;
 import uk.gov.pay.api.model.TokenPaymentType;
 
 import jakarta.ws.rs.WebApplicationException;
@@ -16,6 +18,7 @@ import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
 import jakarta.ws.rs.core.UriInfo;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
@@ -42,7 +45,7 @@ public class RateLimiterFilterTest {
     @BeforeEach
     public void setup() {
         rateLimiter = mock(RateLimiter.class);
-        rateLimiterFilter = new RateLimiterFilter(rateLimiter, new ObjectMapper());
+        rateLimiterFilter = new RateLimiterFilter(rateLimiter, new RouteClassTable(List.of()), new ObjectMapper());
 
         when(mockContainerRequestContext.getUriInfo()).thenReturn(mockUriInfo);
         when(mockUriInfo.getPath()).thenReturn("");
@@ -62,6 +65,41 @@ public class RateLimiterFilterTest {
         verify(rateLimiter).checkRateOf(eq(ACCOUNT_ID), any());
     }
 
+    @Test
+    public void shouldRecordRateLimitStatusForResponseHeaders() throws Exception {
+        Account account = new Account(ACCOUNT_ID, TokenPaymentType.CARD, "some-token-link");
+        SecurityContext mockSecurityContext = mock(SecurityContext.class);
+        when(mockSecurityContext.getUserPrincipal()).thenReturn(account);
+        when(mockContainerRequestContext.getSecurityContext()).thenReturn(mockSecurityContext);
+        when(mockContainerRequestContext.getMethod()).thenReturn("GET");
+        RateLimitStatus status = new RateLimitStatus(75, 74, 1);
+        when(rateLimiter.checkRateOf(eq(ACCOUNT_ID), any())).thenReturn(status);
+
+        rateLimiterFilter.filter(mockContainerRequestContext);
+
+        verify(mockContainerRequestContext).setProperty(RateLimitHeadersFilter.RATE_LIMIT_STATUS_PROPERTY, status);
+    }
+
+    @Test
+    public void shouldSendRetryAfterHeader_whenRateLimitExceeded() throws Exception {
+        Account account = new Account(ACCOUNT_ID, TokenPaymentType.CARD, "some-token-link");
+        SecurityContext mockSecurityContext = mock(SecurityContext.class);
+        when(mockSecurityContext.getUserPrincipal()).thenReturn(account);
+        when(mockContainerRequestContext.getSecurityContext()).thenReturn(mockSecurityContext);
+        when(mockContainerRequestContext.getMethod()).thenReturn("GET");
+        doThrow(new RateLimitException(new RateLimitStatus(75, 0, 1))).when(rateLimiter).checkRateOf(eq("account-id"), any());
+
+        WebApplicationException webApplicationException = assertThrows(WebApplicationException.class,
+                () -> rateLimiterFilter.filter(mockContainerRequestContext));
+
+        Response response = webApplicationException.getResponse();
+        assertEquals(429, response.getStatus());
+        assertEquals("75", response.getHeaderString("RateLimit-Limit"));
+        assertEquals("0", response.getHeaderString("RateLimit-Remaining"));
+        assertEquals("1", response.getHeaderString("RateLimit-Reset"));
+        assertEquals("1", response.getHeaderString("Retry-After"));
+    }
+
     @Test
     public void shouldSendErrorResponse_whenRateLimitExceeded() throws Exception {
         Account account = new Account(ACCOUNT_ID, TokenPaymentType.CARD, "some-token-link");
@@ -1,12 +1,15 @@
 package uk.gov.pay.api.filter;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.RateLimiterConfig;
+import uk.gov.pay.api.filter.ratelimit.RouteClassTable;
 
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.core.UriInfo;
@@ -26,6 +29,8 @@ public class RateLimiterKeyTest {
     @Mock
     private UriInfo uriInfo;
 
+    private final RouteClassTable routeClassTable = new RouteClassTable(new RateLimiterConfig().getRouteClasses());
+
     @BeforeEach
     public void setUp() {
         when(containerRequestContext.getUriInfo()).thenReturn(uriInfo);
@@ -33,21 +38,37 @@ public class RateLimiterKeyTest {
 
     static Stream<Arguments> rateLimitParams() {
         return Stream.of(
-                arguments("/v1/payments", "POST", "POST-create_payment", "POST-create_payment-account_id"),
-                arguments("/v1/payments/paymentId/capture", "POST", "POST-capture_payment", "POST-capture_payment-account_id"),
-                arguments("/v1/payments/paymentId/cancel", "POST", "POST", "POST-account_id"),
-                arguments("/v1/payments", "GET", "GET", "GET-account_id")
+                arguments("/v1/payments", "POST", "POST-create_payment", "POST-create_payment-account_id", 1),
+                arguments("/v1/payments/paymentId/capture", "POST", "POST-capture_payment", "POST-capture_payment-account_id", 1),
+                arguments("/v1/payments/paymentId/cancel", "POST", "POST", "POST-account_id", 1),
+                arguments("/v1/payments/batch-retrieve", "POST", "POST-retrieve_payments_batch", "POST-retrieve_payments_batch-account_id", 1),
+                arguments("/v1/payments/paymentId", "GET", "GET", "GET-account_id", 1),
+                arguments("/v1/payments", "GET", "GET", "GET-account_id", 1),
+                arguments("/v1/transactions", "GET", "GET", "GET-account_id", 1)
         );
     }
 
     @ParameterizedTest
     @MethodSource("rateLimitParams")
-    public void returnsRateLimiterKey(String path, String method, String expectedKeyType, String expectedKey) {
+    public void returnsRateLimiterKey(String path, String method, String expectedKeyType, String expectedKey, int expectedCost) {
         when(uriInfo.getPath()).thenReturn(path);
         when(containerRequestContext.getMethod()).thenReturn(method);
 
-        var rateLimiterKey = RateLimiterKey.from(containerRequestContext, "account_id");
+        var rateLimiterKey = RateLimiterKey.from(containerRequestContext, "account_id", routeClassTable);
         assertThat(rateLimiterKey.getKey(), is(expectedKey));
         assertThat(rateLimiterKey.getKeyType(), is(expectedKeyType));
+        assertThat(rateLimiterKey.getCost(), is(expectedCost));
+    }
+
+    @Test
+    public void forMethodSharesTheKeyOfRequestsWithThatMethod() {
+        when(uriInfo.getPath()).thenReturn("/v1/payments/paymentId");
+        when(containerRequestContext.getMethod()).thenReturn("GET");
+
+        var rateLimiterKey = RateLimiterKey.forMethod("GET", "account_id", 20);
+        var getPaymentKey = RateLimiterKey.from(containerRequestContext, "account_id", routeClassTable);
+        assertThat(rateLimiterKey.getKey(), is(getPaymentKey.getKey()));
+        assertThat(rateLimiterKey.getKeyType(), is(getPaymentKey.getKeyType()));
+        assertThat(rateLimiterKey.getCost(), is(20));
     }
 }
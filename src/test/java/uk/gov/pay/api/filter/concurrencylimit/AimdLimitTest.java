@@ -0,0 +1,91 @@
+package uk.gov.pay.api.filter.concurrencylimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+class AimdLimitTest {
+
+    private static final long LATENCY_THRESHOLD = TimeUnit.SECONDS.toNanos(2);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    void shouldRejectRequestsOverTheLimit() {
+        AimdLimit limit = new AimdLimit(2, 1, 10, LATENCY_THRESHOLD, 0.5);
+
+        assertThat(limit.tryAcquire(), is(true));
+        assertThat(limit.tryAcquire(), is(true));
+        assertThat(limit.tryAcquire(), is(false));
+        assertThat(limit.getInFlight(), is(2));
+
+        limit.release(FAST, false);
+        assertThat(limit.tryAcquire(), is(true));
+    }
+
+    @Test
+    void shouldIncreaseLimitByOne_whenRequestsCompleteQuicklyUnderLoad() {
+        AimdLimit limit = new AimdLimit(2, 1, 10, LATENCY_THRESHOLD, 0.5);
+        limit.tryAcquire();
+        limit.tryAcquire();
+
+        limit.release(FAST, false);
+
+        assertThat(limit.getLimit(), is(3));
+    }
+
+    @Test
+    void shouldNotIncreaseLimit_whenLittleOfItIsUsed() {
+        AimdLimit limit = new AimdLimit(10, 1, 20, LATENCY_THRESHOLD, 0.5);
+        limit.tryAcquire();
+
+        limit.release(FAST, false);
+
+        assertThat(limit.getLimit(), is(10));
+    }
+
+    @Test
+    void shouldReduceLimit_whenRequestsAreSlowOrFail() {
+        AimdLimit limit = new AimdLimit(8, 1, 10, LATENCY_THRESHOLD, 0.5);
+
+        limit.tryAcquire();
+        limit.release(SLOW, false);
+        assertThat(limit.getLimit(), is(4));
+
+        limit.tryAcquire();
+        limit.release(FAST, true);
+        assertThat(limit.getLimit(), is(2));
+    }
+
+    @Test
+    void shouldKeepLimitWithinBounds() {
+        AimdLimit limit = new AimdLimit(2, 2, 3, LATENCY_THRESHOLD, 0.5);
+
+        limit.tryAcquire();
+        limit.release(SLOW, false);
+        assertThat(limit.getLimit(), is(2));
+
+        for (int i = 0; i < 5; i++) {
+            limit.tryAcquire();
+            limit.tryAcquire();
+            limit.release(FAST, false);
+            limit.release(FAST, false);
+        }
+        assertThat(limit.getLimit(), is(3));
+    }
+
+    @Test
+    void shouldBringLimitDownToNewMaxLimit() {
+        AimdLimit limit = new AimdLimit(8, 1, 10, LATENCY_THRESHOLD, 0.5);
+
+        limit.setMaxLimit(4);
+        assertThat(limit.getLimit(), is(4));
+
+        limit.setMaxLimit(20);
+        assertThat(limit.getLimit(), is(4));
+        assertThat(limit.getMaxLimit(), is(20));
+    }
+}
@@ -0,0 +1,90 @@
+package uk.gov.pay.api.filter.concurrencylimit;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.ConcurrencyLimiterConfig;
+import uk.gov.pay.api.filter.ratelimit.AccountTiers;
+import uk.gov.pay.api.filter.ratelimit.AccountTiersProvider;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimiterTest {
+
+    @Mock
+    private ConcurrencyLimiterConfig config;
+
+    @Mock
+    private AccountTiersProvider accountTiersProvider;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    @BeforeEach
+    void setUp() {
+        when(config.getLatencyThreshold()).thenReturn(Duration.seconds(2));
+        when(config.getInitialLimit()).thenReturn(100);
+        when(config.getMinLimit()).thenReturn(1);
+        lenient().when(config.getMaxLimit()).thenReturn(2);
+        when(accountTiersProvider.get()).thenReturn(new AccountTiers(List.of(), List.of()));
+        concurrencyLimiter = new ConcurrencyLimiter(config, accountTiersProvider, metricRegistry);
+    }
+
+    @Test
+    void shouldLimitEachAccountAndRouteClassSeparately() {
+        assertThat(concurrencyLimiter.tryAcquire("1", "search_payments").isPresent(), is(true));
+        assertThat(concurrencyLimiter.tryAcquire("1", "search_payments").isPresent(), is(true));
+        assertThat(concurrencyLimiter.tryAcquire("1", "search_payments").isPresent(), is(false));
+
+        assertThat(concurrencyLimiter.tryAcquire("1", "GET").isPresent(), is(true));
+        assertThat(concurrencyLimiter.tryAcquire("2", "search_payments").isPresent(), is(true));
+        assertThat(metricRegistry.meter("concurrency_limiter.rejected").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldUseMaxLimitOfAccountTier() {
+        when(accountTiersProvider.get()).thenReturn(new AccountTiers(List.of("1"), List.of()));
+        when(config.getMaxLimitForElevatedAccounts()).thenReturn(3);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(concurrencyLimiter.tryAcquire("1", "GET").isPresent(), is(true));
+        }
+        assertThat(concurrencyLimiter.tryAcquire("1", "GET").isPresent(), is(false));
+    }
+
+    @Test
+    void shouldUseMaxLimitOfNewTier_whenAccountTiersAreReloaded() {
+        when(accountTiersProvider.get()).thenReturn(new AccountTiers(List.of("1"), List.of()));
+        when(config.getMaxLimitForElevatedAccounts()).thenReturn(3);
+        assertThat(concurrencyLimiter.tryAcquire("1", "GET").isPresent(), is(true));
+        assertThat(metricRegistry.getGauges().get("concurrency_limiter.limit.1.GET").getValue(), is(3));
+
+        when(accountTiersProvider.get()).thenReturn(new AccountTiers(List.of(), List.of()));
+
+        assertThat(concurrencyLimiter.tryAcquire("1", "GET").isPresent(), is(true));
+        assertThat(concurrencyLimiter.tryAcquire("1", "GET").isPresent(), is(false));
+        assertThat(metricRegistry.getGauges().get("concurrency_limiter.limit.1.GET").getValue(), is(2));
+    }
+
+    @Test
+    void shouldPublishLimitAndRequestsInFlight() {
+        ConcurrencyLimiter.Permit permit = concurrencyLimiter.tryAcquire("1", "GET").orElseThrow();
+
+        assertThat(metricRegistry.getGauges().get("concurrency_limiter.limit.1.GET").getValue(), is(2));
+        assertThat(metricRegistry.getGauges().get("concurrency_limiter.in_flight.1.GET").getValue(), is(1));
+
+        permit.release(false);
+        assertThat(metricRegistry.getGauges().get("concurrency_limiter.in_flight.1.GET").getValue(), is(0));
+    }
+}
@@ -0,0 +1,106 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.RateLimiterConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountTiersProviderTest {
+
+    @Mock
+    private RateLimiterConfig rateLimiterConfig;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldUseAccountListsFromConfig_whenNoFileIsConfigured() throws IOException {
+        when(rateLimiterConfig.getElevatedAccounts()).thenReturn(List.of("1", "2"));
+        when(rateLimiterConfig.getLowTrafficAccounts()).thenReturn(List.of("5"));
+
+        AccountTiersProvider provider = new AccountTiersProvider(rateLimiterConfig);
+        AccountTiers accountTiers = provider.get();
+
+        assertThat(accountTiers.isElevated("2"), is(true));
+        assertThat(accountTiers.isLowTraffic("5"), is(true));
+        assertThat(accountTiers.isElevated("5"), is(false));
+        assertThat(provider.reload(), is(sameInstance(accountTiers)));
+    }
+
+    @Test
+    void shouldReadAccountTiersFromFile_andReloadThem() throws IOException {
+        Path file = tempDir.resolve("account-tiers.yaml");
+        Files.writeString(file, "elevatedAccounts: [\"1\"]\nlowTrafficAccounts: [\"5\"]\n");
+        when(rateLimiterConfig.getAccountTiersFile()).thenReturn(Optional.of(file.toString()));
+
+        AccountTiersProvider provider = new AccountTiersProvider(rateLimiterConfig);
+        assertThat(provider.get().isElevated("1"), is(true));
+        assertThat(provider.get().isLowTraffic("5"), is(true));
+
+        Files.writeString(file, "elevatedAccounts: [\"1\", \"5\"]\n");
+        provider.reload();
+
+        assertThat(provider.get().isElevated("5"), is(true));
+        assertThat(provider.get().isLowTraffic("5"), is(false));
+    }
+
+    @Test
+    void shouldKeepPreviousAccountTiers_whenFileCannotBeRead() throws IOException {
+        Path file = tempDir.resolve("account-tiers.yaml");
+        Files.writeString(file, "elevatedAccounts: [\"1\"]\n");
+        when(rateLimiterConfig.getAccountTiersFile()).thenReturn(Optional.of(file.toString()));
+
+        AccountTiersProvider provider = new AccountTiersProvider(rateLimiterConfig);
+        AccountTiers accountTiers = provider.get();
+
+        Files.writeString(file, "elevatedAccounts: [\"1\"\n");
+        assertThrows(IOException.class, provider::reload);
+
+        assertThat(provider.get(), is(sameInstance(accountTiers)));
+    }
+
+    @Test
+    void shouldReloadAccountTiers_whenPollerSeesTheFileChange() throws Exception {
+        Path file = tempDir.resolve("account-tiers.yaml");
+        Files.writeString(file, "elevatedAccounts: [\"1\"]\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000));
+        when(rateLimiterConfig.getAccountTiersFile()).thenReturn(Optional.of(file.toString()));
+        when(rateLimiterConfig.getAccountTiersPollInterval()).thenReturn(Duration.milliseconds(10));
+        ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor();
+        try {
+            AccountTiersProvider provider = new AccountTiersProvider(rateLimiterConfig, poller);
+            provider.start();
+
+            Files.writeString(file, "elevatedAccounts: [\"1\", \"5\"]\n");
+            Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!provider.get().isElevated("5") && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(provider.get().isElevated("5"), is(true));
+        } finally {
+            poller.shutdownNow();
+        }
+    }
+}
@@ -144,9 +144,9 @@ public class LocalRateLimiterTest {
 
     public static RateLimiterKey createRateLimiterKey(String key, String type, String method) throws Exception {
         Class<RateLimiterKey> clazz = RateLimiterKey.class;
-        Constructor<RateLimiterKey> constructor = clazz.getDeclaredConstructor(String.class, String.class, String.class);
+        Constructor<RateLimiterKey> constructor = clazz.getDeclaredConstructor(String.class, String.class, String.class, String.class, int.class);
         constructor.setAccessible(true);
-        return constructor.newInstance(key, type, method);
+        return constructor.newInstance(key, type, method, null, 1);
 
     }
 }
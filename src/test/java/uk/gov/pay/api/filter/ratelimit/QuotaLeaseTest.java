@@ -0,0 +1,104 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+class QuotaLeaseTest {
+
+    private static final int ALLOWED = 100;
+    private static final double MAX_ERROR_FRACTION = 0.1;
+
+    @Test
+    void shouldLeaseOneRequestAtATimeUntilShareIsKnown() {
+        QuotaLease quotaLease = new QuotaLease();
+
+        assertThat(quotaLease.tryAcquire("window-1", 1), is(false));
+        assertThat(quotaLease.nextBlockSize(ALLOWED, MAX_ERROR_FRACTION, 1), is(1));
+    }
+
+    @Test
+    void shouldServeRequestsFromLeasedAllowance() {
+        QuotaLease quotaLease = new QuotaLease();
+
+        assertThat(quotaLease.granted("window-1", 3, 3, 1), is(true));
+
+        assertThat(quotaLease.tryAcquire("window-1", 1), is(true));
+        assertThat(quotaLease.tryAcquire("window-1", 1), is(true));
+        assertThat(quotaLease.tryAcquire("window-1", 1), is(false));
+    }
+
+    @Test
+    void shouldScaleBlockSizeByShareOfPreviousWindow() {
+        QuotaLease quotaLease = new QuotaLease();
+        // this node served 20 of the 40 requests seen in Redis during window-1
+        for (int i = 0; i < 20; i++) {
+            quotaLease.granted("window-1", 1, 2L * (i + 1), 1);
+        }
+
+        quotaLease.tryAcquire("window-2", 1);
+
+        assertThat(quotaLease.getShare(), is(0.5));
+        assertThat(quotaLease.nextBlockSize(ALLOWED, MAX_ERROR_FRACTION, 1), is(5));
+    }
+
+    @Test
+    void shouldDropLeasedAllowanceWhenWindowChanges() {
+        QuotaLease quotaLease = new QuotaLease();
+        quotaLease.granted("window-1", 10, 10, 1);
+
+        assertThat(quotaLease.tryAcquire("window-2", 1), is(false));
+    }
+
+    @Test
+    void shouldHaveNoAllowanceLeftForTheRestOfTheWindow_onceRedisHasGrantedItAll() {
+        QuotaLease quotaLease = new QuotaLease();
+
+        assertThat(quotaLease.granted("window-1", 0, ALLOWED, 1), is(false));
+
+        assertThat(quotaLease.hasAllowanceLeft("window-1", ALLOWED, 1), is(false));
+        assertThat(quotaLease.hasAllowanceLeft("window-2", ALLOWED, 1), is(true));
+    }
+
+    @Test
+    void shouldEstimateShareFromTheCurrentWindow_untilAWindowHasBeenMeasured() {
+        QuotaLease quotaLease = new QuotaLease();
+
+        // this node made the only request Redis has seen so far
+        quotaLease.granted("window-1", 1, 1, 1);
+
+        assertThat(quotaLease.nextBlockSize(ALLOWED, MAX_ERROR_FRACTION, 1), is(10));
+    }
+
+    @Test
+    void shouldKeepShare_whenAWindowPassesWithoutTraffic() {
+        QuotaLease quotaLease = new QuotaLease();
+        quotaLease.granted("window-1", 1, 2, 1);
+        quotaLease.tryAcquire("window-2", 1);
+
+        quotaLease.tryAcquire("window-3", 1);
+
+        assertThat(quotaLease.getShare(), is(0.5));
+    }
+
+    @Test
+    void shouldOnlyServeRequestsWhoseCostIsCoveredByLeasedAllowance() {
+        QuotaLease quotaLease = new QuotaLease();
+
+        assertThat(quotaLease.granted("window-1", 7, 7, 5), is(true));
+
+        assertThat(quotaLease.tryAcquire("window-1", 5), is(false));
+        assertThat(quotaLease.tryAcquire("window-1", 1), is(true));
+    }
+
+    @Test
+    void shouldStillTryCheaperRequests_whenRedisCannotGrantTheFullCost() {
+        QuotaLease quotaLease = new QuotaLease();
+
+        assertThat(quotaLease.granted("window-1", 3, ALLOWED, 5), is(false));
+
+        assertThat(quotaLease.hasAllowanceLeft("window-1", ALLOWED, 5), is(false));
+        assertThat(quotaLease.tryAcquire("window-1", 1), is(true));
+    }
+}
@@ -27,7 +27,7 @@ public class RateLimitManagerTest {
         var rateLimiterKey = createRateLimiterKey("path", "key-type", "PUT");
         when(rateLimiterConfig.getNoOfReq()).thenReturn(1);
 
-        rateLimitManager = new RateLimitManager(rateLimiterConfig);
+        rateLimitManager = new RateLimitManager(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig));
         assertThat(rateLimitManager.getAllowedNumberOfRequests(rateLimiterKey, ""), is(1));
     }
 
@@ -37,7 +37,7 @@ public class RateLimitManagerTest {
         when(rateLimiterConfig.getElevatedAccounts()).thenReturn(List.of("1"));
         when(rateLimiterConfig.getNoOfPostReqForElevatedAccounts()).thenReturn(4);
 
-        rateLimitManager = new RateLimitManager(rateLimiterConfig);
+        rateLimitManager = new RateLimitManager(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig));
         assertThat(rateLimitManager.getAllowedNumberOfRequests(rateLimiterKey, "1"), is(4));
     }
 
@@ -47,7 +47,7 @@ public class RateLimitManagerTest {
         when(rateLimiterConfig.getElevatedAccounts()).thenReturn(List.of("1"));
         when(rateLimiterConfig.getNoOfReqForElevatedAccounts()).thenReturn(3);
 
-        rateLimitManager = new RateLimitManager(rateLimiterConfig);
+        rateLimitManager = new RateLimitManager(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig));
         assertThat(rateLimitManager.getAllowedNumberOfRequests(rateLimiterKey, "1"), is(3));
     }
 
@@ -56,7 +56,7 @@ public class RateLimitManagerTest {
         var rateLimiterKey = createRateLimiterKey("path", "key-type", "POST");
         when(rateLimiterConfig.getNoOfReqForPost()).thenReturn(2);
 
-        rateLimitManager = new RateLimitManager(rateLimiterConfig);
+        rateLimitManager = new RateLimitManager(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig));
         assertThat(rateLimitManager.getAllowedNumberOfRequests(rateLimiterKey, "2"), is(2));
     }
 
@@ -65,7 +65,7 @@ public class RateLimitManagerTest {
         var rateLimiterKey = createRateLimiterKey("path", "key-type", "GET");
         when(rateLimiterConfig.getNoOfReq()).thenReturn(1);
 
-        rateLimitManager = new RateLimitManager(rateLimiterConfig);
+        rateLimitManager = new RateLimitManager(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig));
         assertThat(rateLimitManager.getAllowedNumberOfRequests(rateLimiterKey, "2"), is(1));
     }
 
@@ -75,7 +75,7 @@ public class RateLimitManagerTest {
         when(rateLimiterConfig.getLowTrafficAccounts()).thenReturn(List.of("10"));
         when(rateLimiterConfig.getNoOfPostReqForLowTrafficAccounts()).thenReturn(7);
 
-        rateLimitManager = new RateLimitManager(rateLimiterConfig);
+        rateLimitManager = new RateLimitManager(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig));
         assertThat(rateLimitManager.getAllowedNumberOfRequests(rateLimiterKey, "10"), is(7));
     }
 
@@ -85,7 +85,7 @@ public class RateLimitManagerTest {
         when(rateLimiterConfig.getLowTrafficAccounts()).thenReturn(List.of("10"));
         when(rateLimiterConfig.getNoOfReqForLowTrafficAccounts()).thenReturn(100);
 
-        rateLimitManager = new RateLimitManager(rateLimiterConfig);
+        rateLimitManager = new RateLimitManager(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig));
         assertThat(rateLimitManager.getAllowedNumberOfRequests(rateLimiterKey, "10"), is(100));
     }
 
@@ -94,7 +94,7 @@ public class RateLimitManagerTest {
         when(rateLimiterConfig.getLowTrafficAccounts()).thenReturn(List.of("10"));
         when(rateLimiterConfig.getIntervalInMillisForLowTrafficAccounts()).thenReturn(54000);
 
-        rateLimitManager = new RateLimitManager(rateLimiterConfig);
+        rateLimitManager = new RateLimitManager(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig));
         assertThat(rateLimitManager.getRateLimitInterval("10"), is(54000));
     }
 
@@ -102,7 +102,7 @@ public class RateLimitManagerTest {
     public void shouldReturnRateLimitIntervalCorrectlyForElevatedAndStandardRateLimiting() {
         when(rateLimiterConfig.getPerMillis()).thenReturn(10000);
 
-        rateLimitManager = new RateLimitManager(rateLimiterConfig);
+        rateLimitManager = new RateLimitManager(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig));
         assertThat(rateLimitManager.getRateLimitInterval("12345"), is(10000));
     }
 
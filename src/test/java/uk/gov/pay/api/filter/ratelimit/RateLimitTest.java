@@ -0,0 +1,80 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateLimitTest {
+
+    @Test
+    void shouldAllowBurstUpToNoOfReqAndThenReject() throws Exception {
+        long now = System.nanoTime();
+        RateLimit rateLimit = new RateLimit(3, 1000);
+
+        rateLimit.updateAllowance(1, now);
+        rateLimit.updateAllowance(1, now);
+        rateLimit.updateAllowance(1, now);
+
+        assertThrows(RateLimitException.class, () -> rateLimit.updateAllowance(1, now));
+    }
+
+    @Test
+    void shouldRefillOneRequestPerEmissionInterval() throws Exception {
+        long now = System.nanoTime();
+        RateLimit rateLimit = new RateLimit(2, 1000);
+
+        rateLimit.updateAllowance(1, now);
+        rateLimit.updateAllowance(1, now);
+        assertThrows(RateLimitException.class, () -> rateLimit.updateAllowance(1, now));
+
+        long halfAPeriodLater = now + TimeUnit.MILLISECONDS.toNanos(500);
+        rateLimit.updateAllowance(1, halfAPeriodLater);
+        assertThrows(RateLimitException.class, () -> rateLimit.updateAllowance(1, halfAPeriodLater));
+    }
+
+    @Test
+    void shouldAllowFullBurstAgainAfterAWholePeriod() throws Exception {
+        long now = System.nanoTime();
+        RateLimit rateLimit = new RateLimit(2, 1000);
+
+        rateLimit.updateAllowance(1, now);
+        rateLimit.updateAllowance(1, now);
+
+        long aPeriodLater = now + TimeUnit.MILLISECONDS.toNanos(1000);
+        assertDoesNotThrow(() -> rateLimit.updateAllowance(1, aPeriodLater));
+        assertDoesNotThrow(() -> rateLimit.updateAllowance(1, aPeriodLater));
+    }
+
+    @Test
+    void shouldChargeCostAgainstAllowance() throws RateLimitException {
+        long now = System.nanoTime();
+        RateLimit rateLimit = new RateLimit(10, 1000);
+
+        rateLimit.updateAllowance(5, now);
+        rateLimit.updateAllowance(5, now);
+
+        assertThrows(RateLimitException.class, () -> rateLimit.updateAllowance(1, now));
+    }
+
+    @Test
+    void shouldReuseTheStatusWhileItIsUnchanged() throws RateLimitException {
+        RateLimit rateLimit = new RateLimit(10, 60000);
+        rateLimit.updateAllowance(1);
+
+        RateLimitStatus status = rateLimit.getStatus();
+
+        assertThat(status.remaining(), is(9L));
+        assertThat(rateLimit.getStatus(), sameInstance(status));
+    }
+
+    @Test
+    void shouldRejectALimitOfNoRequests() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimit(0, 1000));
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.pay.api.filter.ratelimit;
 
+import com.codahale.metrics.MetricRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,7 +8,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.api.filter.RateLimiterKey;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static uk.gov.pay.api.filter.ratelimit.LocalRateLimiterTest.createRateLimiterKey;
@@ -24,11 +32,13 @@ public class RateLimiterTest {
 
     private RateLimiterKey rateLimiterKey;
     private RateLimiter rateLimiter;
+    private RedisCircuitBreaker redisCircuitBreaker;
 
     @BeforeEach
     public void setup() throws Exception {
         rateLimiterKey = createRateLimiterKey("key2", "key-type", POST);
-        rateLimiter = new RateLimiter(localRateLimiter, redisRateLimiter);
+        redisCircuitBreaker = new RedisCircuitBreaker(3, 10_000, new MetricRegistry(), System::nanoTime);
+        rateLimiter = new RateLimiter(localRateLimiter, redisRateLimiter, redisCircuitBreaker);
     }
 
     @Test
@@ -48,4 +58,53 @@ public class RateLimiterTest {
 
         verify(localRateLimiter, times(2)).checkRateOf(accountId, rateLimiterKey);
     }
+
+    @Test
+    public void shouldStopCallingRedisRateLimiter_whenCircuitBreakerOpens() throws Exception {
+        doThrow(new RedisException()).when(redisRateLimiter).checkRateOf(accountId, rateLimiterKey);
+
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.checkRateOf(accountId, rateLimiterKey);
+        }
+
+        assertThat(redisCircuitBreaker.getState(), is(RedisCircuitBreaker.State.OPEN));
+        verify(redisRateLimiter, times(3)).checkRateOf(accountId, rateLimiterKey);
+        verify(localRateLimiter, times(5)).checkRateOf(accountId, rateLimiterKey);
+    }
+
+    @Test
+    public void shouldKeepCircuitBreakerClosed_whenRedisRateLimiterRejectsRequest() throws Exception {
+        doThrow(new RateLimitException()).when(redisRateLimiter).checkRateOf(accountId, rateLimiterKey);
+
+        for (int i = 0; i < 5; i++) {
+            try {
+                rateLimiter.checkRateOf(accountId, rateLimiterKey);
+            } catch (RateLimitException ignored) {
+            }
+        }
+
+        assertThat(redisCircuitBreaker.getState(), is(RedisCircuitBreaker.State.CLOSED));
+        verify(localRateLimiter, never()).checkRateOf(accountId, rateLimiterKey);
+    }
+
+    @Test
+    public void shouldReopenCircuitBreaker_whenHalfOpenProbeFailsUnexpectedly() throws Exception {
+        AtomicLong now = new AtomicLong();
+        redisCircuitBreaker = new RedisCircuitBreaker(1, 10_000, new MetricRegistry(), now::get);
+        rateLimiter = new RateLimiter(localRateLimiter, redisRateLimiter, redisCircuitBreaker);
+        doThrow(new RedisException()).when(redisRateLimiter).checkRateOf(accountId, rateLimiterKey);
+        rateLimiter.checkRateOf(accountId, rateLimiterKey);
+        assertThat(redisCircuitBreaker.getState(), is(RedisCircuitBreaker.State.OPEN));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        doThrow(new IllegalStateException("unexpected reply")).when(redisRateLimiter).checkRateOf(accountId, rateLimiterKey);
+        rateLimiter.checkRateOf(accountId, rateLimiterKey);
+        assertThat(redisCircuitBreaker.getState(), is(RedisCircuitBreaker.State.OPEN));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        doReturn(null).when(redisRateLimiter).checkRateOf(accountId, rateLimiterKey);
+        rateLimiter.checkRateOf(accountId, rateLimiterKey);
+        assertThat(redisCircuitBreaker.getState(), is(RedisCircuitBreaker.State.CLOSED));
+        verify(localRateLimiter, times(2)).checkRateOf(accountId, rateLimiterKey);
+    }
 }
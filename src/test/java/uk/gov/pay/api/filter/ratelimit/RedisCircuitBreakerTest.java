@@ -0,0 +1,94 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static uk.gov.pay.api.filter.ratelimit.RedisCircuitBreaker.State.CLOSED;
+import static uk.gov.pay.api.filter.ratelimit.RedisCircuitBreaker.State.HALF_OPEN;
+import static uk.gov.pay.api.filter.ratelimit.RedisCircuitBreaker.State.OPEN;
+
+class RedisCircuitBreakerTest {
+
+    private static final long OPEN_DURATION_MILLIS = 1000;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private MetricRegistry metricRegistry;
+    private RedisCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        metricRegistry = new MetricRegistry();
+        circuitBreaker = new RedisCircuitBreaker(2, OPEN_DURATION_MILLIS, metricRegistry, nanoTime::get);
+    }
+
+    @Test
+    void shouldOpenAfterConsecutiveFailuresReachThreshold() {
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.getState(), is(CLOSED));
+
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.getState(), is(OPEN));
+        assertThat(circuitBreaker.allowRequest(), is(false));
+        assertThat(metricRegistry.meter("redis.circuit_breaker.transitions.open").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldResetFailureCountOnSuccess() {
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+
+        assertThat(circuitBreaker.getState(), is(CLOSED));
+    }
+
+    @Test
+    void shouldLetOneProbeThroughAfterOpenDuration() {
+        openCircuitBreaker();
+
+        advanceTime(OPEN_DURATION_MILLIS);
+
+        assertThat(circuitBreaker.allowRequest(), is(true));
+        assertThat(circuitBreaker.getState(), is(HALF_OPEN));
+        assertThat(circuitBreaker.allowRequest(), is(false));
+    }
+
+    @Test
+    void shouldCloseWhenProbeSucceeds() {
+        openCircuitBreaker();
+        advanceTime(OPEN_DURATION_MILLIS);
+        circuitBreaker.allowRequest();
+
+        circuitBreaker.recordSuccess();
+
+        assertThat(circuitBreaker.getState(), is(CLOSED));
+        assertThat(circuitBreaker.allowRequest(), is(true));
+        assertThat(metricRegistry.getGauges().get("redis.circuit_breaker.state").getValue(), is(CLOSED.ordinal()));
+    }
+
+    @Test
+    void shouldReopenWhenProbeFails() {
+        openCircuitBreaker();
+        advanceTime(OPEN_DURATION_MILLIS);
+        circuitBreaker.allowRequest();
+
+        circuitBreaker.recordFailure();
+
+        assertThat(circuitBreaker.getState(), is(OPEN));
+        assertThat(circuitBreaker.allowRequest(), is(false));
+    }
+
+    private void openCircuitBreaker() {
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+    }
+
+    private void advanceTime(long millis) {
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
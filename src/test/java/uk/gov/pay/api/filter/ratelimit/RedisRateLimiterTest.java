@@ -8,8 +8,11 @@ import ch.qos.logback.core.Appender;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import io.dropwizard.core.setup.Environment;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
 import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,17 +21,28 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.api.app.config.RateLimitAlgorithm;
 import uk.gov.pay.api.app.config.RateLimiterConfig;
 import uk.gov.pay.api.filter.RateLimiterKey;
 import uk.gov.pay.api.managed.RedisClientManager;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -37,8 +51,8 @@ import static org.mockito.Mockito.when;
 class RedisRateLimiterTest {
 
     private static final String accountId = "account-id";
-    private static final Long perSecondTimeToLiveInSeconds = 1L;
-    private static final Long perMinuteTimeToLiveInSeconds = 60L;
+    private static final String perSecondTimeToLiveInMillis = "1000";
+    private static final String perMinuteTimeToLiveInMillis = "60000";
 
     @Mock
     private RedisClientManager redisClientManager;
@@ -47,7 +61,7 @@ class RedisRateLimiterTest {
     private StatefulRedisConnection statefulRedisConnection;
 
     @Mock
-    private RedisCommands redisCommands;
+    private RedisAsyncCommands redisCommands;
 
     @Mock
     private RateLimiterKey rateLimiterKey;
@@ -74,10 +88,12 @@ class RedisRateLimiterTest {
     @BeforeEach
     void setup() {
         timer = new Timer();
-        when(statefulRedisConnection.sync()).thenReturn(redisCommands);
+        when(statefulRedisConnection.async()).thenReturn(redisCommands);
+        when(statefulRedisConnection.getTimeout()).thenReturn(Duration.ofMillis(250));
         when(redisClientManager.getRedisConnection()).thenReturn(statefulRedisConnection);
         when(environment.metrics()).thenReturn(metricsRegistry);
         when(metricsRegistry.timer(any())).thenReturn(timer);
+        lenient().when(rateLimiterKey.getCost()).thenReturn(1);
 
         Logger root = (Logger) LoggerFactory.getLogger(RedisRateLimiter.class);
         root.setLevel(Level.INFO);
@@ -89,12 +105,12 @@ class RedisRateLimiterTest {
         when(rateLimiterConfig.getNoOfReq()).thenReturn(1);
         when(rateLimiterKey.getKey()).thenReturn("Key1");
         when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
-        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, redisClientManager, environment);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment);
 
-        when(redisCommands.incr(anyString())).thenReturn(1L);
-        when(redisCommands.expire(anyString(), eq(perSecondTimeToLiveInSeconds))).thenReturn(true);
+        when(redisCommands.evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis), eq("1")))
+                .thenReturn(completed(1L));
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
-        verify(redisCommands).expire(anyString(), eq(perSecondTimeToLiveInSeconds));
+        verify(redisCommands).evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis), eq("1"));
     }
 
     @Test
@@ -102,14 +118,16 @@ class RedisRateLimiterTest {
         when(rateLimiterConfig.getNoOfReq()).thenReturn(2);
         when(rateLimiterKey.getKey()).thenReturn("Key2");
         when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
-        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, redisClientManager, environment);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment);
 
-        when(redisCommands.incr(anyString())).thenReturn(1L, 2L);
-        when(redisCommands.expire(anyString(), eq(perSecondTimeToLiveInSeconds))).thenReturn(true);
+        when(redisCommands.evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis), eq("1")))
+                .thenReturn(completed(1L), completed(2L));
 
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
-        redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
-        verify(redisCommands, times(2)).expire(anyString(), eq(perSecondTimeToLiveInSeconds));
+        RateLimitStatus status = redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
+        assertThat(status.limit(), is(2));
+        assertThat(status.remaining(), is(0L));
+        verify(redisCommands, times(2)).evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis), eq("1"));
     }
 
     @Test
@@ -118,17 +136,17 @@ class RedisRateLimiterTest {
         when(rateLimiterKey.getKey()).thenReturn("Key3");
         when(rateLimiterKey.getKeyType()).thenReturn("POST");
         when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
-        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, redisClientManager, environment);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment);
 
-        when(redisCommands.incr(anyString())).thenReturn(1L, 2L, 3L);
-        when(redisCommands.expire(anyString(), eq(perSecondTimeToLiveInSeconds))).thenReturn(true);
+        when(redisCommands.evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis), eq("1")))
+                .thenReturn(completed(1L), completed(2L), completed(3L));
 
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
 
         assertThrows(RateLimitException.class, () -> {
             redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
-            verify(redisCommands, times(3)).expire(anyString(), eq(perSecondTimeToLiveInSeconds));
+            verify(redisCommands, times(3)).evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis), eq("1"));
             verify(mockAppender, times(1)).doAppend(loggingEventArgumentCaptor.capture());
             List<LoggingEvent> loggingEvents = loggingEventArgumentCaptor.getAllValues();
             assertEquals("RedisRateLimiter - Rate limit exceeded for account [account-id] and method [POST] - count: 3, rate allowed: 2", loggingEvents.get(0).getFormattedMessage());
@@ -143,15 +161,15 @@ class RedisRateLimiterTest {
         when(rateLimiterKey.getMethod()).thenReturn("POST");
         when(rateLimiterKey.getKeyType()).thenReturn("POST-capture-account1");
 
-        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, redisClientManager, environment);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment);
 
-        when(redisCommands.incr(anyString())).thenReturn(1L, 2L, 3L, 4L);
-        when(redisCommands.expire(anyString(), eq(perMinuteTimeToLiveInSeconds))).thenReturn(true);
+        when(redisCommands.evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis), eq("1")))
+                .thenReturn(completed(1L), completed(2L), completed(3L), completed(4L));
 
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
-        verify(redisCommands, times(3)).expire(anyString(), eq(perMinuteTimeToLiveInSeconds));
+        verify(redisCommands, times(3)).evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis), eq("1"));
 
         assertThrows(RateLimitException.class,
                 () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey),
@@ -166,16 +184,232 @@ class RedisRateLimiterTest {
         when(rateLimiterKey.getMethod()).thenReturn("GET");
         when(rateLimiterKey.getKeyType()).thenReturn("GET-account1");
 
-        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, redisClientManager, environment);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment);
 
-        when(redisCommands.incr(anyString())).thenReturn(1L, 2L);
-        when(redisCommands.expire(anyString(), eq(perMinuteTimeToLiveInSeconds))).thenReturn(true);
+        when(redisCommands.evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis), eq("1")))
+                .thenReturn(completed(1L), completed(2L));
 
         redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
 
         assertThrows(RateLimitException.class, () -> {
             redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
-            verify(redisCommands, times(3)).expire(anyString(), eq(perMinuteTimeToLiveInSeconds));
+            verify(redisCommands, times(3)).evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perMinuteTimeToLiveInMillis), eq("1"));
         }, "Excepted to throw exception when rate limit exceeds");
     }
+
+    @Test
+    void shouldChargeTheCostOfTheRequest() throws Exception {
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(10);
+        when(rateLimiterKey.getKey()).thenReturn("Key10");
+        when(rateLimiterKey.getCost()).thenReturn(5);
+        when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment);
+
+        when(redisCommands.evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis), eq("5")))
+                .thenReturn(completed(5L), completed(10L), completed(15L));
+
+        redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
+        redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
+        assertThrows(RateLimitException.class, () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey));
+    }
+
+    @Test
+    void shouldFallBackToEval_whenScriptIsNotCachedOnRedis() throws Exception {
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(1);
+        when(rateLimiterKey.getKey()).thenReturn("Key4");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment);
+
+        when(redisCommands.evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis), eq("1")))
+                .thenReturn(failed(new RedisNoScriptException("NOSCRIPT No matching script. Please use EVAL.")));
+        when(redisCommands.eval(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis), eq("1")))
+                .thenReturn(completed(1L));
+
+        redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
+
+        verify(redisCommands).eval(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis), eq("1"));
+    }
+
+    @Test
+    void shouldThrowRedisException_whenScriptFails() {
+        when(rateLimiterKey.getKey()).thenReturn("Key5");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment);
+
+        when(redisCommands.evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq(perSecondTimeToLiveInMillis), eq("1")))
+                .thenReturn(failed(new RuntimeException("Connection refused")));
+
+        assertThrows(RedisException.class, () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey));
+        verify(redisCommands, never()).eval(any(String.class), any(ScriptOutputType.class), any(String[].class), any(String[].class));
+    }
+
+    @Test
+    void shouldCountInTheWindowWhoseEndIsReportedAsTheReset() throws Exception {
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(10);
+        when(rateLimiterKey.getKey()).thenReturn("Key11");
+        // does not divide a minute, so windows cannot be aligned to the minute and still all be 7 seconds long
+        when(rateLimiterConfig.getPerMillis()).thenReturn(7000);
+        AtomicLong now = new AtomicLong(7_005_500L);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment, now::get);
+        when(redisCommands.evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER), any(String[].class), eq("7000"), eq("1")))
+                .thenReturn(completed(1L));
+
+        assertThat(redisRateLimiter.checkRateOf(accountId, rateLimiterKey).resetInSeconds(), is(2L));
+        now.set(7_006_999L);
+        assertThat(redisRateLimiter.checkRateOf(accountId, rateLimiterKey).resetInSeconds(), is(1L));
+        now.set(7_007_000L);
+        assertThat(redisRateLimiter.checkRateOf(accountId, rateLimiterKey).resetInSeconds(), is(7L));
+
+        verify(redisCommands, times(2)).evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER),
+                aryEq(new String[]{"Key11-1000"}), eq("7000"), eq("1"));
+        verify(redisCommands).evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), eq(ScriptOutputType.INTEGER),
+                aryEq(new String[]{"Key11-1001"}), eq("7000"), eq("1"));
+    }
+
+    @Test
+    void shouldServeRequestsFromQuotaLease_whenQuotaLeaseIsEnabled() throws Exception {
+        when(rateLimiterConfig.isQuotaLeaseEnabled()).thenReturn(true);
+        when(rateLimiterConfig.getQuotaLeaseMinAllowedRequests()).thenReturn(1);
+        when(rateLimiterConfig.getQuotaLeaseMaxErrorFraction()).thenReturn(0.1);
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(100);
+        when(rateLimiterKey.getKey()).thenReturn("Key6");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(60000);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment);
+
+        when(redisCommands.evalsha(eq(RedisRateLimiter.LEASE_SCRIPT_SHA), eq(ScriptOutputType.MULTI), any(String[].class), any(String[].class)))
+                .thenReturn(completed(List.of(1L, 1L)));
+
+        redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
+
+        verify(redisCommands, never()).evalsha(eq(RedisRateLimiter.INCREMENT_AND_EXPIRE_SCRIPT_SHA), any(ScriptOutputType.class), any(String[].class), any(String[].class));
+    }
+
+    @Test
+    void shouldNotCallRedisAgainInSameWindow_whenQuotaLeaseIsExhausted() throws Exception {
+        when(rateLimiterConfig.isQuotaLeaseEnabled()).thenReturn(true);
+        when(rateLimiterConfig.getQuotaLeaseMinAllowedRequests()).thenReturn(1);
+        when(rateLimiterConfig.getQuotaLeaseMaxErrorFraction()).thenReturn(0.1);
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(100);
+        when(rateLimiterKey.getKey()).thenReturn("Key7");
+        when(rateLimiterKey.getKeyType()).thenReturn("GET");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(60000);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment);
+
+        when(redisCommands.evalsha(eq(RedisRateLimiter.LEASE_SCRIPT_SHA), eq(ScriptOutputType.MULTI), any(String[].class), any(String[].class)))
+                .thenReturn(completed(List.of(0L, 100L)));
+
+        assertThrows(RateLimitException.class, () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey));
+        assertThrows(RateLimitException.class, () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey));
+
+        verify(redisCommands, times(1)).evalsha(eq(RedisRateLimiter.LEASE_SCRIPT_SHA), eq(ScriptOutputType.MULTI), any(String[].class), any(String[].class));
+    }
+
+    @Test
+    void slidingWindow_shouldLimitBurstsAcrossWindowBoundary() throws Exception {
+        when(rateLimiterConfig.getAlgorithm()).thenReturn(RateLimitAlgorithm.SLIDING_WINDOW);
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(10);
+        when(rateLimiterKey.getKey()).thenReturn("Key8");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
+        AtomicLong now = new AtomicLong(10_000_900L);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment, now::get);
+        stubSlidingWindowScript("2000");
+
+        // a burst at the end of one window...
+        assertThat(allowedRequestsOf(10), is(10));
+
+        // ...followed by a burst at the start of the next is mostly rejected, where a fixed
+        // window would allow another 10 requests
+        now.set(10_001_100L);
+        assertThat(allowedRequestsOf(10), is(1));
+
+        RateLimitException rateLimitException = assertThrows(RateLimitException.class, () -> redisRateLimiter.checkRateOf(accountId, rateLimiterKey));
+        assertThat(rateLimitException.getStatus().remaining(), is(0L));
+        assertThat(rateLimitException.getStatus().resetInSeconds(), is(1L));
+    }
+
+    @Test
+    void slidingWindow_shouldAllowFullLimitOncePreviousWindowHasSlidOut() throws Exception {
+        when(rateLimiterConfig.getAlgorithm()).thenReturn(RateLimitAlgorithm.SLIDING_WINDOW);
+        when(rateLimiterConfig.getNoOfReq()).thenReturn(10);
+        when(rateLimiterKey.getKey()).thenReturn("Key9");
+        when(rateLimiterConfig.getPerMillis()).thenReturn(1000);
+        AtomicLong now = new AtomicLong(10_000_000L);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment, now::get);
+        stubSlidingWindowScript("2000");
+
+        assertThat(allowedRequestsOf(10), is(10));
+
+        now.set(10_002_000L);
+        assertThat(allowedRequestsOf(15), is(10));
+    }
+
+    @Test
+    void slidingWindow_shouldRateLimitPostRequestsForLowTrafficAccounts() throws Exception {
+        when(rateLimiterConfig.getAlgorithm()).thenReturn(RateLimitAlgorithm.SLIDING_WINDOW);
+        when(rateLimiterConfig.getLowTrafficAccounts()).thenReturn(List.of(accountId));
+        when(rateLimiterConfig.getNoOfPostReqForLowTrafficAccounts()).thenReturn(3);
+        when(rateLimiterConfig.getIntervalInMillisForLowTrafficAccounts()).thenReturn(60000);
+        when(rateLimiterKey.getMethod()).thenReturn("POST");
+        when(rateLimiterKey.getKey()).thenReturn("POST-capture-account1");
+        AtomicLong now = new AtomicLong(59_000L);
+        redisRateLimiter = new RedisRateLimiter(rateLimiterConfig, new AccountTiersProvider(rateLimiterConfig), redisClientManager, environment, now::get);
+        stubSlidingWindowScript("120000");
+
+        assertThat(allowedRequestsOf(3), is(3));
+
+        // half way through the next minute, half of the previous minute's requests still count
+        now.set(90_000L);
+        assertThat(allowedRequestsOf(3), is(2));
+    }
+
+    /**
+     * Stubs {@link RedisRateLimiter#SLIDING_WINDOW_SCRIPT} with an in-memory equivalent
+     */
+    private void stubSlidingWindowScript(String expectedTtlInMillis) {
+        Map<String, Long> counters = new HashMap<>();
+        when(redisCommands.evalsha(eq(RedisRateLimiter.SLIDING_WINDOW_SCRIPT_SHA), eq(ScriptOutputType.MULTI), any(String[].class), eq(expectedTtlInMillis), eq("1")))
+                .thenAnswer(invocation -> {
+                    String[] keys = invocation.getArgument(2);
+                    long current = counters.merge(keys[0], 1L, Long::sum);
+                    return completed(List.of(current, counters.getOrDefault(keys[1], 0L)));
+                });
+    }
+
+    private int allowedRequestsOf(int numberOfRequests) throws RedisException {
+        int allowed = 0;
+        for (int i = 0; i < numberOfRequests; i++) {
+            try {
+                redisRateLimiter.checkRateOf(accountId, rateLimiterKey);
+                allowed++;
+            } catch (RateLimitException e) {
+                // rejected
+            }
+        }
+        return allowed;
+    }
+
+    private static <T> RedisFuture<T> completed(T value) {
+        TestRedisFuture<T> future = new TestRedisFuture<>();
+        future.complete(value);
+        return future;
+    }
+
+    private static <T> RedisFuture<T> failed(Throwable cause) {
+        TestRedisFuture<T> future = new TestRedisFuture<>();
+        future.completeExceptionally(cause);
+        return future;
+    }
+
+    private static class TestRedisFuture<T> extends CompletableFuture<T> implements RedisFuture<T> {
+
+        @Override
+        public String getError() {
+            return null;
+        }
+
+        @Override
+        public boolean await(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
 }
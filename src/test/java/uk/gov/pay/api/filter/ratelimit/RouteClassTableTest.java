@@ -0,0 +1,57 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import uk.gov.pay.api.app.config.RateLimitRouteClass;
+import uk.gov.pay.api.app.config.RateLimiterConfig;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class RouteClassTableTest {
+
+    private final RouteClassTable defaultRouteClassTable = new RouteClassTable(new RateLimiterConfig().getRouteClasses());
+
+    @ParameterizedTest
+    @MethodSource("defaultRouteClasses")
+    void matchesDefaultRouteClasses(String path, String method, String routeClass) {
+        assertThat(defaultRouteClassTable.match(method, path).map(RateLimitRouteClass::getName).orElse(""), is(routeClass));
+    }
+
+    static Stream<Arguments> defaultRouteClasses() {
+        return Stream.of(
+                arguments("/v1/payments", "POST", "create_payment"),
+                arguments("/v1/payments/", "POST", "create_payment"),
+                arguments("v1/payments", "POST", "create_payment"),
+                arguments("/v1/payments/paymentId/capture", "POST", "capture_payment"),
+                arguments("/v1/payments/paymentId/capture/", "POST", "capture_payment"),
+                arguments("/v1/payments/paymentId/cancel", "POST", ""),
+                arguments("/v1/payments/paymentId/capture/extra", "POST", ""),
+                arguments("/v1/payments", "GET", "search_payments"),
+                arguments("/v1/payments/paymentId", "GET", ""),
+                arguments("/v1/transactions", "GET", "search_transactions"),
+                arguments("/v1/refunds", "GET", "search_refunds"),
+                arguments("/v1/disputes", "GET", "search_disputes"),
+                arguments("/v1/agreements", "GET", "search_agreements"),
+                arguments("", "GET", "")
+        );
+    }
+
+    @Test
+    void prefersLiteralSegmentsOverPathParameters() {
+        RouteClassTable routeClassTable = new RouteClassTable(List.of(
+                new RateLimitRouteClass("get_payment", "GET", "/v1/payments/{paymentId}", 1, false),
+                new RateLimitRouteClass("get_events", "GET", "/v1/payments/{paymentId}/events", 2, false),
+                new RateLimitRouteClass("get_special", "GET", "/v1/payments/special", 3, false)));
+
+        assertThat(routeClassTable.match("GET", "/v1/payments/special").get().getName(), is("get_special"));
+        assertThat(routeClassTable.match("GET", "/v1/payments/other").get().getName(), is("get_payment"));
+        assertThat(routeClassTable.match("GET", "/v1/payments/special/events").get().getName(), is("get_events"));
+    }
+}
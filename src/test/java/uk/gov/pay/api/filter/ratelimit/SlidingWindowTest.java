@@ -0,0 +1,40 @@
+package uk.gov.pay.api.filter.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+class SlidingWindowTest {
+
+    @Test
+    void shouldUseCurrentAndPreviousWindowKeys() {
+        SlidingWindow window = SlidingWindow.at("POST-account", 1000, 5_250L);
+
+        assertThat(window.currentKey(), is("POST-account-5"));
+        assertThat(window.previousKey(), is("POST-account-4"));
+        assertThat(window.previousWeight(), is(0.75));
+    }
+
+    @Test
+    void shouldCountAllOfPreviousWindowAtStartOfWindow() {
+        SlidingWindow window = SlidingWindow.at("key", 1000, 5_000L);
+
+        assertThat(window.estimateCount(1, 10), is(11L));
+    }
+
+    @Test
+    void shouldCountLessOfPreviousWindowAsWindowProgresses() {
+        assertThat(SlidingWindow.at("key", 1000, 5_500L).estimateCount(1, 10), is(6L));
+        assertThat(SlidingWindow.at("key", 1000, 5_999L).estimateCount(1, 10), is(1L));
+    }
+
+    @Test
+    void shouldUseWindowsOfTheRateLimitInterval() {
+        SlidingWindow window = SlidingWindow.at("key", 60000, 150_000L);
+
+        assertThat(window.currentKey(), is("key-2"));
+        assertThat(window.previousKey(), is("key-1"));
+        assertThat(window.previousWeight(), is(0.5));
+    }
+}
@@ -0,0 +1,152 @@
+package uk.gov.pay.api.it;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.google.common.collect.ImmutableMap;
+import io.dropwizard.testing.DropwizardTestSupport;
+import io.restassured.response.ValidatableResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import uk.gov.pay.api.app.PublicApi;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.model.PaymentState;
+import uk.gov.pay.api.utils.ApiKeyGenerator;
+import uk.gov.pay.api.utils.JsonStringBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static io.dropwizard.testing.ConfigOverride.config;
+import static io.dropwizard.testing.ResourceHelpers.resourceFilePath;
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.HttpHeaders.AUTHORIZATION;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static java.lang.String.format;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Checks that {@code GET /v1/payments/{paymentId}} answers correctly with asynchronous resources enabled when
+ * there are more concurrent requests than Jetty threads. {@code AsyncResourcesBenchmark} in {@code benchmarks}
+ * compares throughput with and without them.
+ */
+class AsyncPaymentsResourceIT {
+
+    private static final int JETTY_MAX_THREADS = 12;
+    private static final int CLIENT_ASYNC_THREADS = 50;
+    private static final int CONCURRENT_REQUESTS = 50;
+    private static final int CONNECTOR_LATENCY_MILLIS = 250;
+
+    private final String accountId = "123";
+    private final String bearerToken = ApiKeyGenerator.apiKeyValueOf("TEST_BEARER_TOKEN", "qwer9yuhgf");
+
+    @RegisterExtension
+    private static final WireMockExtension publicAuthServer = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().containerThreads(CONCURRENT_REQUESTS + 10))
+            .build();
+
+    @RegisterExtension
+    private static final WireMockExtension connectorServer = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().containerThreads(CONCURRENT_REQUESTS + 10))
+            .build();
+
+    private DropwizardTestSupport<PublicApiConfig> app;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() throws Exception {
+        setUpMockForPublicAuth();
+        setUpMockForConnector();
+        executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        app = new DropwizardTestSupport<>(
+                PublicApi.class,
+                resourceFilePath("config/test-config.yaml"),
+                config("server.minThreads", String.valueOf(JETTY_MAX_THREADS)),
+                config("server.maxThreads", String.valueOf(JETTY_MAX_THREADS)),
+                config("server.applicationConnectors[0].acceptorThreads", "1"),
+                config("server.applicationConnectors[0].selectorThreads", "1"),
+                config("asyncResourcesEnabled", "true"),
+                config("getPaymentHedging.enabled", "false"),
+                config("jerseyClientConfig.connector.asyncThreadPoolSize", String.valueOf(CLIENT_ASYNC_THREADS)),
+                config("publicAuthUrl", publicAuthServer.baseUrl() + "/v1/api/auth"),
+                config("authenticationCachePolicy", "expireAfterWrite=1m"),
+                config("rateLimiter.noOfReq", "100000"),
+                config("rateLimiter.noOfReqPerNode", "100000"),
+                config("connectorUrl", connectorServer.baseUrl())
+        );
+        app.before();
+    }
+
+    @AfterEach
+    void stopApp() {
+        executor.shutdownNow();
+        app.after();
+    }
+
+    @Test
+    void shouldServeEveryConcurrentRequest_withMoreRequestsThanJettyThreads() throws Exception {
+        Callable<ValidatableResponse> request = () -> given().port(app.getLocalPort())
+                .header(AUTHORIZATION, "Bearer " + bearerToken)
+                .get("/v1/payments/paymentId")
+                .then();
+
+        List<Future<ValidatableResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(executor.submit(request));
+        }
+        for (Future<ValidatableResponse> response : responses) {
+            response.get(60, TimeUnit.SECONDS)
+                    .statusCode(200)
+                    .body("payment_id", is("chargeId"))
+                    .body("amount", is(100))
+                    .body("state.status", is("created"));
+        }
+    }
+
+    private void setUpMockForConnector() {
+        connectorServer.stubFor(get(urlEqualTo(format("/v1/api/accounts/%s/charges/paymentId", accountId)))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(CONNECTOR_LATENCY_MILLIS)
+                        .withHeader("Content-Type", APPLICATION_JSON)
+                        .withBody(aPayment())));
+    }
+
+    private void setUpMockForPublicAuth() throws JsonProcessingException {
+        Map<String, String> entity = ImmutableMap.of("account_id", accountId, "token_type", "CARD");
+        String json = new ObjectMapper().writeValueAsString(entity);
+        publicAuthServer.stubFor(get(urlEqualTo("/v1/api/auth"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", APPLICATION_JSON)
+                        .withBody(json)));
+    }
+
+    private String aPayment() {
+        JsonStringBuilder jsonStringBuilder = new JsonStringBuilder()
+                .add("charge_id", "chargeId")
+                .add("amount", 100)
+                .add("language", "en")
+                .add("reference", "ref 12")
+                .add("state", new PaymentState("created", false, null, null))
+                .add("email", "test@example.com")
+                .add("description", "description")
+                .add("return_url", "http://example.com")
+                .add("payment_provider", "sandbox")
+                .add("card_brand", "VISA")
+                .add("created_date", "2018-07-25T13:12:00");
+        return jsonStringBuilder.build();
+    }
+}
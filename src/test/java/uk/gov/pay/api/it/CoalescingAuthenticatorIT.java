@@ -0,0 +1,154 @@
+package uk.gov.pay.api.it;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.google.common.collect.ImmutableMap;
+import io.dropwizard.testing.DropwizardTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import uk.gov.pay.api.app.PublicApi;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.model.PaymentState;
+import uk.gov.pay.api.utils.ApiKeyGenerator;
+import uk.gov.pay.api.utils.JsonStringBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static io.dropwizard.testing.ConfigOverride.config;
+import static io.dropwizard.testing.ResourceHelpers.resourceFilePath;
+import static io.restassured.RestAssured.given;
+import static jakarta.ws.rs.core.HttpHeaders.AUTHORIZATION;
+import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static java.lang.String.format;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static uk.gov.pay.api.model.TokenPaymentType.CARD;
+
+class CoalescingAuthenticatorIT {
+
+    private static final int CONCURRENT_REQUESTS = 100;
+
+    private final String accountId = "123";
+    private final String bearerToken = ApiKeyGenerator.apiKeyValueOf("TEST_BEARER_TOKEN", "qwer9yuhgf");
+
+    @RegisterExtension
+    private static final WireMockExtension publicAuthServer = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().containerThreads(CONCURRENT_REQUESTS + 10))
+            .build();
+
+    @RegisterExtension
+    private static final WireMockExtension connectorServer = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().containerThreads(CONCURRENT_REQUESTS + 10))
+            .build();
+
+    private static DropwizardTestSupport<PublicApiConfig> app;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() throws Exception {
+        setUpMockForPublicAuth();
+        setUpMockForConnector();
+        app = new DropwizardTestSupport<>(
+                PublicApi.class,
+                resourceFilePath("config/test-config.yaml"),
+                config("publicAuthUrl", publicAuthServer.baseUrl() + "/v1/api/auth"),
+                config("authenticationCachePolicy", "expireAfterWrite=3s"),
+                config("rateLimiter.noOfReqPerNode", "1000"),
+                config("connectorUrl", connectorServer.baseUrl())
+        );
+        app.before();
+        executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+    }
+
+    @AfterEach
+    void stopApp() {
+        executor.shutdownNow();
+        app.after();
+    }
+
+    @Test
+    void concurrentRequestsWithTheSameApiKeyShouldShareOneAuthenticationRequest() throws Exception {
+        makeConcurrentRequests();
+
+        publicAuthServer.verify(1, getRequestedFor(urlEqualTo("/v1/api/auth")));
+    }
+
+    @Test
+    void concurrentRequestsShouldShareOneAuthenticationRequestEachTimeTheCacheExpires() throws Exception {
+        makeConcurrentRequests();
+        Thread.sleep(3000); //expireAfterWrite is set to 3 seconds in app config
+        makeConcurrentRequests();
+
+        publicAuthServer.verify(2, getRequestedFor(urlEqualTo("/v1/api/auth")));
+    }
+
+    private void makeConcurrentRequests() throws Exception {
+        Callable<Integer> request = () -> given().port(app.getLocalPort())
+                .header(AUTHORIZATION, "Bearer " + bearerToken)
+                .get("/v1/payments/paymentId")
+                .statusCode();
+
+        List<Future<Integer>> statusCodes = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            statusCodes.add(executor.submit(request));
+        }
+        for (Future<Integer> statusCode : statusCodes) {
+            assertThat(statusCode.get(30, TimeUnit.SECONDS), is(200));
+        }
+    }
+
+    private void setUpMockForConnector() {
+        connectorServer.stubFor(get(urlEqualTo(format("/v1/api/accounts/%s/charges/paymentId", accountId)))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", APPLICATION_JSON)
+                        .withBody(aPayment())));
+    }
+
+    private void setUpMockForPublicAuth() throws JsonProcessingException {
+        Account account = new Account(accountId, CARD, "some-token-link");
+        Map<String, String> entity = ImmutableMap.of("account_id", account.accountId(), "token_type", account.paymentType().name());
+        String json = new ObjectMapper().writeValueAsString(entity);
+        publicAuthServer.stubFor(get(urlEqualTo("/v1/api/auth"))
+                .withHeader(AUTHORIZATION, equalTo("Bearer " + bearerToken))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(500) // so that the concurrent requests all miss the cache while the first is being authenticated
+                        .withHeader("Content-Type", APPLICATION_JSON)
+                        .withBody(json)));
+    }
+
+    private String aPayment() {
+        JsonStringBuilder jsonStringBuilder = new JsonStringBuilder()
+                .add("charge_id", "chargeId")
+                .add("amount", 100)
+                .add("language", "en")
+                .add("reference", "ref 12")
+                .add("state", new PaymentState("created", false, null, null))
+                .add("email", "test@example.com")
+                .add("description", "description")
+                .add("return_url", "http://example.com")
+                .add("payment_provider", "sandbox")
+                .add("card_brand", "VISA")
+                .add("created_date", "2018-07-25T13:12:00");
+        return jsonStringBuilder.build();
+    }
+}
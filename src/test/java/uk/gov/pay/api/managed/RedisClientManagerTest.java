@@ -0,0 +1,59 @@
+package uk.gov.pay.api.managed;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionException;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RedisClientManagerTest {
+
+    @Mock
+    private RedisClient redisClient;
+
+    @Mock
+    private StatefulRedisConnection<String, String> connection;
+
+    private RedisClientManager redisClientManager;
+
+    @BeforeEach
+    void setUp() {
+        redisClientManager = new RedisClientManager(redisClient);
+    }
+
+    @Test
+    void shouldConnectOnStart() {
+        when(redisClient.connect()).thenReturn(connection);
+        when(connection.isOpen()).thenReturn(true);
+
+        redisClientManager.start();
+
+        assertThat(redisClientManager.isConnected(), is(true));
+        assertThat(redisClientManager.getRedisConnection(), is(sameInstance(connection)));
+        verify(redisClient, times(1)).connect();
+    }
+
+    @Test
+    void shouldStartAndConnectOnFirstUse_whenRedisIsUnavailableOnStart() {
+        when(redisClient.connect())
+                .thenThrow(new RedisConnectionException("Connection refused"))
+                .thenReturn(connection);
+
+        redisClientManager.start();
+        assertThat(redisClientManager.isConnected(), is(false));
+
+        assertThat(redisClientManager.getRedisConnection(), is(sameInstance(connection)));
+        verify(redisClient, times(2)).connect();
+    }
+}
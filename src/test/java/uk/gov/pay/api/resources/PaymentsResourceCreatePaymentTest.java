@@ -1,12 +1,14 @@
 package uk.gov.pay.api.resources;
 
+import com.codahale.metrics.MetricRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.PublicApiConfig;
 import uk.gov.pay.api.auth.Account;
 import uk.gov.pay.api.model.Address;
 import uk.gov.pay.api.model.CardDetails;
@@ -23,30 +25,34 @@ import uk.gov.pay.api.service.CapturePaymentService;
 import uk.gov.pay.api.service.CreatePaymentService;
 import uk.gov.pay.api.service.GetPaymentEventsService;
 import uk.gov.pay.api.service.GetPaymentService;
+import uk.gov.pay.api.service.PaymentResponseCache;
 import uk.gov.pay.api.service.PaymentSearchService;
+import uk.gov.pay.api.service.PaymentStateWatcher;
 import uk.gov.pay.api.service.PublicApiUriGenerator;
 import uk.gov.service.payments.commons.model.AuthorisationMode;
 import uk.gov.service.payments.commons.model.SupportedLanguage;
 
+import jakarta.ws.rs.container.AsyncResponse;
 import jakarta.ws.rs.core.Response;
 import java.net.URI;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 import static org.apache.http.HttpHeaders.CACHE_CONTROL;
 import static org.apache.http.HttpHeaders.PRAGMA;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.pay.api.model.CreatedPaymentWithAllLinks.WhenCreated.BRAND_NEW;
 
 @ExtendWith(MockitoExtension.class)
 public class PaymentsResourceCreatePaymentTest {
 
-    @InjectMocks
-    private PaymentsResource paymentsResource;
-
     @Mock
     private CreatePaymentService createPaymentService;
 
@@ -68,6 +74,18 @@ public class PaymentsResourceCreatePaymentTest {
     @Mock
     private GetPaymentEventsService getPaymentEventsService;
 
+    @Mock
+    private PaymentResponseCache paymentResponseCache;
+
+    @Mock
+    private PaymentStateWatcher paymentStateWatcher;
+
+    @Mock
+    private PublicApiConfig configuration;
+
+    @Mock
+    private AsyncResponse asyncResponse;
+
     private final String PAYMENT_URI = "https://my.link/v1/payments/abc123";
 
     @BeforeEach
@@ -90,8 +108,9 @@ public class PaymentsResourceCreatePaymentTest {
 
         when(createPaymentService.create(account, createPaymentRequest, null)).thenReturn(payment);
 
-        Response newPayment = paymentsResource.createNewPayment(account, createPaymentRequest, null);
+        paymentsResource().createNewPayment(account, createPaymentRequest, null, asyncResponse);
 
+        Response newPayment = resumedResponse();
         assertThat(newPayment.getHeaderString(PRAGMA), is("no-cache"));
         assertThat(newPayment.getHeaderString(CACHE_CONTROL), is("no-store"));
         assertThat(newPayment.getStatus(), is(201));
@@ -99,6 +118,45 @@ public class PaymentsResourceCreatePaymentTest {
         assertThat(newPayment.getEntity(), sameInstance(injectedResponse));
     }
 
+    @Test
+    void createNewPayment_whenAsyncResourcesEnabled_resumesWithResponseWhenConnectorResponds() {
+        Account account = new Account("foo", TokenPaymentType.CARD, "a-token-link");
+        var createPaymentRequest = CreateCardPaymentRequestBuilder.builder()
+                .amount(100)
+                .returnUrl("https://somewhere.test")
+                .reference("my_ref")
+                .description("New passport")
+                .build();
+
+        PaymentWithAllLinks injectedResponse = aSuccessfullyCreatedPayment();
+        CompletableFuture<CreatedPaymentWithAllLinks> connectorResponse = new CompletableFuture<>();
+
+        when(configuration.isAsyncResourcesEnabled()).thenReturn(true);
+        when(createPaymentService.createAsync(account, createPaymentRequest, null)).thenReturn(connectorResponse);
+
+        paymentsResource().createNewPayment(account, createPaymentRequest, null, asyncResponse);
+        verify(asyncResponse, never()).resume(any(Object.class));
+
+        connectorResponse.complete(CreatedPaymentWithAllLinks.of(injectedResponse, BRAND_NEW));
+
+        Response newPayment = resumedResponse();
+        assertThat(newPayment.getStatus(), is(201));
+        assertThat(newPayment.getLocation(), is(URI.create(PAYMENT_URI)));
+        assertThat(newPayment.getEntity(), sameInstance(injectedResponse));
+    }
+
+    private PaymentsResource paymentsResource() {
+        return new PaymentsResource(createPaymentService, paymentSearchService, publicApiUriGenerator, getPaymentService,
+                capturePaymentService, cancelPaymentService, getPaymentEventsService, paymentResponseCache, paymentStateWatcher, configuration,
+                new MetricRegistry());
+    }
+
+    private Response resumedResponse() {
+        ArgumentCaptor<Object> response = ArgumentCaptor.forClass(Object.class);
+        verify(asyncResponse).resume(response.capture());
+        return (Response) response.getValue();
+    }
+
     @NotNull
     private PaymentWithAllLinks aSuccessfullyCreatedPayment() {
         final Address cardholderAddress = new Address("123 Acacia Ave", "", "", "London", "GB");
@@ -0,0 +1,223 @@
+package uk.gov.pay.api.resources;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import io.dropwizard.jackson.Jackson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.PublicApiConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.PaymentValidationException;
+import uk.gov.pay.api.model.PaymentState;
+import uk.gov.pay.api.model.TokenPaymentType;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+import uk.gov.pay.api.service.CancelPaymentService;
+import uk.gov.pay.api.service.CapturePaymentService;
+import uk.gov.pay.api.service.CreatePaymentService;
+import uk.gov.pay.api.service.GetPaymentEventsService;
+import uk.gov.pay.api.service.GetPaymentService;
+import uk.gov.pay.api.service.PaymentResponseCache;
+import uk.gov.pay.api.service.PaymentSearchService;
+import uk.gov.pay.api.service.PaymentStateWatcher;
+import uk.gov.pay.api.service.PublicApiUriGenerator;
+
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Response;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentsResourceGetPaymentTest {
+
+    private static final String PAYMENT_ID = "abc123";
+    private static final String PAYMENT_URI = "https://my.link/v1/payments/" + PAYMENT_ID;
+
+    private final Account account = new Account("foo", TokenPaymentType.CARD, "a-token-link");
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final PaymentResponseCache paymentResponseCache =
+            new PaymentResponseCache(CaffeineSpec.parse("maximumSize=100"), Jackson.newObjectMapper(), metricRegistry);
+
+    @Mock
+    private GetPaymentService getPaymentService;
+
+    @Mock
+    private PaymentStateWatcher paymentStateWatcher;
+
+    @Mock
+    private PublicApiConfig configuration;
+
+    @Test
+    void getPayment_shouldReturnAStrongEntityTag() {
+        when(getPaymentService.getPayment(account, PAYMENT_ID)).thenReturn(aPayment(new PaymentState("started", false)));
+
+        Response response = getPayment(null);
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getEntityTag(), is(notNullValue()));
+        assertThat(response.getEntityTag().isWeak(), is(false));
+    }
+
+    @Test
+    void getPayment_shouldAnswerPollsForAFinishedPaymentThatHasNotChangedFromTheCache() {
+        when(getPaymentService.getPayment(account, PAYMENT_ID)).thenReturn(aPayment(new PaymentState("success", true)));
+
+        EntityTag entityTag = getPayment(null).getEntityTag();
+        Response response = getPayment("\"" + entityTag.getValue() + "\"");
+
+        assertThat(response.getStatus(), is(304));
+        assertThat(response.getEntity(), is(nullValue()));
+        assertThat(response.getEntityTag(), is(entityTag));
+        verify(getPaymentService, times(1)).getPayment(account, PAYMENT_ID);
+        assertThat(metricRegistry.meter("finished_payment_cache.hits").getCount(), is(1L));
+        assertThat(metricRegistry.meter("get_payment.responses.not_modified").getCount(), is(1L));
+    }
+
+    @Test
+    void getPayment_shouldNotCachePaymentsThatAreNotFinished() {
+        when(getPaymentService.getPayment(account, PAYMENT_ID)).thenReturn(aPayment(new PaymentState("started", false)));
+
+        EntityTag entityTag = getPayment(null).getEntityTag();
+        Response response = getPayment("W/\"" + entityTag.getValue() + "\"");
+
+        assertThat(response.getStatus(), is(304));
+        verify(getPaymentService, times(2)).getPayment(account, PAYMENT_ID);
+    }
+
+    @Test
+    void getPayment_shouldFetchTheFinishedPaymentAgainOnceItIsInvalidated() {
+        when(getPaymentService.getPayment(account, PAYMENT_ID)).thenReturn(aPayment(new PaymentState("success", true)));
+
+        getPayment(null);
+        paymentResponseCache.invalidate(account, PAYMENT_ID);
+        Response response = getPayment("\"some-other-tag\"");
+
+        assertThat(response.getStatus(), is(200));
+        verify(getPaymentService, times(2)).getPayment(account, PAYMENT_ID);
+    }
+
+    @Test
+    void matchesEntityTag_shouldUseWeakComparisonAndAcceptListsAndWildcards() {
+        EntityTag entityTag = new EntityTag("abc");
+
+        assertThat(PaymentsResource.matchesEntityTag("\"abc\"", entityTag), is(true));
+        assertThat(PaymentsResource.matchesEntityTag("W/\"abc\"", entityTag), is(true));
+        assertThat(PaymentsResource.matchesEntityTag("\"xyz\", \"abc\"", entityTag), is(true));
+        assertThat(PaymentsResource.matchesEntityTag("*", entityTag), is(true));
+        assertThat(PaymentsResource.matchesEntityTag("\"xyz\"", entityTag), is(false));
+        assertThat(PaymentsResource.matchesEntityTag("abc", entityTag), is(false));
+        assertThat(PaymentsResource.matchesEntityTag(null, entityTag), is(false));
+    }
+
+    @Test
+    void getPayment_shouldWaitForTheStateToChange_whenWaitForStateChangeIsGiven() {
+        when(paymentStateWatcher.getMaxWait()).thenReturn(Duration.ofSeconds(25));
+        when(paymentStateWatcher.waitForStateChange(account, PAYMENT_ID, "started", Duration.ofSeconds(20)))
+                .thenReturn(completedFuture(aPayment(new PaymentState("submitted", false))));
+        AsyncResponse asyncResponse = mock(AsyncResponse.class);
+
+        paymentsResource().getPayment(account, PAYMENT_ID, null, null, "20", "started", asyncResponse);
+
+        verify(asyncResponse).setTimeout(55_000, TimeUnit.MILLISECONDS);
+        ArgumentCaptor<Object> response = ArgumentCaptor.forClass(Object.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(((Response) response.getValue()).getStatus(), is(200));
+        verifyNoInteractions(getPaymentService);
+    }
+
+    @Test
+    void getPayment_shouldTimeTheRequestUntilTheResponseIsResumed() {
+        when(paymentStateWatcher.getMaxWait()).thenReturn(Duration.ofSeconds(25));
+        CompletableFuture<PaymentWithAllLinks> watch = new CompletableFuture<>();
+        when(paymentStateWatcher.waitForStateChange(account, PAYMENT_ID, "started", Duration.ofSeconds(20))).thenReturn(watch);
+        AsyncResponse asyncResponse = mock(AsyncResponse.class);
+        Timer timer = metricRegistry.timer("uk.gov.pay.api.resources.PaymentsResource.getPayment");
+
+        paymentsResource().getPayment(account, PAYMENT_ID, null, null, "20", "started", asyncResponse);
+        assertThat(timer.getCount(), is(0L));
+
+        watch.complete(aPayment(new PaymentState("submitted", false)));
+        assertThat(timer.getCount(), is(1L));
+    }
+
+    @Test
+    void getPayment_shouldNotWaitForAFinishedPaymentThatIsCached() {
+        when(getPaymentService.getPayment(account, PAYMENT_ID)).thenReturn(aPayment(new PaymentState("success", true)));
+        getPayment(null);
+
+        Response response = getPayment(null, "20", "started");
+
+        assertThat(response.getStatus(), is(200));
+        verifyNoInteractions(paymentStateWatcher);
+    }
+
+    @Test
+    void getPayment_shouldRejectAWaitForStateChangeThatIsNotANumberOfSeconds() {
+        for (String waitForStateChange : List.of("soon", "-1", "1.5", "")) {
+            AsyncResponse asyncResponse = mock(AsyncResponse.class);
+            paymentsResource().getPayment(account, PAYMENT_ID, null, null, waitForStateChange, null, asyncResponse);
+
+            ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+            verify(asyncResponse).resume(error.capture());
+            assertThat(error.getValue(), is(instanceOf(PaymentValidationException.class)));
+            assertThat(((PaymentValidationException) error.getValue()).getRequestError().getCode(), is("P0201"));
+        }
+        verifyNoInteractions(paymentStateWatcher);
+    }
+
+    private Response getPayment(String ifNoneMatch) {
+        return getPayment(ifNoneMatch, null, null);
+    }
+
+    private Response getPayment(String ifNoneMatch, String waitForStateChange, String knownStatus) {
+        AsyncResponse asyncResponse = mock(AsyncResponse.class);
+        paymentsResource().getPayment(account, PAYMENT_ID, null, ifNoneMatch, waitForStateChange, knownStatus, asyncResponse);
+        ArgumentCaptor<Object> response = ArgumentCaptor.forClass(Object.class);
+        verify(asyncResponse).resume(response.capture());
+        return (Response) response.getValue();
+    }
+
+    private PaymentsResource paymentsResource() {
+        return new PaymentsResource(mock(CreatePaymentService.class), mock(PaymentSearchService.class),
+                mock(PublicApiUriGenerator.class), getPaymentService, mock(CapturePaymentService.class),
+                mock(CancelPaymentService.class), mock(GetPaymentEventsService.class), paymentResponseCache,
+                paymentStateWatcher, configuration, metricRegistry);
+    }
+
+    private static PaymentWithAllLinks aPayment(PaymentState state) {
+        return new PaymentWithAllLinks.PaymentWithAllLinksBuilder()
+                .withChargeId(PAYMENT_ID)
+                .withAmount(100L)
+                .withState(state)
+                .withDescription("New Passport")
+                .withReference("my_ref")
+                .withCreatedDate("2018-01-01T11:12:13Z")
+                .withPaymentConnectorResponseLinks(Collections.emptyList())
+                .withSelfLink(URI.create(PAYMENT_URI))
+                .withPaymentEventsUri(URI.create(PAYMENT_URI + "/events"))
+                .withPaymentCancelUri(URI.create(PAYMENT_URI + "/cancel"))
+                .withPaymentRefundsUri(URI.create(PAYMENT_URI + "/refunds"))
+                .withPaymentCaptureUri(URI.create(PAYMENT_URI + "/capture"))
+                .build();
+    }
+}
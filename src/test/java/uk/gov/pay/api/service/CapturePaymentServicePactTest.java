@@ -36,13 +36,16 @@ public class CapturePaymentServicePactTest {
     @Mock
     private PublicApiConfig mockConfiguration;
 
+    @Mock
+    private PaymentResponseCache paymentResponseCache;
+
     @Before
     public void setup() {
         when(mockConfiguration.getConnectorUrl()).thenReturn(connectorRule.getUrl());
 
         ConnectorUriGenerator connectorUriGenerator = new ConnectorUriGenerator(mockConfiguration);
         Client client = RestClientFactory.buildClient(new RestClientConfig(false));
-        capturePaymentService = new CapturePaymentService(client, connectorUriGenerator);
+        capturePaymentService = new CapturePaymentService(client, connectorUriGenerator, paymentResponseCache);
     }
 
     @Test
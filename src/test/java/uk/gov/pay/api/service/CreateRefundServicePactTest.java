@@ -39,6 +39,9 @@ public class CreateRefundServicePactTest {
     @Mock
     private GetPaymentService getPaymentService;
 
+    @Mock
+    private PaymentResponseCache paymentResponseCache;
+
     private Account account;
 
     @Before
@@ -48,7 +51,7 @@ public class CreateRefundServicePactTest {
 
         Client client = RestClientFactory.buildClient(new RestClientConfig(false));
         
-        createRefundService = new CreateRefundService(getPaymentService, client, configuration);
+        createRefundService = new CreateRefundService(getPaymentService, paymentResponseCache, client, configuration);
         account = new Account("123456", TokenPaymentType.CARD, "a-token-link");
     }
 
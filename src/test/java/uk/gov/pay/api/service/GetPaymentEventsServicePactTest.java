@@ -1,6 +1,8 @@
 package uk.gov.pay.api.service;
 
 import au.com.dius.pact.consumer.junit.PactVerification;
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -51,7 +53,9 @@ public class GetPaymentEventsServicePactTest {
         LedgerService ledgerService = new LedgerService(client, ledgerUriGenerator);
         ConnectorService connectorService = new ConnectorService(client, connectorUriGenerator);
 
-        getPaymentEventsService = new GetPaymentEventsService(publicApiUriGenerator, connectorService, ledgerService);
+        PaymentLocationHintCache paymentLocationHintCache = new PaymentLocationHintCache(CaffeineSpec.parse("maximumSize=100"), new MetricRegistry());
+
+        getPaymentEventsService = new GetPaymentEventsService(publicApiUriGenerator, connectorService, ledgerService, paymentLocationHintCache);
     }
 
     @Test
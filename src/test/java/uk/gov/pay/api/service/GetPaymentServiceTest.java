@@ -0,0 +1,265 @@
+package uk.gov.pay.api.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.GetPaymentHedgingConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.GetChargeException;
+import uk.gov.pay.api.exception.GetTransactionException;
+import uk.gov.pay.api.model.Charge;
+import uk.gov.pay.api.model.ChargeFromResponse;
+import uk.gov.pay.api.model.TokenPaymentType;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import jakarta.ws.rs.ProcessingException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GetPaymentServiceTest {
+
+    private static final String PAYMENT_ID = "a-payment-id";
+
+    private final Account account = new Account("an-account-id", TokenPaymentType.CARD, "a-token-link");
+
+    @Mock
+    private PublicApiUriGenerator publicApiUriGenerator;
+
+    @Mock
+    private ConnectorService connectorService;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    private final PaymentLocationHintCache paymentLocationHintCache =
+            new PaymentLocationHintCache(CaffeineSpec.parse("maximumSize=100"), metricRegistry);
+
+    @Test
+    void getPaymentAsync_shouldFallBackToLedgerWhenConnectorCannotGetTheCharge() {
+        GetTransactionException ledgerException = mock(GetTransactionException.class);
+        when(connectorService.getChargeAsync(account, PAYMENT_ID)).thenReturn(failedFuture(mock(GetChargeException.class)));
+        when(ledgerService.getPaymentTransactionAsync(account, PAYMENT_ID)).thenReturn(failedFuture(ledgerException));
+
+        var getPaymentService = new GetPaymentService(publicApiUriGenerator, connectorService, ledgerService);
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> getPaymentService.getPaymentAsync(account, PAYMENT_ID).toCompletableFuture().join());
+
+        assertThat(thrown.getCause(), sameInstance(ledgerException));
+    }
+
+    @Test
+    void getPaymentAsync_shouldNotFallBackToLedgerWhenConnectorIsUnreachable() {
+        when(connectorService.getChargeAsync(account, PAYMENT_ID)).thenReturn(failedFuture(new ProcessingException("Connection refused")));
+
+        var getPaymentService = new GetPaymentService(publicApiUriGenerator, connectorService, ledgerService);
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> getPaymentService.getPaymentAsync(account, PAYMENT_ID).toCompletableFuture().join());
+
+        assertThat(thrown.getCause(), instanceOf(ProcessingException.class));
+        verifyNoInteractions(ledgerService);
+    }
+
+    @Test
+    void getPayment_shouldAskLedgerAsWellWhenConnectorIsSlowAndUseLedgerIfConnectorDoesNotHaveThePayment() {
+        CompletableFuture<Charge> fromConnector = new CompletableFuture<>();
+        when(connectorService.getChargeAsync(account, PAYMENT_ID)).thenReturn(fromConnector);
+        when(ledgerService.getPaymentTransactionAsync(account, PAYMENT_ID)).thenReturn(completedFuture(aCharge("from-ledger")));
+
+        CompletableFuture<PaymentWithAllLinks> payment = hedgedGetPaymentService(10).getPaymentAsync(account, PAYMENT_ID).toCompletableFuture();
+
+        verify(ledgerService, timeout(1000)).getPaymentTransactionAsync(account, PAYMENT_ID);
+        assertThat(payment.isDone(), is(false));
+
+        fromConnector.completeExceptionally(mock(GetChargeException.class));
+
+        assertThat(payment.join().getPaymentId(), is("from-ledger"));
+        assertThat(metricRegistry.meter("get_payment.answered_by.ledger").getCount(), is(1L));
+        assertThat(metricRegistry.meter("get_payment.ledger_hedge.sent").getCount(), is(1L));
+        assertThat(metricRegistry.meter("get_payment.ledger_hedge.unused").getCount(), is(0L));
+    }
+
+    @Test
+    void getPayment_shouldPreferConnectorsAnswerEvenIfLedgerAnswersFirst() {
+        CompletableFuture<Charge> fromConnector = new CompletableFuture<>();
+        when(connectorService.getChargeAsync(account, PAYMENT_ID)).thenReturn(fromConnector);
+        when(ledgerService.getPaymentTransactionAsync(account, PAYMENT_ID)).thenReturn(completedFuture(aCharge("from-ledger")));
+
+        CompletableFuture<PaymentWithAllLinks> payment = hedgedGetPaymentService(0).getPaymentAsync(account, PAYMENT_ID).toCompletableFuture();
+        fromConnector.complete(aCharge("from-connector"));
+
+        assertThat(payment.join().getPaymentId(), is("from-connector"));
+        assertThat(metricRegistry.meter("get_payment.answered_by.connector").getCount(), is(1L));
+        assertThat(metricRegistry.meter("get_payment.ledger_hedge.unused").getCount(), is(1L));
+    }
+
+    @Test
+    void getPayment_shouldNotAskLedgerWhenConnectorAnswersWithinTheHedgeDelay() throws Exception {
+        when(connectorService.getChargeAsync(account, PAYMENT_ID)).thenReturn(completedFuture(aCharge("from-connector")));
+
+        PaymentWithAllLinks payment = hedgedGetPaymentService(10).getPaymentAsync(account, PAYMENT_ID).toCompletableFuture().join();
+        Thread.sleep(50);
+
+        assertThat(payment.getPaymentId(), is("from-connector"));
+        verify(ledgerService, never()).getPaymentTransactionAsync(account, PAYMENT_ID);
+        assertThat(metricRegistry.meter("get_payment.ledger_hedge.sent").getCount(), is(0L));
+    }
+
+    @Test
+    void getPayment_shouldNotHedgeOrUseTheAsyncClient_evenWhenHedgingIsEnabled() {
+        when(connectorService.getCharge(account, PAYMENT_ID)).thenReturn(aCharge("from-connector"));
+
+        PaymentWithAllLinks payment = hedgedGetPaymentService(0).getPayment(account, PAYMENT_ID);
+
+        assertThat(payment.getPaymentId(), is("from-connector"));
+        verify(connectorService, never()).getChargeAsync(account, PAYMENT_ID);
+        verifyNoInteractions(ledgerService);
+        assertThat(metricRegistry.meter("get_payment.ledger_hedge.sent").getCount(), is(0L));
+    }
+
+    @Test
+    void getPayment_shouldGoStraightToLedgerForPaymentsConnectorDidNotHaveLastTime() {
+        GetChargeException notFound = connectorError(404);
+        when(connectorService.getCharge(account, PAYMENT_ID)).thenThrow(notFound);
+        when(ledgerService.getPaymentTransaction(account, PAYMENT_ID)).thenReturn(aCharge("from-ledger"));
+        var getPaymentService = new GetPaymentService(publicApiUriGenerator, connectorService, ledgerService, paymentLocationHintCache,
+                new GetPaymentHedgingConfig(false, Duration.milliseconds(0)), metricRegistry);
+
+        getPaymentService.getPayment(account, PAYMENT_ID);
+        PaymentWithAllLinks payment = getPaymentService.getPayment(account, PAYMENT_ID);
+
+        assertThat(payment.getPaymentId(), is("from-ledger"));
+        verify(connectorService, times(1)).getCharge(account, PAYMENT_ID);
+        assertThat(metricRegistry.meter("payment_location_hint_cache.hits").getCount(), is(1L));
+        assertThat(metricRegistry.meter("get_payment.answered_by.ledger").getCount(), is(2L));
+    }
+
+    @Test
+    void getPayment_shouldNotRememberPaymentsFoundInLedger_whenConnectorFailedForAnotherReason() {
+        GetChargeException serverError = connectorError(500);
+        when(connectorService.getCharge(account, PAYMENT_ID)).thenThrow(serverError);
+        when(ledgerService.getPaymentTransaction(account, PAYMENT_ID)).thenReturn(aCharge("from-ledger"));
+        var getPaymentService = new GetPaymentService(publicApiUriGenerator, connectorService, ledgerService, paymentLocationHintCache,
+                new GetPaymentHedgingConfig(false, Duration.milliseconds(0)), metricRegistry);
+
+        assertThat(getPaymentService.getPayment(account, PAYMENT_ID).getPaymentId(), is("from-ledger"));
+        getPaymentService.getPayment(account, PAYMENT_ID);
+
+        verify(connectorService, times(2)).getCharge(account, PAYMENT_ID);
+        assertThat(paymentLocationHintCache.isOnlyInLedger(account, PAYMENT_ID), is(false));
+    }
+
+    @Test
+    void getPaymentAsync_shouldNotRememberPaymentsFoundInLedger_whenConnectorFailedForAnotherReason() {
+        GetChargeException serverError = connectorError(500);
+        when(connectorService.getChargeAsync(account, PAYMENT_ID)).thenReturn(failedFuture(serverError));
+        when(ledgerService.getPaymentTransactionAsync(account, PAYMENT_ID)).thenReturn(completedFuture(aCharge("from-ledger")));
+        var getPaymentService = new GetPaymentService(publicApiUriGenerator, connectorService, ledgerService, paymentLocationHintCache,
+                new GetPaymentHedgingConfig(false, Duration.milliseconds(0)), metricRegistry);
+
+        PaymentWithAllLinks payment = getPaymentService.getPaymentAsync(account, PAYMENT_ID).toCompletableFuture().join();
+
+        assertThat(payment.getPaymentId(), is("from-ledger"));
+        assertThat(paymentLocationHintCache.isOnlyInLedger(account, PAYMENT_ID), is(false));
+    }
+
+    @Test
+    void getPaymentAsync_shouldNotRememberPaymentsFoundInLedger_whenConnectorFailedForAnotherReasonWhileHedging() {
+        GetChargeException serverError = connectorError(500);
+        when(connectorService.getChargeAsync(account, PAYMENT_ID)).thenReturn(failedFuture(serverError));
+        when(ledgerService.getPaymentTransactionAsync(account, PAYMENT_ID)).thenReturn(completedFuture(aCharge("from-ledger")));
+
+        PaymentWithAllLinks payment = hedgedGetPaymentService(10).getPaymentAsync(account, PAYMENT_ID).toCompletableFuture().join();
+
+        assertThat(payment.getPaymentId(), is("from-ledger"));
+        assertThat(paymentLocationHintCache.isOnlyInLedger(account, PAYMENT_ID), is(false));
+    }
+
+    @Test
+    void getPaymentAsync_shouldRememberPaymentsFoundOnlyInLedgerWhenHedging() {
+        GetChargeException notFound = connectorError(404);
+        when(connectorService.getChargeAsync(account, PAYMENT_ID)).thenReturn(failedFuture(notFound));
+        when(ledgerService.getPaymentTransactionAsync(account, PAYMENT_ID)).thenReturn(completedFuture(aCharge("from-ledger")));
+        var getPaymentService = hedgedGetPaymentService(10);
+
+        getPaymentService.getPaymentAsync(account, PAYMENT_ID).toCompletableFuture().join();
+        getPaymentService.getPaymentAsync(account, PAYMENT_ID).toCompletableFuture().join();
+
+        verify(connectorService, times(1)).getChargeAsync(account, PAYMENT_ID);
+        verify(ledgerService, times(2)).getPaymentTransactionAsync(account, PAYMENT_ID);
+    }
+
+    @Test
+    void getPaymentAsync_shouldStopHedgingOnceTheHedgeBudgetRunsOut() {
+        when(connectorService.getChargeAsync(account, PAYMENT_ID)).thenReturn(new CompletableFuture<>());
+        when(ledgerService.getPaymentTransactionAsync(account, PAYMENT_ID)).thenReturn(new CompletableFuture<>());
+        var getPaymentService = new GetPaymentService(publicApiUriGenerator, connectorService, ledgerService, paymentLocationHintCache,
+                new GetPaymentHedgingConfig(true, Duration.milliseconds(0), 0), metricRegistry);
+
+        for (int i = 0; i < HedgeBudget.MAX_BURST + 5; i++) {
+            getPaymentService.getPaymentAsync(account, PAYMENT_ID);
+        }
+
+        verify(ledgerService, times(HedgeBudget.MAX_BURST)).getPaymentTransactionAsync(account, PAYMENT_ID);
+        assertThat(metricRegistry.meter("get_payment.ledger_hedge.sent").getCount(), is((long) HedgeBudget.MAX_BURST));
+        assertThat(metricRegistry.meter("get_payment.ledger_hedge.over_budget").getCount(), is(5L));
+    }
+
+    @Test
+    void getPaymentAsync_shouldHedgeUpToTheConfiguredPercentageOfLookups_onceTheBurstIsUsedUp() {
+        when(connectorService.getChargeAsync(account, PAYMENT_ID)).thenReturn(new CompletableFuture<>());
+        when(ledgerService.getPaymentTransactionAsync(account, PAYMENT_ID)).thenReturn(new CompletableFuture<>());
+        var getPaymentService = new GetPaymentService(publicApiUriGenerator, connectorService, ledgerService, paymentLocationHintCache,
+                new GetPaymentHedgingConfig(true, Duration.milliseconds(0), 50), metricRegistry);
+
+        for (int i = 0; i < 2 * HedgeBudget.MAX_BURST + 10; i++) {
+            getPaymentService.getPaymentAsync(account, PAYMENT_ID);
+        }
+
+        assertThat(metricRegistry.meter("get_payment.ledger_hedge.sent").getCount(), is((long) 2 * HedgeBudget.MAX_BURST + 5));
+        assertThat(metricRegistry.meter("get_payment.ledger_hedge.over_budget").getCount(), is(5L));
+    }
+
+    private GetPaymentService hedgedGetPaymentService(long delayMillis) {
+        return new GetPaymentService(publicApiUriGenerator, connectorService, ledgerService, paymentLocationHintCache,
+                new GetPaymentHedgingConfig(true, Duration.milliseconds(delayMillis)), metricRegistry);
+    }
+
+    private static GetChargeException connectorError(int status) {
+        GetChargeException exception = mock(GetChargeException.class);
+        when(exception.getErrorStatus()).thenReturn(status);
+        return exception;
+    }
+
+    private static Charge aCharge(String chargeId) {
+        try {
+            return Charge.from(new ObjectMapper().readValue(
+                    "{\"charge_id\": \"" + chargeId + "\", \"amount\": 100, \"state\": {\"status\": \"success\", \"finished\": true}}",
+                    ChargeFromResponse.class));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package uk.gov.pay.api.service;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.PaymentStateLongPollConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.model.PaymentState;
+import uk.gov.pay.api.model.TokenPaymentType;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import jakarta.ws.rs.ProcessingException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentStateWatcherTest {
+
+    private static final String PAYMENT_ID = "a-payment-id";
+    private static final String PAYMENT_URI = "https://my.link/v1/payments/" + PAYMENT_ID;
+
+    private final Account account = new Account("an-account-id", TokenPaymentType.CARD, "a-token-link");
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @Mock
+    private GetPaymentService getPaymentService;
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void shouldAnswerAsSoonAsTheStatusIsNotTheKnownStatus() {
+        PaymentWithAllLinks submitted = aPayment("submitted", false);
+        when(getPaymentService.getPaymentAsync(account, PAYMENT_ID)).thenReturn(
+                completedFuture(aPayment("started", false)),
+                completedFuture(aPayment("started", false)),
+                completedFuture(submitted));
+
+        PaymentWithAllLinks payment = watcher(1000).waitForStateChange(account, PAYMENT_ID, "started", Duration.ofSeconds(5))
+                .toCompletableFuture().join();
+
+        assertThat(payment, sameInstance(submitted));
+        verify(getPaymentService, times(3)).getPaymentAsync(account, PAYMENT_ID);
+        assertThat(metricRegistry.meter("payment_state_long_poll.answered").getCount(), is(1L));
+        assertThat(metricRegistry.getGauges().get("payment_state_long_poll.waiting").getValue(), is(0));
+    }
+
+    @Test
+    void shouldWaitForTheStatusToChangeFromTheFirstOneSeen_whenNoStatusIsKnown() {
+        PaymentWithAllLinks success = aPayment("success", true);
+        when(getPaymentService.getPaymentAsync(account, PAYMENT_ID)).thenReturn(
+                completedFuture(aPayment("created", false)),
+                completedFuture(success));
+
+        PaymentWithAllLinks payment = watcher(1000).waitForStateChange(account, PAYMENT_ID, null, Duration.ofSeconds(5))
+                .toCompletableFuture().join();
+
+        assertThat(payment, sameInstance(success));
+    }
+
+    @Test
+    void shouldAnswerStraightAway_whenThePaymentIsFinished() {
+        PaymentWithAllLinks success = aPayment("success", true);
+        when(getPaymentService.getPaymentAsync(account, PAYMENT_ID)).thenReturn(completedFuture(success));
+
+        PaymentWithAllLinks payment = watcher(1000).waitForStateChange(account, PAYMENT_ID, "success", Duration.ofSeconds(5))
+                .toCompletableFuture().join();
+
+        assertThat(payment, sameInstance(success));
+        verify(getPaymentService, times(1)).getPaymentAsync(account, PAYMENT_ID);
+    }
+
+    @Test
+    void shouldAnswerWithThePaymentAsItIs_whenTheWaitIsOver() {
+        PaymentWithAllLinks started = aPayment("started", false);
+        when(getPaymentService.getPaymentAsync(account, PAYMENT_ID)).thenReturn(completedFuture(started));
+
+        PaymentWithAllLinks payment = watcher(1000).waitForStateChange(account, PAYMENT_ID, "started", Duration.ofMillis(100))
+                .toCompletableFuture().join();
+
+        assertThat(payment, sameInstance(started));
+        assertThat(metricRegistry.meter("payment_state_long_poll.timed_out").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldNotHoldTheRequest_whenTooManyAreAlreadyWaiting() {
+        PaymentWithAllLinks started = aPayment("started", false);
+        when(getPaymentService.getPaymentAsync(account, PAYMENT_ID)).thenReturn(completedFuture(started));
+
+        PaymentWithAllLinks payment = watcher(0).waitForStateChange(account, PAYMENT_ID, "started", Duration.ofSeconds(5))
+                .toCompletableFuture().join();
+
+        assertThat(payment, sameInstance(started));
+        verify(getPaymentService, times(1)).getPaymentAsync(account, PAYMENT_ID);
+        assertThat(metricRegistry.meter("payment_state_long_poll.not_held").getCount(), is(1L));
+    }
+
+    @Test
+    void shouldFail_whenThePaymentCannotBeLookedUp() {
+        ProcessingException connectorUnreachable = new ProcessingException("Connection refused");
+        when(getPaymentService.getPaymentAsync(account, PAYMENT_ID)).thenReturn(
+                completedFuture(aPayment("started", false)),
+                failedFuture(connectorUnreachable));
+
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> watcher(1000).waitForStateChange(account, PAYMENT_ID, "started", Duration.ofSeconds(5))
+                        .toCompletableFuture().join());
+
+        assertThat(thrown.getCause(), sameInstance(connectorUnreachable));
+        assertThat(metricRegistry.getGauges().get("payment_state_long_poll.waiting").getValue(), is(0));
+    }
+
+    @Test
+    void shouldFail_whenTheLookupIsRejectedBeforeItStarts() {
+        RejectedExecutionException rejected = new RejectedExecutionException("Client pool is full");
+        when(getPaymentService.getPaymentAsync(account, PAYMENT_ID)).thenThrow(rejected);
+
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> watcher(1000).waitForStateChange(account, PAYMENT_ID, "started", Duration.ofSeconds(5))
+                        .toCompletableFuture().join());
+
+        assertThat(thrown.getCause(), sameInstance(rejected));
+        assertThat(metricRegistry.getGauges().get("payment_state_long_poll.waiting").getValue(), is(0));
+    }
+
+    @Test
+    void shouldFail_whenALaterLookupIsRejectedBeforeItStarts() {
+        RejectedExecutionException rejected = new RejectedExecutionException("Client pool is full");
+        when(getPaymentService.getPaymentAsync(account, PAYMENT_ID))
+                .thenReturn(completedFuture(aPayment("started", false)))
+                .thenThrow(rejected);
+
+        CompletionException thrown = assertThrows(CompletionException.class,
+                () -> watcher(1000).waitForStateChange(account, PAYMENT_ID, "started", Duration.ofSeconds(5))
+                        .toCompletableFuture().join());
+
+        assertThat(thrown.getCause(), sameInstance(rejected));
+        assertThat(metricRegistry.getGauges().get("payment_state_long_poll.waiting").getValue(), is(0));
+    }
+
+    private PaymentStateWatcher watcher(int maxWaiting) {
+        var config = new PaymentStateLongPollConfig(io.dropwizard.util.Duration.seconds(25),
+                io.dropwizard.util.Duration.milliseconds(10), io.dropwizard.util.Duration.milliseconds(40), maxWaiting);
+        return new PaymentStateWatcher(getPaymentService, config, scheduler, metricRegistry);
+    }
+
+    private static PaymentWithAllLinks aPayment(String status, boolean finished) {
+        return new PaymentWithAllLinks.PaymentWithAllLinksBuilder()
+                .withChargeId(PAYMENT_ID)
+                .withState(new PaymentState(status, finished))
+                .withPaymentConnectorResponseLinks(Collections.emptyList())
+                .withSelfLink(URI.create(PAYMENT_URI))
+                .withPaymentEventsUri(URI.create(PAYMENT_URI + "/events"))
+                .withPaymentCancelUri(URI.create(PAYMENT_URI + "/cancel"))
+                .withPaymentRefundsUri(URI.create(PAYMENT_URI + "/refunds"))
+                .build();
+    }
+}
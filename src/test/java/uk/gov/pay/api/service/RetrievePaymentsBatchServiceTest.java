@@ -0,0 +1,195 @@
+package uk.gov.pay.api.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.api.app.config.PaymentsBatchConfig;
+import uk.gov.pay.api.auth.Account;
+import uk.gov.pay.api.exception.GetChargeException;
+import uk.gov.pay.api.exception.PaymentValidationException;
+import uk.gov.pay.api.model.PaymentState;
+import uk.gov.pay.api.model.RetrievePaymentsBatchRequest;
+import uk.gov.pay.api.model.RetrievedPayment;
+import uk.gov.pay.api.model.TokenPaymentType;
+import uk.gov.pay.api.model.links.PaymentWithAllLinks;
+
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RetrievePaymentsBatchServiceTest {
+
+    private final Account account = new Account("an-account-id", TokenPaymentType.CARD, "a-token-link");
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    @Mock
+    private GetPaymentService getPaymentService;
+
+    @Test
+    void shouldReturnThePaymentsInTheOrderTheyWereAskedFor() {
+        PaymentWithAllLinks first = aPayment("first");
+        PaymentWithAllLinks second = aPayment("second");
+        CompletableFuture<PaymentWithAllLinks> firstLookup = new CompletableFuture<>();
+        when(getPaymentService.getPaymentAsync(account, "first")).thenReturn(firstLookup);
+        when(getPaymentService.getPaymentAsync(account, "second")).thenReturn(completedFuture(second));
+
+        List<CompletableFuture<RetrievedPayment>> results = service(10).lookUp(account, List.of("first", "second"));
+        firstLookup.complete(first);
+
+        assertThat(results.get(0).join().getPayment(), sameInstance(first));
+        assertThat(results.get(1).join().getPayment(), sameInstance(second));
+        assertThat(results.get(1).join().getStatus(), is(200));
+    }
+
+    @Test
+    void shouldHaveNoMoreThanTheConfiguredNumberOfLookupsInFlight() {
+        Map<String, CompletableFuture<PaymentWithAllLinks>> lookups = new HashMap<>();
+        when(getPaymentService.getPaymentAsync(eq(account), anyString())).thenAnswer(invocation -> {
+            CompletableFuture<PaymentWithAllLinks> lookup = new CompletableFuture<>();
+            lookups.put(invocation.getArgument(1), lookup);
+            return lookup;
+        });
+        List<String> paymentIds = IntStream.range(0, 5).mapToObj(i -> "payment-" + i).toList();
+
+        List<CompletableFuture<RetrievedPayment>> results = service(2).lookUp(account, paymentIds);
+
+        assertThat(lookups.keySet(), is(Set.of("payment-0", "payment-1")));
+        lookups.get("payment-1").complete(aPayment("payment-1"));
+        assertThat(lookups.size(), is(3));
+        assertThat(lookups.containsKey("payment-2"), is(true));
+
+        lookups.get("payment-0").complete(aPayment("payment-0"));
+        lookups.get("payment-2").complete(aPayment("payment-2"));
+        lookups.get("payment-3").complete(aPayment("payment-3"));
+        lookups.get("payment-4").complete(aPayment("payment-4"));
+
+        assertThat(results.stream().allMatch(CompletableFuture::isDone), is(true));
+    }
+
+    @Test
+    void shouldReturnANotFoundError_forAPaymentThatDoesNotExist() {
+        Response notFound = mock(Response.class);
+        when(notFound.getStatus()).thenReturn(404);
+        when(getPaymentService.getPaymentAsync(account, "missing")).thenReturn(failedFuture(new GetChargeException(notFound)));
+
+        RetrievedPayment result = service(10).lookUp(account, List.of("missing")).get(0).join();
+
+        assertThat(result.getPaymentId(), is("missing"));
+        assertThat(result.getStatus(), is(404));
+        assertThat(result.getPayment(), is(nullValue()));
+        assertThat(result.getError().getCode(), is("P0200"));
+    }
+
+    @Test
+    void shouldReturnAnErrorForThatPaymentAlone_whenALookupFails() {
+        PaymentWithAllLinks found = aPayment("found");
+        when(getPaymentService.getPaymentAsync(account, "found")).thenReturn(completedFuture(found));
+        when(getPaymentService.getPaymentAsync(account, "broken")).thenReturn(failedFuture(new ProcessingException("Connection refused")));
+
+        List<CompletableFuture<RetrievedPayment>> results = service(10).lookUp(account, List.of("broken", "found"));
+
+        assertThat(results.get(0).join().getStatus(), is(500));
+        assertThat(results.get(0).join().getError().getCode(), is("P0298"));
+        assertThat(results.get(1).join().getPayment(), sameInstance(found));
+    }
+
+    @Test
+    void shouldReturnAnErrorForThatPaymentAlone_whenTurningALookupIntoAResultFails() {
+        GetChargeException unreadable = mock(GetChargeException.class);
+        when(unreadable.getErrorStatus()).thenThrow(new IllegalStateException("Response already closed"));
+        when(getPaymentService.getPaymentAsync(account, "unreadable")).thenReturn(failedFuture(unreadable));
+        when(getPaymentService.getPaymentAsync(account, "found")).thenReturn(completedFuture(aPayment("found")));
+
+        List<CompletableFuture<RetrievedPayment>> results = service(1).lookUp(account, List.of("unreadable", "found"));
+
+        assertThat(results.get(0).join().getPaymentId(), is("unreadable"));
+        assertThat(results.get(0).join().getStatus(), is(500));
+        assertThat(results.get(1).join().getStatus(), is(200));
+    }
+
+    @Test
+    void shouldStreamTheResultsAsAJsonArray() throws Exception {
+        when(getPaymentService.getPaymentAsync(account, "found")).thenReturn(completedFuture(aPayment("found")));
+        when(getPaymentService.getPaymentAsync(account, "broken")).thenReturn(failedFuture(new ProcessingException("Connection refused")));
+        var output = new ByteArrayOutputStream();
+
+        service(10).retrieve(account, List.of("found", "broken")).write(output);
+
+        JsonNode json = new ObjectMapper().readTree(output.toByteArray());
+        assertThat(json.size(), is(2));
+        assertThat(json.get(0).get("payment_id").asText(), is("found"));
+        assertThat(json.get(0).get("status").asInt(), is(200));
+        assertThat(json.get(0).get("payment").get("payment_id").asText(), is("found"));
+        assertThat(json.get(0).has("error"), is(false));
+        assertThat(json.get(1).get("status").asInt(), is(500));
+        assertThat(json.get(1).get("error").get("code").asText(), is("P0298"));
+        assertThat(metricRegistry.histogram("retrieve_payments_batch.size").getSnapshot().getMax(), is(2L));
+    }
+
+    @Test
+    void shouldRejectABatchWithNoPaymentIds() {
+        var exception = assertThrows(PaymentValidationException.class,
+                () -> service(10).validate(new RetrievePaymentsBatchRequest(Collections.emptyList())));
+
+        assertThat(exception.getRequestError().getCode(), is("P0202"));
+        assertThat(exception.getRequestError().getDescription(), is("Invalid attribute value: payment_ids. Must contain between 1 and 3 payment IDs"));
+    }
+
+    @Test
+    void shouldRejectABatchWithTooManyPaymentIds() {
+        var exception = assertThrows(PaymentValidationException.class,
+                () -> service(10).validate(new RetrievePaymentsBatchRequest(List.of("a", "b", "c", "d"))));
+
+        assertThat(exception.getRequestError().getCode(), is("P0202"));
+    }
+
+    @Test
+    void shouldRejectABatchWithABlankPaymentId() {
+        var exception = assertThrows(PaymentValidationException.class,
+                () -> service(10).validate(new RetrievePaymentsBatchRequest(List.of("a", " "))));
+
+        assertThat(exception.getRequestError().getDescription(), is("Invalid attribute value: payment_ids. Payment IDs must not be blank"));
+    }
+
+    private RetrievePaymentsBatchService service(int parallelism) {
+        return new RetrievePaymentsBatchService(getPaymentService, new ObjectMapper(), new PaymentsBatchConfig(3, parallelism), metricRegistry);
+    }
+
+    private static PaymentWithAllLinks aPayment(String paymentId) {
+        String paymentUri = "https://my.link/v1/payments/" + paymentId;
+        return new PaymentWithAllLinks.PaymentWithAllLinksBuilder()
+                .withChargeId(paymentId)
+                .withState(new PaymentState("success", true))
+                .withPaymentConnectorResponseLinks(Collections.emptyList())
+                .withSelfLink(URI.create(paymentUri))
+                .withPaymentEventsUri(URI.create(paymentUri + "/events"))
+                .withPaymentCancelUri(URI.create(paymentUri + "/cancel"))
+                .withPaymentRefundsUri(URI.create(paymentUri + "/refunds"))
+                .build();
+    }
+}
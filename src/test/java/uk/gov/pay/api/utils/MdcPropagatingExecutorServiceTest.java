@@ -0,0 +1,43 @@
+package uk.gov.pay.api.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class MdcPropagatingExecutorServiceTest {
+
+    private final ExecutorService executor = new MdcPropagatingExecutorService(Executors.newSingleThreadExecutor());
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        MDC.clear();
+    }
+
+    @Test
+    void shouldRunTasksWithTheMdcOfTheSubmittingThread() throws Exception {
+        MDC.put("gateway_account_id", "123");
+
+        String accountId = executor.submit(() -> MDC.get("gateway_account_id")).get();
+
+        assertThat(accountId, is("123"));
+    }
+
+    @Test
+    void shouldClearTheMdcAfterEachTask() throws Exception {
+        MDC.put("gateway_account_id", "123");
+        executor.submit(() -> MDC.get("gateway_account_id")).get();
+        MDC.clear();
+
+        String accountId = executor.submit(() -> MDC.get("gateway_account_id")).get();
+
+        assertThat(accountId, is(nullValue()));
+    }
+}